@@ -0,0 +1,131 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package co.aikar.timings;
+
+import co.aikar.util.JSONUtil;
+import com.google.gson.JsonObject;
+import org.spongepowered.api.scheduler.Task;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Queue wait and run time histograms of asynchronous plugin tasks, which are
+ * included in timings reports next to the tick based handlers.
+ */
+public final class AsyncTaskTimings {
+
+    // Timings which record nothing, used while timings are disabled
+    public static final AsyncTaskTimings NONE = new AsyncTaskTimings("", "");
+    // Keyed by the plugin id for single tasks, and by the task id for repeating tasks
+    static final Map<Object, AsyncTaskTimings> TASK_TIMINGS = new ConcurrentHashMap<>();
+
+    private final String plugin;
+    private final String name;
+    private final TimingHistogram queueWait = new TimingHistogram();
+    private final TimingHistogram runTime = new TimingHistogram();
+
+    private AsyncTaskTimings(String plugin, String name) {
+        this.plugin = plugin;
+        this.name = name;
+    }
+
+    /**
+     * Gets the timings for the given asynchronous task. Single tasks share
+     * the timings of their plugin, repeating tasks have their own.
+     *
+     * @param task The task
+     * @return The timings, or {@link #NONE} if timings are disabled
+     */
+    public static AsyncTaskTimings of(Task task) {
+        if (!Timings.isTimingsEnabled()) {
+            return NONE;
+        }
+        final String plugin = task.getOwner().getId();
+        if (task.getInterval() <= 0) {
+            return TASK_TIMINGS.computeIfAbsent(plugin, key -> new AsyncTaskTimings(plugin, "Task: (Single)"));
+        }
+        final AsyncTaskTimings timings = TASK_TIMINGS.get(task.getUniqueId());
+        if (timings != null) {
+            return timings;
+        }
+        final String name = "Task: " + task.getName() + " (interval:" + task.getInterval() + ")";
+        return TASK_TIMINGS.computeIfAbsent(task.getUniqueId(), key -> new AsyncTaskTimings(plugin, name));
+    }
+
+    /**
+     * Removes the timings of the given repeating task, once it has been
+     * removed from the scheduler.
+     *
+     * @param task The task
+     */
+    public static void remove(Task task) {
+        TASK_TIMINGS.remove(task.getUniqueId());
+    }
+
+    /**
+     * Records the time a task waited to be run after it was submitted to the
+     * executor.
+     *
+     * @param nanos The wait time in nanoseconds
+     */
+    public void recordQueueWait(long nanos) {
+        if (this != NONE && Timings.isTimingsEnabled()) {
+            this.queueWait.record(nanos);
+        }
+    }
+
+    /**
+     * Records the time it took to run a task.
+     *
+     * @param nanos The run time in nanoseconds
+     */
+    public void recordRunTime(long nanos) {
+        if (this != NONE && Timings.isTimingsEnabled()) {
+            this.runTime.record(nanos);
+        }
+    }
+
+    static void reset() {
+        TASK_TIMINGS.clear();
+    }
+
+    static JsonObject export() {
+        return JSONUtil.mapArrayToObject(TASK_TIMINGS.entrySet(), (entry) -> {
+            AsyncTaskTimings timings = entry.getValue();
+            if (timings.runTime.getCount() == 0) {
+                return null;
+            }
+            final String key = entry.getKey() instanceof UUID ? timings.plugin + ':' + entry.getKey() : timings.plugin;
+            return JSONUtil.singleObjectPair(key, JSONUtil.objectBuilder()
+                    .add("plugin", timings.plugin)
+                    .add("name", timings.name)
+                    .add("wait", timings.queueWait.export())
+                    .add("run", timings.runTime.export()));
+        });
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package co.aikar.timings;
+
+import co.aikar.util.JSONUtil;
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe histogram of durations with power of two buckets, meant for
+ * code which runs off the main thread and thus can't use a
+ * {@link TimingHandler}.
+ */
+final class TimingHistogram {
+
+    // The first bucket holds durations up to 2^10ns (~1us), the last
+    // one everything from 2^36ns (~69s) on
+    private static final int MIN_SHIFT = 10;
+    private static final int BUCKETS = 27;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalTime = new AtomicLong();
+    private final AtomicLong maxTime = new AtomicLong();
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int bucket = Math.max(0, 64 - Long.numberOfLeadingZeros(nanos) - MIN_SHIFT);
+        this.buckets.incrementAndGet(Math.min(bucket, BUCKETS - 1));
+        this.count.incrementAndGet();
+        this.totalTime.addAndGet(nanos);
+        long max;
+        while ((max = this.maxTime.get()) < nanos && !this.maxTime.compareAndSet(max, nanos)) {
+            // Retry until the maximum is updated
+        }
+    }
+
+    long getCount() {
+        return this.count.get();
+    }
+
+    JsonObject export() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+        }
+        return JSONUtil.objectBuilder()
+                .add("count", this.count.get())
+                .add("total", this.totalTime.get())
+                .add("max", this.maxTime.get())
+                .add("minshift", MIN_SHIFT)
+                .add("buckets", counts)
+                .build();
+    }
+
+}
@@ -29,6 +29,7 @@
 import co.aikar.util.JSONUtil;
 import co.aikar.util.JSONUtil.JsonObjectBuilder;
 import com.google.common.base.Joiner;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Sets;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -48,6 +49,13 @@
 import org.spongepowered.api.text.format.TextColors;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.entity.SpongeEntityType;
+import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.scheduler.AsyncScheduler;
+import org.spongepowered.common.scheduler.SpongeScheduler;
+import org.spongepowered.common.text.selector.SelectorResolver;
+import org.spongepowered.common.text.selector.SpongeSelectorFactory;
+import org.spongepowered.common.world.WorldManager;
+import org.spongepowered.common.world.storage.SpongeRegionFileCache;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -177,6 +185,48 @@ static void reportTimings(CommandSource sender) {
             ).build();
         }));
 
+        // Queue wait and run times of asynchronous tasks
+
+        builder.add("asynctasks", AsyncTaskTimings.export());
+        AsyncScheduler asyncScheduler = SpongeScheduler.getInstance().getAsyncScheduler();
+        builder.add("asyncscheduler", JSONUtil.objectBuilder()
+                .add("queuedepth", asyncScheduler.getQueueDepth())
+                .add("avglateness", asyncScheduler.getAverageLateness())
+                .add("maxlateness", asyncScheduler.getMaxLateness()));
+
+        // Chunk unload queues of the loaded worlds
+
+        builder.add("chunkunloads", JSONUtil.mapArrayToObject(WorldManager.getWorlds(), (world) -> {
+            WorldTimingsHandler timings = ((IMixinWorldServer) world).getTimingsHandler();
+            return JSONUtil.singleObjectPair(timings.worldName, timings.exportChunkUnloads());
+        }));
+
+        // Chunk save queues of the loaded worlds
+
+        builder.add("chunksaves", JSONUtil.mapArrayToObject(WorldManager.getWorlds(), (world) -> {
+            WorldTimingsHandler timings = ((IMixinWorldServer) world).getTimingsHandler();
+            return JSONUtil.singleObjectPair(timings.worldName, timings.exportChunkSaves());
+        }));
+
+        // Open region files shared by all worlds
+
+        builder.add("regionfiles", JSONUtil.objectBuilder()
+                .add("open", SpongeRegionFileCache.getSize())
+                .add("capacity", SpongeRegionFileCache.getCapacity())
+                .add("hits", SpongeRegionFileCache.getHits())
+                .add("misses", SpongeRegionFileCache.getMisses())
+                .add("evictions", SpongeRegionFileCache.getEvictions()));
+
+        // Parsed selectors and their compiled filters
+
+        CacheStats selectorStats = SpongeSelectorFactory.INSTANCE.getSelectorCacheStats();
+        builder.add("selectors", JSONUtil.objectBuilder()
+                .add("parsehits", selectorStats.hitCount())
+                .add("parsemisses", selectorStats.missCount())
+                .add("parsehitrate", selectorStats.hitRate())
+                .add("filterhits", SelectorResolver.getFilterCacheHits())
+                .add("filtermisses", SelectorResolver.getFilterCacheMisses()));
+
         // Information on the users Config
 
         builder.add("config", JSONUtil.objectBuilder()
@@ -26,9 +26,12 @@
 
 import co.aikar.util.LoadingMap;
 import com.google.common.collect.EvictingQueue;
+import net.minecraft.world.WorldServer;
 import org.spongepowered.api.plugin.PluginContainer;
 import org.spongepowered.api.command.CommandMapping;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinWorldServer;
+import org.spongepowered.common.world.WorldManager;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -120,6 +123,11 @@ static void resetTimings() {
                 SpongeImpl.getLogger().info("Timings reset");
             }
             HISTORY.clear();
+            AsyncTaskTimings.reset();
+            for (WorldServer world : WorldManager.getWorlds()) {
+                ((IMixinWorldServer) world).getTimingsHandler().resetChunkUnloads();
+                ((IMixinWorldServer) world).getTimingsHandler().resetChunkSaves();
+            }
             needsFullReset = false;
             needsRecheckEnabled = false;
             timingStart = System.currentTimeMillis();
@@ -24,8 +24,13 @@
  */
 package co.aikar.timings;
 
+import co.aikar.util.JSONUtil;
+import com.google.gson.JsonObject;
 import net.minecraft.world.World;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Set of timers per world, to track world specific Timings.
  */
@@ -75,8 +80,19 @@ public class WorldTimingsHandler {
     // Chunk population
     public final Timing chunkPopulate;
 
+    // Chunk unload queue
+    final String worldName;
+    private TimingHistogram chunkUnloadLag = new TimingHistogram();
+    private volatile int chunkUnloadQueueSize;
+
+    // Chunk save queue
+    private TimingHistogram chunkSaveWrites = new TimingHistogram();
+    private final AtomicLong chunkSaveOverflows = new AtomicLong();
+    private volatile int chunkSaveQueueSize;
+
     public WorldTimingsHandler(World world) {
-        String name = world.getWorldInfo().getWorldName() + " - ";
+        this.worldName = world.getWorldInfo().getWorldName();
+        String name = this.worldName + " - ";
 
         this.mobSpawn = SpongeTimingsFactory.ofSafe(name + "mobSpawn");
         this.doChunkUnload = SpongeTimingsFactory.ofSafe(name + "doChunkUnload");
@@ -120,4 +136,78 @@ public WorldTimingsHandler(World world) {
 
         this.chunkPopulate = SpongeTimingsFactory.ofSafe(name + "chunkPopulate");
     }
+
+    /**
+     * Records the amount of chunks waiting in the unload queue after the
+     * queue was processed for a tick.
+     *
+     * @param size The queue size
+     */
+    public void recordChunkUnloadQueueSize(int size) {
+        this.chunkUnloadQueueSize = size;
+    }
+
+    /**
+     * Records how long after it was due a chunk was unloaded.
+     *
+     * @param millis The lag in milliseconds
+     */
+    public void recordChunkUnloadLag(long millis) {
+        if (Timings.isTimingsEnabled()) {
+            this.chunkUnloadLag.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    void resetChunkUnloads() {
+        this.chunkUnloadLag = new TimingHistogram();
+    }
+
+    JsonObject exportChunkUnloads() {
+        return JSONUtil.objectBuilder()
+                .add("queue", this.chunkUnloadQueueSize)
+                .add("lag", this.chunkUnloadLag.export())
+                .build();
+    }
+
+    /**
+     * Records the amount of chunks waiting to be written after a chunk was
+     * queued or written.
+     *
+     * @param size The queue size
+     */
+    public void recordChunkSaveQueueSize(int size) {
+        this.chunkSaveQueueSize = size;
+    }
+
+    /**
+     * Records that a chunk was written by the saving thread because the
+     * queue was full.
+     */
+    public void recordChunkSaveOverflow() {
+        this.chunkSaveOverflows.incrementAndGet();
+    }
+
+    /**
+     * Records how long it took to compress and write a chunk.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void recordChunkSaveWrite(long nanos) {
+        if (Timings.isTimingsEnabled()) {
+            this.chunkSaveWrites.record(nanos);
+        }
+    }
+
+    void resetChunkSaves() {
+        this.chunkSaveWrites = new TimingHistogram();
+        this.chunkSaveOverflows.set(0);
+    }
+
+    JsonObject exportChunkSaves() {
+        return JSONUtil.objectBuilder()
+                .add("queue", this.chunkSaveQueueSize)
+                .add("overflows", this.chunkSaveOverflows.get())
+                .add("writes", this.chunkSaveWrites.export())
+                .build();
+    }
 }
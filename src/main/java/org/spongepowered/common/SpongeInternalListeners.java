@@ -32,6 +32,7 @@
 import org.spongepowered.api.event.service.ChangeServiceProviderEvent;
 import org.spongepowered.api.event.world.SaveWorldEvent;
 import org.spongepowered.common.interfaces.server.management.IMixinPlayerProfileCache;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.util.SpongeUsernameCache;
 
 import java.util.Iterator;
@@ -74,6 +75,7 @@ public void onWorldSave(SaveWorldEvent event) {
         if (Sponge.getServer().getDefaultWorld().isPresent()) {
             if (event.getTargetWorld().getUniqueId().equals(Sponge.getServer().getDefaultWorld().get().getUniqueId())) {
                 SpongeUsernameCache.save();
+                UserIndex.getInstance().save();
                 final MinecraftServer server = SpongeImpl.getServer();
                 ((IMixinPlayerProfileCache) server.getPlayerProfileCache()).setCanSave(true);
                 server.getPlayerProfileCache().save();
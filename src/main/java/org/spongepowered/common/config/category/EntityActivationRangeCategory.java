@@ -39,6 +39,17 @@ public class EntityActivationRangeCategory extends ConfigCategory {
     private Map<String, Integer> defaultRanges = new HashMap<>();
     @Setting(value = "mods", comment = "Per-mod overrides. Refer to the minecraft default mod for example.")
     private Map<String, EntityActivationModCategory> modList = new HashMap<>();
+    @Setting(value = "adaptive-throttling", comment = "If enabled, activation ranges are narrowed and inactive entities are ticked less often\n"
+                                                      + "while the world tick time is above 'adaptive-target-tick-time', and\n"
+                                                      + "restored once the world has recovered.")
+    private boolean adaptiveThrottling = false;
+    @Setting(value = "adaptive-target-tick-time", comment = "The world tick time in milliseconds adaptive throttling tries to stay below.")
+    private double adaptiveTargetTickTime = 40;
+    @Setting(value = "adaptive-min-range-scale", comment = "The lowest factor adaptive throttling applies to configured activation ranges.")
+    private double adaptiveMinRangeScale = 0.5;
+    @Setting(value = "adaptive-max-inactive-tick-interval", comment = "The highest amount of ticks between two ticks of an inactive entity\n"
+                                                                      + "under adaptive throttling. Inactive entities tick every 20 ticks otherwise.")
+    private int adaptiveMaxInactiveTickInterval = 80;
 
     public EntityActivationRangeCategory() {
         this.defaultRanges.put("ambient", 32);
@@ -59,4 +70,20 @@ public Map<String, Integer> getDefaultRanges() {
     public Map<String, EntityActivationModCategory> getModList() {
         return this.modList;
     }
+
+    public boolean isAdaptiveThrottling() {
+        return this.adaptiveThrottling;
+    }
+
+    public double getAdaptiveTargetTickTime() {
+        return this.adaptiveTargetTickTime;
+    }
+
+    public double getAdaptiveMinRangeScale() {
+        return this.adaptiveMinRangeScale;
+    }
+
+    public int getAdaptiveMaxInactiveTickInterval() {
+        return this.adaptiveMaxInactiveTickInterval;
+    }
 }
\ No newline at end of file
@@ -58,6 +58,13 @@ public class GlobalWorldCategory extends WorldCategory {
             + "\nFinally, if set to 0 or less, the default interval will be used.")
     private int gameProfileQueryTaskInterval = 2;
 
+    @Setting(value = "gameprofile-lookup-rate-limit", comment =
+            "The maximum amount of GameProfile requests per second made against Mojang's servers. (Default: 0)"
+            + "\nConcurrent requests for the same profile are always merged into one, and name lookups are sent in bulk."
+            + "\nNote: Mojang accepts a maximum of 600 requests every 10 minutes, which is a rate of 1 per second."
+            + "\nFinally, if set to 0 or less, the requests are not limited.")
+    private double gameProfileLookupRateLimit = 0;
+
     @Setting(value = "invalid-lookup-uuids", comment = 
             "The list of uuid's that should never perform a lookup against Mojang's session server."
             + "\nNote: If you are using SpongeForge, make sure to enter any mod fake player's UUID to this list.")
@@ -95,6 +102,10 @@ public int getGameProfileQueryTaskInterval() {
         return this.gameProfileQueryTaskInterval;
     }
 
+    public double getGameProfileLookupRateLimit() {
+        return this.gameProfileLookupRateLimit;
+    }
+
     public List<UUID> getInvalidLookupUuids() {
         return this.invalidLookupUuids;
     }
@@ -56,6 +56,45 @@ public class OptimizationCategory extends ConfigCategory {
                                                                + "world heights and can thus be disabled in those cases.")
     private boolean inlineBlockPositionChecks = true;
 
+    @Setting(value = "async-chunk-saving", comment = "If enabled, chunks are still serialized on the main thread, but compressed\n"
+                                                     + "and written to their region files by a pool of I/O threads instead of the\n"
+                                                     + "single vanilla file I/O thread. Pending writes are completed before worlds\n"
+                                                     + "are flushed and the server shuts down.")
+    private boolean asyncChunkSaving = false;
+
+    @Setting(value = "async-chunk-save-threads", comment = "The amount of threads writing chunks if 'async-chunk-saving' is enabled.")
+    private int asyncChunkSaveThreads = 2;
+
+    @Setting(value = "async-chunk-save-queue-limit", comment = "The amount of chunks of a world that may wait to be written if 'async-chunk-saving'\n"
+                                                               + "is enabled. Chunks saved while the queue is full are written directly by the\n"
+                                                               + "saving thread, which slows it down until the I/O threads catch up.")
+    private int asyncChunkSaveQueueLimit = 1024;
+
+    @Setting(value = "region-file-cache-size", comment = "The amount of region files which are kept open. Once exceeded, the least\n"
+                                                         + "recently used region file is closed. Vanilla closes all of them instead.")
+    private int regionFileCacheSize = 256;
+
+    @Setting(value = "parallel-spawn-chunk-loading", comment = "If enabled, the spawn chunks of worlds are read from disk by a pool of threads\n"
+                                                               + "while the spawn areas are prepared, instead of one after another by the main\n"
+                                                               + "thread. Missing spawn chunks are still generated on the main thread.")
+    private boolean parallelSpawnChunkLoading = false;
+
+    @Setting(value = "off-heap-volume-copy-threshold", comment = "The amount of blocks from which on standard copies of block and biome buffers\n"
+                                                                 + "are stored off the heap, in direct memory which doesn't fill the old\n"
+                                                                 + "generation of the garbage collector. Set to 0 to disable.")
+    private long offHeapVolumeCopyThreshold = 0;
+
+    @Setting(value = "bulk-block-workers", comment = "If enabled, block workers writing to a world throw a single event for the whole\n"
+                                                     + "region and relight and resend each touched chunk once. Blocks are placed\n"
+                                                     + "without notifying their neighbours.")
+    private boolean bulkBlockWorkers = false;
+
+    @Setting(value = "parallel-volume-workers", comment = "If enabled, block and biome workers on off-world buffers split the volume into\n"
+                                                          + "chunk aligned columns which are worked on in parallel. Workers on worlds\n"
+                                                          + "always run on the calling thread. The procedures given to the workers have\n"
+                                                          + "to be thread safe.")
+    private boolean parallelVolumeWorkers = false;
+
     public boolean useIgnoreUloadedChunkLightingPatch() {
         return this.ignoreUnloadedChunkLighting;
     }
@@ -76,4 +115,36 @@ public boolean useCacheTameableOwners() {
     public boolean isInlineBlockPositionChecks() {
         return this.inlineBlockPositionChecks;
     }
+
+    public boolean useAsyncChunkSaving() {
+        return this.asyncChunkSaving;
+    }
+
+    public int getAsyncChunkSaveThreads() {
+        return this.asyncChunkSaveThreads;
+    }
+
+    public int getAsyncChunkSaveQueueLimit() {
+        return this.asyncChunkSaveQueueLimit;
+    }
+
+    public int getRegionFileCacheSize() {
+        return this.regionFileCacheSize;
+    }
+
+    public boolean useParallelSpawnChunkLoading() {
+        return this.parallelSpawnChunkLoading;
+    }
+
+    public long getOffHeapVolumeCopyThreshold() {
+        return this.offHeapVolumeCopyThreshold;
+    }
+
+    public boolean useBulkBlockWorkers() {
+        return this.bulkBlockWorkers;
+    }
+
+    public boolean useParallelVolumeWorkers() {
+        return this.parallelVolumeWorkers;
+    }
 }
\ No newline at end of file
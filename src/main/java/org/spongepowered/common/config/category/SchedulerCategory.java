@@ -0,0 +1,73 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.config.category;
+
+import ninja.leaping.configurate.objectmapping.Setting;
+import ninja.leaping.configurate.objectmapping.serialize.ConfigSerializable;
+
+@ConfigSerializable
+public class SchedulerCategory extends ConfigCategory {
+
+    private static final String ASYNC_EXECUTOR_COMMENT = "The executor running asynchronous tasks. One of:\n"
+                                                         + "  cached - Creates threads as needed and reuses idle ones (default)\n"
+                                                         + "  fixed - A fixed amount of threads, see 'async-pool-size'\n"
+                                                         + "  work-stealing - A work-stealing fork-join pool, see 'async-pool-size'\n"
+                                                         + "  lightweight - A thread per task on runtimes with virtual threads,\n"
+                                                         + "                work-stealing otherwise";
+
+    @Setting(value = "async-executor", comment = ASYNC_EXECUTOR_COMMENT)
+    private String asyncExecutor = "cached";
+
+    @Setting(value = "async-pool-size", comment = "The amount of threads of the 'fixed' and 'work-stealing' executors.\n"
+                                                  + "Uses the number of available processors if 0 or less.")
+    private int asyncPoolSize = 0;
+
+    @Setting(value = "max-concurrent-async-tasks-per-plugin", comment = "The maximum amount of asynchronous tasks of a single plugin\n"
+                                                                        + "which may run at the same time, further tasks wait for one\n"
+                                                                        + "to finish. Unlimited if 0 or less.")
+    private int maxConcurrentAsyncTasksPerPlugin = 0;
+
+    @Setting(value = "sync-tick-budget", comment = "The time in milliseconds synchronous tasks may take per tick. Due tasks past\n"
+                                                   + "the budget are deferred to the next tick, where they run first in\n"
+                                                   + "the order they were deferred. Unlimited if 0 or less.")
+    private double syncTickBudget = 0;
+
+    public String getAsyncExecutor() {
+        return this.asyncExecutor;
+    }
+
+    public int getAsyncPoolSize() {
+        return this.asyncPoolSize;
+    }
+
+    public int getMaxConcurrentAsyncTasksPerPlugin() {
+        return this.maxConcurrentAsyncTasksPerPlugin;
+    }
+
+    public double getSyncTickBudget() {
+        return this.syncTickBudget;
+    }
+
+}
@@ -37,6 +37,7 @@
 import org.spongepowered.common.config.category.GlobalWorldCategory;
 import org.spongepowered.common.config.category.ModuleCategory;
 import org.spongepowered.common.config.category.OptimizationCategory;
+import org.spongepowered.common.config.category.SchedulerCategory;
 import org.spongepowered.common.config.category.SqlCategory;
 import org.spongepowered.common.util.IpSet;
 
@@ -70,6 +71,9 @@ public class GlobalConfig extends ConfigBase {
     @Setting(value = "optimizations")
     private OptimizationCategory optimizations = new OptimizationCategory();
 
+    @Setting(comment = "Configuration options related to the scheduler")
+    private SchedulerCategory scheduler = new SchedulerCategory();
+
     @Setting
     protected GlobalWorldCategory world = new GlobalWorldCategory();
 
@@ -115,6 +119,10 @@ public OptimizationCategory getOptimizations() {
         return this.optimizations;
     }
 
+    public SchedulerCategory getScheduler() {
+        return this.scheduler;
+    }
+
     public Predicate<InetAddress> getIpSet(String name) {
         return this.ipSets.containsKey(name) ? Predicates.and(this.ipSets.get(name)) : null;
     }
@@ -28,6 +28,18 @@
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.reflect.TypeToken;
+import net.minecraft.nbt.NBTBase;
+import net.minecraft.nbt.NBTTagByte;
+import net.minecraft.nbt.NBTTagByteArray;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagDouble;
+import net.minecraft.nbt.NBTTagFloat;
+import net.minecraft.nbt.NBTTagInt;
+import net.minecraft.nbt.NBTTagIntArray;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.nbt.NBTTagLong;
+import net.minecraft.nbt.NBTTagShort;
+import net.minecraft.nbt.NBTTagString;
 import net.minecraft.tileentity.TileEntity;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.block.BlockState;
@@ -43,17 +55,27 @@
 import org.spongepowered.api.world.schematic.BlockPalette;
 import org.spongepowered.api.world.schematic.BlockPaletteTypes;
 import org.spongepowered.api.world.schematic.Schematic;
-import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.block.SpongeTileEntityArchetypeBuilder;
 import org.spongepowered.common.data.util.DataQueries;
+import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.registry.type.block.TileEntityTypeRegistryModule;
 import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer;
 import org.spongepowered.common.util.gen.ArrayMutableBlockBuffer.BackingDataType;
 import org.spongepowered.common.world.schematic.BimapPalette;
 import org.spongepowered.common.world.schematic.GlobalPalette;
+import org.spongepowered.common.world.schematic.SpongeArchetypeVolume;
 import org.spongepowered.common.world.schematic.SpongeSchematic;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -65,6 +87,12 @@ public class SchematicTranslator implements DataTranslator<Schematic> {
     private static final TypeToken<Schematic> TYPE_TOKEN = TypeToken.of(Schematic.class);
     private static final int VERSION = 1;
     private static final int MAX_SIZE = 65535;
+    private static final int MAX_NBT_DEPTH = 512;
+    private static final String BLOCK_DATA_KEY = DataQueries.Schematic.BLOCK_DATA.asString('.');
+    // The entries needed to create the block buffer before the block data
+    private static final String[] HEADER_KEYS = {DataQueries.Schematic.VERSION.asString('.'), DataQueries.Schematic.WIDTH.asString('.'),
+            DataQueries.Schematic.HEIGHT.asString('.'), DataQueries.Schematic.LENGTH.asString('.'), DataQueries.Schematic.OFFSET.asString('.'),
+            DataQueries.Schematic.PALETTE.asString('.'), DataQueries.Schematic.PALETTE_MAX.asString('.')};
 
     public static SchematicTranslator get() {
         return INSTANCE;
@@ -91,12 +119,224 @@ public TypeToken<Schematic> getToken() {
 
     @Override
     public Schematic translate(DataView view) throws InvalidDataException {
+        ArrayMutableBlockBuffer buffer = createBuffer(view);
+        byte[] blockdata = (byte[]) view.get(DataQueries.Schematic.BLOCK_DATA).get();
+        try {
+            // The block data is in the order of (y * length + z) * width + x,
+            // which the buffer decodes directly into its backing data
+            buffer.setBlockData(blockdata);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException(e.getMessage(), e);
+        }
+        return createSchematic(view, buffer);
+    }
+
+    /**
+     * Reads a schematic from the uncompressed NBT in the given stream.
+     *
+     * <p>Unlike translating a {@link DataView} of the whole schematic, the
+     * block data is decoded from the stream straight into the block buffer,
+     * which is stored off the heap if it is large enough. This requires the
+     * other schematic entries to come before the block data, like they are
+     * written by {@link #write(Schematic, OutputStream)}, otherwise the
+     * block data is read into memory first.</p>
+     *
+     * @param input The stream to read from
+     * @return The schematic
+     * @throws IOException If the stream couldn't be read
+     * @throws InvalidDataException If the schematic is invalid
+     */
+    public Schematic read(InputStream input) throws IOException, InvalidDataException {
+        DataInputStream in = input instanceof DataInputStream ? (DataInputStream) input : new DataInputStream(new BufferedInputStream(input));
+        if (in.readByte() != NbtDataUtil.TAG_COMPOUND) {
+            throw new InvalidDataException("Schematic is not stored in a compound tag");
+        }
+        in.readUTF();
+        NBTTagCompound header = new NBTTagCompound();
+        ArrayMutableBlockBuffer buffer = null;
+        byte type;
+        while ((type = in.readByte()) != NbtDataUtil.TAG_END) {
+            String key = in.readUTF();
+            if (type == NbtDataUtil.TAG_BYTE_ARRAY && key.equals(BLOCK_DATA_KEY) && isHeaderComplete(header)) {
+                buffer = createBuffer(NbtTranslator.getInstance().translateFrom(header));
+                int length = in.readInt();
+                try {
+                    buffer.setBlockData(in, length);
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidDataException(e.getMessage(), e);
+                }
+            } else {
+                header.setTag(key, readTag(in, type, 0));
+            }
+        }
+        DataView view = NbtTranslator.getInstance().translateFrom(header);
+        if (buffer == null) {
+            return translate(view);
+        }
+        return createSchematic(view, buffer);
+    }
+
+    /**
+     * Writes the given schematic as uncompressed NBT to the given stream,
+     * with the block data after all the other entries so
+     * {@link #read(InputStream)} can decode it straight from the stream.
+     *
+     * @param schematic The schematic
+     * @param output The stream to write to
+     * @throws IOException If the stream couldn't be written to
+     */
+    public void write(Schematic schematic, OutputStream output) throws IOException {
+        NBTTagCompound compound = NbtTranslator.getInstance().translateData(translate(schematic));
+        DataOutputStream out = output instanceof DataOutputStream ? (DataOutputStream) output
+                : new DataOutputStream(new BufferedOutputStream(output));
+        out.writeByte(NbtDataUtil.TAG_COMPOUND);
+        out.writeUTF("");
+        for (String key : compound.getKeySet()) {
+            if (!key.equals(BLOCK_DATA_KEY)) {
+                writeEntry(out, key, compound.getTag(key));
+            }
+        }
+        writeEntry(out, BLOCK_DATA_KEY, compound.getTag(BLOCK_DATA_KEY));
+        out.writeByte(NbtDataUtil.TAG_END);
+        out.flush();
+    }
+
+    private static void writeEntry(DataOutput out, String key, NBTBase tag) throws IOException {
+        out.writeByte(tag.getId());
+        out.writeUTF(key);
+        writeTag(out, tag);
+    }
+
+    private static void writeTag(DataOutput out, NBTBase tag) throws IOException {
+        switch (tag.getId()) {
+            case NbtDataUtil.TAG_BYTE:
+                out.writeByte(((NBTTagByte) tag).getByte());
+                break;
+            case NbtDataUtil.TAG_SHORT:
+                out.writeShort(((NBTTagShort) tag).getShort());
+                break;
+            case NbtDataUtil.TAG_INT:
+                out.writeInt(((NBTTagInt) tag).getInt());
+                break;
+            case NbtDataUtil.TAG_LONG:
+                out.writeLong(((NBTTagLong) tag).getLong());
+                break;
+            case NbtDataUtil.TAG_FLOAT:
+                out.writeFloat(((NBTTagFloat) tag).getFloat());
+                break;
+            case NbtDataUtil.TAG_DOUBLE:
+                out.writeDouble(((NBTTagDouble) tag).getDouble());
+                break;
+            case NbtDataUtil.TAG_BYTE_ARRAY: {
+                byte[] bytes = ((NBTTagByteArray) tag).getByteArray();
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case NbtDataUtil.TAG_STRING:
+                out.writeUTF(((NBTTagString) tag).getString());
+                break;
+            case NbtDataUtil.TAG_LIST: {
+                NBTTagList list = (NBTTagList) tag;
+                out.writeByte(list.tagCount() == 0 ? NbtDataUtil.TAG_END : list.getTagType());
+                out.writeInt(list.tagCount());
+                for (int i = 0; i < list.tagCount(); i++) {
+                    writeTag(out, list.get(i));
+                }
+                break;
+            }
+            case NbtDataUtil.TAG_COMPOUND: {
+                NBTTagCompound compound = (NBTTagCompound) tag;
+                for (String key : compound.getKeySet()) {
+                    writeEntry(out, key, compound.getTag(key));
+                }
+                out.writeByte(NbtDataUtil.TAG_END);
+                break;
+            }
+            case NbtDataUtil.TAG_INT_ARRAY: {
+                int[] ints = ((NBTTagIntArray) tag).getIntArray();
+                out.writeInt(ints.length);
+                for (int value : ints) {
+                    out.writeInt(value);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown NBT tag type " + tag.getId());
+        }
+    }
+
+    private static boolean isHeaderComplete(NBTTagCompound header) {
+        // Everything createBuffer reads, it can't be known whether the
+        // optional entries are missing before the end of the schematic
+        for (String key : HEADER_KEYS) {
+            if (!header.hasKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static NBTBase readTag(DataInput in, byte type, int depth) throws IOException {
+        if (depth > MAX_NBT_DEPTH) {
+            throw new InvalidDataException("Tried to read NBT tag with too high complexity, depth > " + MAX_NBT_DEPTH);
+        }
+        switch (type) {
+            case NbtDataUtil.TAG_BYTE:
+                return new NBTTagByte(in.readByte());
+            case NbtDataUtil.TAG_SHORT:
+                return new NBTTagShort(in.readShort());
+            case NbtDataUtil.TAG_INT:
+                return new NBTTagInt(in.readInt());
+            case NbtDataUtil.TAG_LONG:
+                return new NBTTagLong(in.readLong());
+            case NbtDataUtil.TAG_FLOAT:
+                return new NBTTagFloat(in.readFloat());
+            case NbtDataUtil.TAG_DOUBLE:
+                return new NBTTagDouble(in.readDouble());
+            case NbtDataUtil.TAG_BYTE_ARRAY: {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                return new NBTTagByteArray(bytes);
+            }
+            case NbtDataUtil.TAG_STRING:
+                return new NBTTagString(in.readUTF());
+            case NbtDataUtil.TAG_LIST: {
+                byte elementType = in.readByte();
+                int size = in.readInt();
+                NBTTagList list = new NBTTagList();
+                for (int i = 0; i < size; i++) {
+                    list.appendTag(readTag(in, elementType, depth + 1));
+                }
+                return list;
+            }
+            case NbtDataUtil.TAG_COMPOUND: {
+                NBTTagCompound compound = new NBTTagCompound();
+                byte entryType;
+                while ((entryType = in.readByte()) != NbtDataUtil.TAG_END) {
+                    String key = in.readUTF();
+                    compound.setTag(key, readTag(in, entryType, depth + 1));
+                }
+                return compound;
+            }
+            case NbtDataUtil.TAG_INT_ARRAY: {
+                int[] ints = new int[in.readInt()];
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = in.readInt();
+                }
+                return new NBTTagIntArray(ints);
+            }
+            default:
+                throw new InvalidDataException("Unknown NBT tag type " + type);
+        }
+    }
+
+    private static ArrayMutableBlockBuffer createBuffer(DataView view) throws InvalidDataException {
         int version = view.getInt(DataQueries.Schematic.VERSION).get();
         // TODO version conversions
         if (version != VERSION) {
             throw new InvalidDataException(String.format("Unknown schematic version %d (current version is %d)", version, VERSION));
         }
-        DataView metadata = view.getView(DataQueries.Schematic.METADATA).orElse(null);
 
         // TODO error handling for these optionals
         int width = view.getShort(DataQueries.Schematic.WIDTH).get();
@@ -107,13 +347,7 @@ public Schematic translate(DataView view) throws InvalidDataException {
                     width, height, length, MAX_SIZE));
         }
 
-        int[] offset = (int[]) view.get(DataQueries.Schematic.OFFSET).orElse(null);
-        if (offset == null) {
-            offset = new int[3];
-        }
-        if (offset.length != 3) {
-            throw new InvalidDataException("Schematic offset was not of length 3");
-        }
+        int[] offset = getOffset(view);
         BlockPalette palette;
         Optional<DataView> paletteData = view.getView(DataQueries.Schematic.PALETTE);
         int palette_max = view.getInt(DataQueries.Schematic.PALETTE_MAX).orElse(0xFFFF);
@@ -134,43 +368,29 @@ public Schematic translate(DataView view) throws InvalidDataException {
         BackingDataType dataType;
         if (palette_max <= 0xFF) {
             dataType = BackingDataType.BYTE;
-        } else if (palette_max <= 0xFF) {
+        } else if (palette_max <= 0xFFFF) {
             dataType = BackingDataType.CHAR;
         } else {
             dataType = BackingDataType.INT;
         }
-        MutableBlockVolume buffer =
-                new ArrayMutableBlockBuffer(palette, new Vector3i(-offset[0], -offset[1], -offset[2]), new Vector3i(width, height, length), dataType);
+        return ArrayMutableBlockBuffer.create(palette, new Vector3i(-offset[0], -offset[1], -offset[2]), new Vector3i(width, height, length),
+                dataType);
+    }
 
-        byte[] blockdata = (byte[]) view.get(DataQueries.Schematic.BLOCK_DATA).get();
-        int index = 0;
-        int i = 0;
-        int value = 0;
-        int varint_length = 0;
-        while (i < blockdata.length) {
-            value = 0;
-            varint_length = 0;
-
-            while (true) {
-                value |= (blockdata[i] & 127) << (varint_length++ * 7);
-                if (varint_length > 5) {
-                    throw new RuntimeException("VarInt too big (probably corrupted data)");
-                }
-                if ((blockdata[i] & 128) != 128) {
-                    i++;
-                    break;
-                }
-                i++;
-            }
-            // index = (y * length + z) * width + x
-            int y = index / (width * length);
-            int z = (index % (width * length)) / width;
-            int x = (index % (width * length)) % width;
-            BlockState state = palette.get(value).get();
-            buffer.setBlock(x - offset[0], y - offset[1], z - offset[2], state, SpongeImpl.getImplementationCause());
-
-            index++;
+    private static int[] getOffset(DataView view) throws InvalidDataException {
+        int[] offset = (int[]) view.get(DataQueries.Schematic.OFFSET).orElse(null);
+        if (offset == null) {
+            offset = new int[3];
+        }
+        if (offset.length != 3) {
+            throw new InvalidDataException("Schematic offset was not of length 3");
         }
+        return offset;
+    }
+
+    private static Schematic createSchematic(DataView view, ArrayMutableBlockBuffer buffer) throws InvalidDataException {
+        DataView metadata = view.getView(DataQueries.Schematic.METADATA).orElse(null);
+        int[] offset = getOffset(view);
         Map<Vector3i, TileEntityArchetype> tiles = Maps.newHashMap();
         List<DataView> tiledata = view.getViewList(DataQueries.Schematic.TILEENTITY_DATA).orElse(null);
         if (tiledata != null) {
@@ -220,27 +440,33 @@ public DataContainer translate(Schematic schematic) throws InvalidDataException
         data.set(DataQueries.Schematic.OFFSET, offset);
 
         BlockPalette palette = schematic.getPalette();
-        ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length);
-
-        for (int y = 0; y < height; y++) {
-            int y0 = yMin + y;
-            for (int z = 0; z < length; z++) {
-                int z0 = zMin + z;
-                for (int x = 0; x < width; x++) {
-                    int x0 = xMin + x;
-                    BlockState state = schematic.getBlock(x0, y0, z0);
-                    int id = palette.getOrAssign(state);
-
-                    while ((id & -128) != 0) {
-                        buffer.write(id & 127 | 128);
-                        id >>>= 7;
+        MutableBlockVolume backing = schematic instanceof SpongeArchetypeVolume ? ((SpongeArchetypeVolume) schematic).getBacking() : null;
+        if (backing instanceof ArrayMutableBlockBuffer && ((ArrayMutableBlockBuffer) backing).getPalette() == palette) {
+            // The ids in the buffer already are those of the palette
+            data.set(DataQueries.Schematic.BLOCK_DATA, ((ArrayMutableBlockBuffer) backing).getBlockData());
+        } else {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(width * height * length);
+
+            for (int y = 0; y < height; y++) {
+                int y0 = yMin + y;
+                for (int z = 0; z < length; z++) {
+                    int z0 = zMin + z;
+                    for (int x = 0; x < width; x++) {
+                        int x0 = xMin + x;
+                        BlockState state = schematic.getBlock(x0, y0, z0);
+                        int id = palette.getOrAssign(state);
+
+                        while ((id & -128) != 0) {
+                            buffer.write(id & 127 | 128);
+                            id >>>= 7;
+                        }
+                        buffer.write(id);
                     }
-                    buffer.write(id);
                 }
             }
-        }
 
-        data.set(DataQueries.Schematic.BLOCK_DATA, buffer.toByteArray());
+            data.set(DataQueries.Schematic.BLOCK_DATA, buffer.toByteArray());
+        }
 
         if (palette.getType() == BlockPaletteTypes.LOCAL) {
             DataQuery paletteQuery = DataQueries.Schematic.PALETTE;
@@ -139,6 +139,10 @@ public static final class Minecraft {
     public static final String SPONGE_ENTITY_NOTIFIER = "Notifier";
     public static final String SPONGE_BLOCK_POS_TABLE = "BlockPosTable";
     public static final String SPONGE_PLAYER_UUID_TABLE = "PlayerIdTable";
+    public static final String SPONGE_PLAYER_UUID_FILE = "PlayerIdFile";
+    public static final String SPONGE_PLAYER_UUID_FILE_NAME = "File";
+    public static final String SPONGE_PLAYER_UUID_FILE_VERSION = "Version";
+    public static final String SPONGE_PLAYER_UUID_FILE_COUNT = "Count";
     public static final String CUSTOM_MANIPULATOR_TAG_LIST = "CustomManipulators";
     public static final String PROJECTILE_DAMAGE_AMOUNT = "damageAmount";
     public static final String BOAT_MAX_SPEED = "maxSpeed";
@@ -0,0 +1,303 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+import java.util.Arrays;
+
+/**
+ * Maps serialized block positions to the owner and notifier indexes of a
+ * {@link PlayerTracker}, without creating an object per position.
+ *
+ * <p>Positions are stored in an open addressed table with linear probing,
+ * the owner and notifier indexes live in arrays parallel to the keys. As
+ * every int is a valid position, the position 0 is stored in an extra slot
+ * at the end of the arrays.</p>
+ */
+public final class PlayerTrackerMap {
+
+    /**
+     * Receives the entries of a {@link PlayerTrackerMap}.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        void visit(int pos, int ownerIndex, int notifierIndex);
+
+    }
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * A shared map which is always empty, modifying it throws an
+     * {@link UnsupportedOperationException}.
+     */
+    public static final PlayerTrackerMap EMPTY = new PlayerTrackerMap(true);
+
+    private final boolean immutable;
+
+    // Allocated on first insert, most chunks never track anything
+    private int[] keys;
+    private int[] owners;
+    private int[] notifiers;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZero;
+
+    public PlayerTrackerMap() {
+        this(false);
+    }
+
+    private PlayerTrackerMap(boolean immutable) {
+        this.immutable = immutable;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean containsKey(int pos) {
+        return find(pos) >= 0;
+    }
+
+    /**
+     * Gets the owner index of the position.
+     *
+     * @param pos The position
+     * @return The owner index, or -1 if not tracked
+     */
+    public int getOwner(int pos) {
+        int slot = find(pos);
+        return slot < 0 ? -1 : this.owners[slot];
+    }
+
+    /**
+     * Gets the notifier index of the position.
+     *
+     * @param pos The position
+     * @return The notifier index, or -1 if not tracked
+     */
+    public int getNotifier(int pos) {
+        int slot = find(pos);
+        return slot < 0 ? -1 : this.notifiers[slot];
+    }
+
+    public void put(int pos, int ownerIndex, int notifierIndex) {
+        int slot = insert(pos);
+        this.owners[slot] = ownerIndex;
+        this.notifiers[slot] = notifierIndex;
+    }
+
+    /**
+     * Sets the owner index of the position, tracking the position with no
+     * notifier if it isn't tracked yet.
+     *
+     * @param pos The position
+     * @param ownerIndex The owner index
+     */
+    public void setOwner(int pos, int ownerIndex) {
+        // Inserting may allocate or grow the arrays
+        int slot = insert(pos);
+        this.owners[slot] = ownerIndex;
+    }
+
+    /**
+     * Sets the notifier index of the position, tracking the position with no
+     * owner if it isn't tracked yet.
+     *
+     * @param pos The position
+     * @param notifierIndex The notifier index
+     */
+    public void setNotifier(int pos, int notifierIndex) {
+        int slot = insert(pos);
+        this.notifiers[slot] = notifierIndex;
+    }
+
+    public boolean remove(int pos) {
+        int slot = find(pos);
+        if (slot < 0) {
+            return false;
+        }
+        this.size--;
+        if (pos == 0) {
+            this.containsZero = false;
+        } else {
+            shiftKeys(slot);
+        }
+        return true;
+    }
+
+    public void clear() {
+        checkMutable();
+        if (this.keys != null) {
+            Arrays.fill(this.keys, 0);
+        }
+        this.size = 0;
+        this.containsZero = false;
+    }
+
+    public void forEach(Visitor visitor) {
+        if (this.size == 0) {
+            return;
+        }
+        if (this.containsZero) {
+            int slot = this.mask + 1;
+            visitor.visit(0, this.owners[slot], this.notifiers[slot]);
+        }
+        for (int slot = 0; slot <= this.mask; slot++) {
+            if (this.keys[slot] != 0) {
+                visitor.visit(this.keys[slot], this.owners[slot], this.notifiers[slot]);
+            }
+        }
+    }
+
+    private int find(int pos) {
+        if (this.size == 0) {
+            return -1;
+        }
+        if (pos == 0) {
+            return this.containsZero ? this.mask + 1 : -1;
+        }
+        int slot = HashCommon.mix(pos) & this.mask;
+        int key;
+        while ((key = this.keys[slot]) != 0) {
+            if (key == pos) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the slot of the position, adding the position with no owner and
+     * notifier if it isn't in the table yet.
+     */
+    private int insert(int pos) {
+        if (this.keys == null) {
+            checkMutable();
+            allocate(DEFAULT_CAPACITY);
+        }
+        if (pos == 0) {
+            int slot = this.mask + 1;
+            if (!this.containsZero) {
+                this.containsZero = true;
+                this.owners[slot] = -1;
+                this.notifiers[slot] = -1;
+                this.size++;
+            }
+            return slot;
+        }
+        int slot = HashCommon.mix(pos) & this.mask;
+        int key;
+        while ((key = this.keys[slot]) != 0) {
+            if (key == pos) {
+                return slot;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        if (this.size >= this.maxFill) {
+            rehash((this.mask + 1) * 2);
+            return insert(pos);
+        }
+        this.keys[slot] = pos;
+        this.owners[slot] = -1;
+        this.notifiers[slot] = -1;
+        this.size++;
+        return slot;
+    }
+
+    private void checkMutable() {
+        if (this.immutable) {
+            throw new UnsupportedOperationException("The empty player tracker map is immutable");
+        }
+    }
+
+    /**
+     * Moves entries back into the slot that was freed, so that probing for
+     * the entries after it doesn't stop early.
+     */
+    private void shiftKeys(int slot) {
+        int last;
+        int key;
+        while (true) {
+            last = slot;
+            slot = (slot + 1) & this.mask;
+            while (true) {
+                if ((key = this.keys[slot]) == 0) {
+                    this.keys[last] = 0;
+                    return;
+                }
+                int home = HashCommon.mix(key) & this.mask;
+                if (last <= slot ? last >= home || home > slot : last >= home && home > slot) {
+                    break;
+                }
+                slot = (slot + 1) & this.mask;
+            }
+            this.keys[last] = key;
+            this.owners[last] = this.owners[slot];
+            this.notifiers[last] = this.notifiers[slot];
+        }
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new int[capacity + 1];
+        this.owners = new int[capacity + 1];
+        this.notifiers = new int[capacity + 1];
+        this.mask = capacity - 1;
+        this.maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = this.keys;
+        int[] oldOwners = this.owners;
+        int[] oldNotifiers = this.notifiers;
+        int oldMask = this.mask;
+        allocate(capacity);
+        int zeroSlot = this.mask + 1;
+        this.owners[zeroSlot] = oldOwners[oldMask + 1];
+        this.notifiers[zeroSlot] = oldNotifiers[oldMask + 1];
+        for (int oldSlot = 0; oldSlot <= oldMask; oldSlot++) {
+            int key = oldKeys[oldSlot];
+            if (key != 0) {
+                int slot = HashCommon.mix(key) & this.mask;
+                while (this.keys[slot] != 0) {
+                    slot = (slot + 1) & this.mask;
+                }
+                this.keys[slot] = key;
+                this.owners[slot] = oldOwners[oldSlot];
+                this.notifiers[slot] = oldNotifiers[oldSlot];
+            }
+        }
+    }
+
+}
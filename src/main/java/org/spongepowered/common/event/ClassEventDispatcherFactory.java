@@ -0,0 +1,302 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.objectweb.asm.Opcodes.AALOAD;
+import static org.objectweb.asm.Opcodes.ACC_FINAL;
+import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
+import static org.objectweb.asm.Opcodes.ACC_PUBLIC;
+import static org.objectweb.asm.Opcodes.ACC_SUPER;
+import static org.objectweb.asm.Opcodes.ACONST_NULL;
+import static org.objectweb.asm.Opcodes.ALOAD;
+import static org.objectweb.asm.Opcodes.ASTORE;
+import static org.objectweb.asm.Opcodes.BIPUSH;
+import static org.objectweb.asm.Opcodes.CHECKCAST;
+import static org.objectweb.asm.Opcodes.GETFIELD;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.INVOKEINTERFACE;
+import static org.objectweb.asm.Opcodes.INVOKESPECIAL;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.INVOKEVIRTUAL;
+import static org.objectweb.asm.Opcodes.PUTFIELD;
+import static org.objectweb.asm.Opcodes.RETURN;
+import static org.objectweb.asm.Opcodes.SIPUSH;
+import static org.objectweb.asm.Opcodes.V1_6;
+
+import co.aikar.timings.Timing;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.impl.AbstractEvent;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Generates {@link EventDispatcher}s which call every listener in a straight
+ * line instead of iterating the list.
+ *
+ * <p>The generated code only depends on the amount of listeners, so classes
+ * are shared between all listener lists of the same size. Rebaking a cache
+ * therefore never defines new classes once a size has been seen.</p>
+ *
+ * <p>Every generated class has a timed variant of its dispatch method, which
+ * starts and stops the timing handler of each listener around its call.</p>
+ */
+public final class ClassEventDispatcherFactory implements EventDispatcher.Factory {
+
+    /**
+     * Listener lists above this size are dispatched by iterating them, the
+     * generated method would otherwise grow past what the JIT will inline.
+     */
+    static final int MAX_GENERATED_LISTENERS = 128;
+
+    private static final EventDispatcher EMPTY = new EventDispatcher() {
+
+        @Override
+        public void dispatch(Event event) {
+        }
+
+        @Override
+        public void dispatchTimed(Event event) {
+        }
+    };
+
+    private final AtomicReferenceArray<Class<? extends EventDispatcher>> classes =
+            new AtomicReferenceArray<>(MAX_GENERATED_LISTENERS + 1);
+    private final DefineableClassLoader classLoader;
+    private final String targetPackage;
+
+    public ClassEventDispatcherFactory(String targetPackage, DefineableClassLoader classLoader) {
+        checkNotNull(targetPackage, "targetPackage");
+        checkArgument(!targetPackage.isEmpty(), "targetPackage cannot be empty");
+        this.targetPackage = targetPackage + '.';
+        this.classLoader = checkNotNull(classLoader, "classLoader");
+    }
+
+    @Override
+    public EventDispatcher create(List<RegisteredListener<?>> listeners) throws Exception {
+        if (listeners.isEmpty()) {
+            return EMPTY;
+        }
+        if (listeners.size() > MAX_GENERATED_LISTENERS) {
+            return new ListEventDispatcher(listeners);
+        }
+        return getClass(listeners.size()).getConstructor(RegisteredListener[].class)
+                .newInstance(new Object[] { listeners.toArray(new RegisteredListener<?>[listeners.size()]) });
+    }
+
+    private Class<? extends EventDispatcher> getClass(int size) {
+        Class<? extends EventDispatcher> dispatcherClass = this.classes.get(size);
+        if (dispatcherClass == null) {
+            synchronized (this.classes) {
+                dispatcherClass = this.classes.get(size);
+                if (dispatcherClass == null) {
+                    final String name = this.targetPackage + "EventDispatcher_" + size;
+                    dispatcherClass = this.classLoader.defineClass(name, generateClass(name, size));
+                    this.classes.set(size, dispatcherClass);
+                }
+            }
+        }
+        return dispatcherClass;
+    }
+
+    private static final String BASE_DISPATCHER = Type.getInternalName(EventDispatcher.class);
+    private static final String LISTENER_NAME = Type.getInternalName(RegisteredListener.class);
+    private static final String LISTENER_DESCRIPTOR = Type.getDescriptor(RegisteredListener.class);
+    private static final String ORDER_DESCRIPTOR = Type.getDescriptor(Order.class);
+    private static final String EVENT_NAME = Type.getInternalName(AbstractEvent.class);
+    private static final String DISPATCH_METHOD_DESCRIPTOR = '(' + Type.getDescriptor(Event.class) + ")V";
+    private static final String TIMING_NAME = Type.getInternalName(Timing.class);
+    private static final String TIMING_DESCRIPTOR = Type.getDescriptor(Timing.class);
+    private static final String ERROR_METHOD_DESCRIPTOR = '(' + Type.getDescriptor(Event.class) + LISTENER_DESCRIPTOR
+            + Type.getDescriptor(Throwable.class) + ")V";
+
+    private static byte[] generateClass(String name, int listenerCount) {
+        name = name.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS);
+        MethodVisitor mv;
+
+        cw.visit(V1_6, ACC_PUBLIC + ACC_FINAL + ACC_SUPER, name, null, BASE_DISPATCHER, null);
+        for (int i = 0; i < listenerCount; i++) {
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "listener" + i, LISTENER_DESCRIPTOR, null, null).visitEnd();
+            cw.visitField(ACC_PRIVATE + ACC_FINAL, "order" + i, ORDER_DESCRIPTOR, null, null).visitEnd();
+        }
+        {
+            mv = cw.visitMethod(ACC_PUBLIC, "<init>", "([" + LISTENER_DESCRIPTOR + ")V", null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, BASE_DISPATCHER, "<init>", "()V", false);
+            for (int i = 0; i < listenerCount; i++) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                visitIndex(mv, i);
+                mv.visitInsn(AALOAD);
+                mv.visitFieldInsn(PUTFIELD, name, "listener" + i, LISTENER_DESCRIPTOR);
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                visitIndex(mv, i);
+                mv.visitInsn(AALOAD);
+                mv.visitMethodInsn(INVOKEVIRTUAL, LISTENER_NAME, "getOrder", "()" + ORDER_DESCRIPTOR, false);
+                mv.visitFieldInsn(PUTFIELD, name, "order" + i, ORDER_DESCRIPTOR);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+        generateDispatch(cw, name, "dispatch", listenerCount, false);
+        generateDispatch(cw, name, "dispatchTimed", listenerCount, true);
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private static void generateDispatch(ClassWriter cw, String name, String methodName, int listenerCount, boolean timed) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, methodName, DISPATCH_METHOD_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, EVENT_NAME);
+        mv.visitVarInsn(ASTORE, 2);
+        for (int i = 0; i < listenerCount; i++) {
+            Label start = new Label();
+            Label end = new Label();
+            Label handler = new Label();
+            Label next = new Label();
+            if (timed) {
+                // Timing timing = this.listener<i>.getTimingsHandler();
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, name, "listener" + i, LISTENER_DESCRIPTOR);
+                mv.visitMethodInsn(INVOKEVIRTUAL, LISTENER_NAME, "getTimingsHandler", "()" + TIMING_DESCRIPTOR, false);
+                mv.visitVarInsn(ASTORE, 4);
+            }
+            mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+            mv.visitLabel(start);
+            if (timed) {
+                // timing.startTimingIfSync();
+                visitTiming(mv, "startTimingIfSync");
+            }
+            // event.currentOrder = this.order<i>;
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "order" + i, ORDER_DESCRIPTOR);
+            mv.visitFieldInsn(PUTFIELD, EVENT_NAME, "currentOrder", ORDER_DESCRIPTOR);
+            // this.listener<i>.handle(event);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "listener" + i, LISTENER_DESCRIPTOR);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitMethodInsn(INVOKEVIRTUAL, LISTENER_NAME, "handle", DISPATCH_METHOD_DESCRIPTOR, false);
+            if (timed) {
+                // timing.stopTimingIfSync();
+                visitTiming(mv, "stopTimingIfSync");
+            }
+            mv.visitLabel(end);
+            mv.visitJumpInsn(GOTO, next);
+            // catch (Throwable t) { handleError(event, this.listener<i>, t); }
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, 3);
+            if (timed) {
+                // timing.stopTimingIfSync();
+                visitTiming(mv, "stopTimingIfSync");
+            }
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitFieldInsn(GETFIELD, name, "listener" + i, LISTENER_DESCRIPTOR);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKESTATIC, BASE_DISPATCHER, "handleError", ERROR_METHOD_DESCRIPTOR, false);
+            mv.visitLabel(next);
+        }
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitInsn(ACONST_NULL);
+        mv.visitFieldInsn(PUTFIELD, EVENT_NAME, "currentOrder", ORDER_DESCRIPTOR);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void visitTiming(MethodVisitor mv, String method) {
+        mv.visitVarInsn(ALOAD, 4);
+        mv.visitMethodInsn(INVOKEINTERFACE, TIMING_NAME, method, "()V", true);
+    }
+
+    private static void visitIndex(MethodVisitor mv, int index) {
+        if (index <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, index);
+        } else {
+            mv.visitIntInsn(SIPUSH, index);
+        }
+    }
+
+    /**
+     * Fallback for listener lists which are too large to be generated.
+     */
+    static final class ListEventDispatcher extends EventDispatcher {
+
+        private final RegisteredListener<?>[] listeners;
+
+        ListEventDispatcher(List<RegisteredListener<?>> listeners) {
+            this.listeners = listeners.toArray(new RegisteredListener<?>[listeners.size()]);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        public void dispatch(Event event) {
+            for (RegisteredListener listener : this.listeners) {
+                try {
+                    ((AbstractEvent) event).currentOrder = listener.getOrder();
+                    listener.handle(event);
+                } catch (Throwable e) {
+                    handleError(event, listener, e);
+                }
+            }
+            ((AbstractEvent) event).currentOrder = null;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        @Override
+        public void dispatchTimed(Event event) {
+            for (RegisteredListener listener : this.listeners) {
+                Timing timing = listener.getTimingsHandler();
+                try {
+                    timing.startTimingIfSync();
+                    ((AbstractEvent) event).currentOrder = listener.getOrder();
+                    listener.handle(event);
+                    timing.stopTimingIfSync();
+                } catch (Throwable e) {
+                    timing.stopTimingIfSync();
+                    handleError(event, listener, e);
+                }
+            }
+            ((AbstractEvent) event).currentOrder = null;
+        }
+    }
+
+}
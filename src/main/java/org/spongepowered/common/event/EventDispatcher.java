@@ -0,0 +1,68 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import org.spongepowered.api.event.Event;
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.List;
+
+/**
+ * Calls a fixed, ordered set of {@link RegisteredListener}s for an event.
+ *
+ * <p>Dispatchers are created for a baked {@link RegisteredListener.Cache}.
+ * While timings are enabled {@link #dispatchTimed(Event)} is used instead of
+ * {@link #dispatch(Event)}, which times every listener individually.</p>
+ */
+public abstract class EventDispatcher {
+
+    /**
+     * Passes the event to every listener of this dispatcher, updating the
+     * current order of the event as it goes.
+     *
+     * @param event The event
+     */
+    public abstract void dispatch(Event event);
+
+    /**
+     * Passes the event to every listener of this dispatcher like
+     * {@link #dispatch(Event)}, timing each listener with its
+     * {@link RegisteredListener#getTimingsHandler() timings handler}.
+     *
+     * @param event The event
+     */
+    public abstract void dispatchTimed(Event event);
+
+    protected static void handleError(Event event, RegisteredListener<?> listener, Throwable throwable) {
+        SpongeImpl.getLogger().error("Could not pass {} to {}", event.getClass().getSimpleName(), listener.getPlugin(), throwable);
+    }
+
+    interface Factory {
+
+        EventDispatcher create(List<RegisteredListener<?>> listeners) throws Exception;
+
+    }
+
+}
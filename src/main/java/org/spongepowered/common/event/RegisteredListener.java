@@ -34,10 +34,13 @@
 import org.spongepowered.api.event.EventListener;
 import org.spongepowered.api.event.Order;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.SpongeImpl;
 
 import java.util.EnumMap;
 import java.util.List;
 
+import javax.annotation.Nullable;
+
 public final class RegisteredListener<T extends Event> implements SpongeEventListener<T>, Comparable<RegisteredListener<?>> {
 
     private final PluginContainer plugin;
@@ -102,15 +105,22 @@ public int compareTo(RegisteredListener<?> handler) {
 
     public static final class Cache {
 
+        private final Class<? extends Event> eventClass;
         private final List<RegisteredListener<?>> listeners;
         private final EnumMap<Order, List<RegisteredListener<?>>> listenersByOrder;
+        private final EventDispatcher.Factory dispatcherFactory;
+        private final EnumMap<Order, EventDispatcher> dispatchersByOrder;
+        @Nullable private volatile EventDispatcher dispatcher;
 
         private static final Order[] ORDERS = Order.values();
 
-        Cache(List<RegisteredListener<?>> listeners) {
+        Cache(Class<? extends Event> eventClass, List<RegisteredListener<?>> listeners, EventDispatcher.Factory dispatcherFactory) {
+            this.eventClass = eventClass;
             this.listeners = listeners;
+            this.dispatcherFactory = dispatcherFactory;
 
             this.listenersByOrder = Maps.newEnumMap(Order.class);
+            this.dispatchersByOrder = Maps.newEnumMap(Order.class);
             for (Order order : ORDERS) {
                 this.listenersByOrder.put(order, Lists.<RegisteredListener<?>>newArrayList());
             }
@@ -127,6 +137,41 @@ public List<RegisteredListener<?>> getListenersByOrder(Order order) {
             return this.listenersByOrder.get(checkNotNull(order, "order"));
         }
 
+        /**
+         * Gets the dispatcher calling all the listeners of this cache, it is
+         * generated on first use.
+         *
+         * @return The dispatcher
+         */
+        public EventDispatcher getDispatcher() {
+            EventDispatcher dispatcher = this.dispatcher;
+            if (dispatcher == null) {
+                this.dispatcher = dispatcher = createDispatcher(this.listeners);
+            }
+            return dispatcher;
+        }
+
+        public EventDispatcher getDispatcherByOrder(Order order) {
+            checkNotNull(order, "order");
+            synchronized (this.dispatchersByOrder) {
+                EventDispatcher dispatcher = this.dispatchersByOrder.get(order);
+                if (dispatcher == null) {
+                    dispatcher = createDispatcher(this.listenersByOrder.get(order));
+                    this.dispatchersByOrder.put(order, dispatcher);
+                }
+                return dispatcher;
+            }
+        }
+
+        private EventDispatcher createDispatcher(List<RegisteredListener<?>> listeners) {
+            try {
+                return this.dispatcherFactory.create(listeners);
+            } catch (Exception e) {
+                SpongeImpl.getLogger().error("Failed to generate dispatcher for {}, falling back to list iteration", this.eventClass, e);
+                return new ClassEventDispatcherFactory.ListEventDispatcher(listeners);
+            }
+        }
+
     }
 
 }
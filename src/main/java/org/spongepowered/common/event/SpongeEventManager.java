@@ -27,6 +27,7 @@
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import co.aikar.timings.Timings;
 import co.aikar.timings.TimingsManager;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
@@ -54,6 +55,7 @@
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -71,6 +73,8 @@ public class SpongeEventManager implements EventManager {
     private final DefineableClassLoader classLoader = new DefineableClassLoader(getClass().getClassLoader());
     private final AnnotatedEventListener.Factory handlerFactory = new ClassEventListenerFactory("org.spongepowered.common.event.listener",
             new FilterFactory("org.spongepowered.common.event.filters", this.classLoader), this.classLoader);
+    private final EventDispatcher.Factory dispatcherFactory = new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher",
+            this.classLoader);
     private final Multimap<Class<?>, RegisteredListener<?>> handlersByEvent = HashMultimap.create();
     private final Set<Object> registeredListeners = Sets.newHashSet();
 
@@ -78,12 +82,20 @@ public class SpongeEventManager implements EventManager {
 
     /**
      * A cache of all the handlers for an event type for quick event posting.
-     * <p>The cache is currently entirely invalidated if handlers are added or
-     * removed.</p>
+     * <p>Only the entries for subtypes of the event classes of added or
+     * removed handlers are invalidated.</p>
      */
     private final LoadingCache<Class<? extends Event>, RegisteredListener.Cache> handlersCache =
             Caffeine.newBuilder().initialCapacity(150).build((eventClass) -> bakeHandlers(eventClass));
 
+    /**
+     * The event supertypes of every event class which was baked so far,
+     * computed once so rebaking doesn't need to walk the type hierarchy.
+     * <p>An event class is added before its handlers are read, so it is also
+     * known while it is being baked and not yet in the cache.</p>
+     */
+    private final Map<Class<?>, Class<?>[]> eventSupertypes = new ConcurrentHashMap<>(150, 0.75f, 1);
+
     @Inject
     public SpongeEventManager(PluginManager pluginManager) {
         this.pluginManager = checkNotNull(pluginManager, "pluginManager");
@@ -114,18 +126,46 @@ public SpongeEventManager(PluginManager pluginManager) {
 
     <T extends Event> RegisteredListener.Cache bakeHandlers(Class<T> rootEvent) {
         List<RegisteredListener<?>> handlers = Lists.newArrayList();
-        Set<Class<? super T>> types = TypeToken.of(rootEvent).getTypes().rawTypes();
+        Class<?>[] types = this.eventSupertypes.computeIfAbsent(rootEvent, SpongeEventManager::getEventSupertypes);
 
         synchronized (this.lock) {
-            for (Class<? super T> type : types) {
-                if (Event.class.isAssignableFrom(type)) {
-                    handlers.addAll(this.handlersByEvent.get(type));
-                }
+            for (Class<?> type : types) {
+                handlers.addAll(this.handlersByEvent.get(type));
             }
         }
 
         Collections.sort(handlers);
-        return new RegisteredListener.Cache(handlers);
+        return new RegisteredListener.Cache(rootEvent, handlers, this.dispatcherFactory);
+    }
+
+    private static Class<?>[] getEventSupertypes(Class<?> eventClass) {
+        return TypeToken.of(eventClass).getTypes().rawTypes().stream()
+                .filter(Event.class::isAssignableFrom)
+                .toArray(Class<?>[]::new);
+    }
+
+    /**
+     * Invalidates the cached handlers of every baked event class which is a
+     * subtype of one of the given event classes.
+     *
+     * <p>This includes the event classes which are being baked, their
+     * invalidation waits until the bake is stored, which might have read the
+     * handlers before they changed. It must therefore not be called while
+     * holding the lock, which a bake needs to read the handlers.</p>
+     *
+     * @param changed The event classes whose handlers changed
+     */
+    void invalidateHandlers(Set<Class<?>> changed) {
+        List<Class<?>> invalid = Lists.newArrayList();
+        for (Class<?> eventClass : this.eventSupertypes.keySet()) {
+            for (Class<?> type : changed) {
+                if (type.isAssignableFrom(eventClass)) {
+                    invalid.add(eventClass);
+                    break;
+                }
+            }
+        }
+        this.handlersCache.invalidateAll(invalid);
     }
 
     private static boolean isValidHandler(Method method) {
@@ -145,19 +185,18 @@ private void register(RegisteredListener<? extends Event> handler) {
     }
 
     private void register(List<RegisteredListener<? extends Event>> handlers) {
+        Set<Class<?>> changed = Sets.newHashSet();
         synchronized (this.lock) {
-            boolean changed = false;
-
             for (RegisteredListener<?> handler : handlers) {
                 if (this.handlersByEvent.put(handler.getEventClass(), handler)) {
-                    changed = true;
+                    changed.add(handler.getEventClass());
                     this.checker.registerListenerFor(handler.getEventClass());
                 }
             }
+        }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
-            }
+        if (!changed.isEmpty()) {
+            invalidateHandlers(changed);
         }
     }
 
@@ -259,22 +298,21 @@ public <T extends Event> void registerListener(Object plugin, Class<T> eventClas
     }
 
     private void unregister(Predicate<RegisteredListener<?>> unregister) {
+        Set<Class<?>> changed = Sets.newHashSet();
         synchronized (this.lock) {
-            boolean changed = false;
-
             Iterator<RegisteredListener<?>> itr = this.handlersByEvent.values().iterator();
             while (itr.hasNext()) {
                 RegisteredListener<?> handler = itr.next();
                 if (unregister.test(handler)) {
                     itr.remove();
-                    changed = true;
+                    changed.add(handler.getEventClass());
                     this.checker.unregisterListenerFor(handler.getEventClass());
                 }
             }
+        }
 
-            if (changed) {
-                this.handlersCache.invalidateAll();
-            }
+        if (!changed.isEmpty()) {
+            invalidateHandlers(changed);
         }
     }
 
@@ -315,9 +353,26 @@ protected static boolean post(Event event, List<RegisteredListener<?>> handlers)
         return event instanceof Cancellable && ((Cancellable) event).isCancelled();
     }
 
+    /**
+     * Posts the event through the generated dispatcher of the handlers,
+     * using its timed variant while timings are enabled.
+     */
+    protected static boolean post(Event event, EventDispatcher dispatcher, List<RegisteredListener<?>> handlers) {
+        if (Timings.isTimingsEnabled()) {
+            TimingsManager.PLUGIN_EVENT_HANDLER.startTimingIfSync();
+            dispatcher.dispatchTimed(event);
+            TimingsManager.PLUGIN_EVENT_HANDLER.stopTimingIfSync();
+        } else if (!handlers.isEmpty()) {
+            dispatcher.dispatch(event);
+        }
+
+        return event instanceof Cancellable && ((Cancellable) event).isCancelled();
+    }
+
     @Override
     public boolean post(Event event) {
-        return post(event, getHandlerCache(event).getListeners());
+        RegisteredListener.Cache cache = getHandlerCache(event);
+        return post(event, cache.getDispatcher(), cache.getListeners());
     }
 
     public boolean post(Event event, boolean allowClientThread) {
@@ -325,7 +380,8 @@ public boolean post(Event event, boolean allowClientThread) {
     }
 
     public boolean post(Event event, Order order) {
-        return post(event, getHandlerCache(event).getListenersByOrder(order));
+        RegisteredListener.Cache cache = getHandlerCache(event);
+        return post(event, cache.getDispatcherByOrder(order), cache.getListenersByOrder(order));
     }
 
 }
@@ -35,8 +35,8 @@
 import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.extent.EntityUniverse;
 import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -46,9 +46,9 @@
 
 public interface IMixinChunk {
 
-    Map<Short, PlayerTracker> getTrackedShortPlayerPositions();
+    PlayerTrackerMap getTrackedShortPlayerPositions();
 
-    Map<Integer, PlayerTracker> getTrackedIntPlayerPositions();
+    PlayerTrackerMap getTrackedIntPlayerPositions();
 
     Optional<User> getBlockOwner(BlockPos pos);
 
@@ -66,9 +66,9 @@ public interface IMixinChunk {
 
     void addTrackedBlockPosition(Block block, BlockPos pos, User user, PlayerTracker.Type trackerType);
 
-    void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPlayerPositions);
+    void setTrackedIntPlayerPositions(PlayerTrackerMap trackedPlayerPositions);
 
-    void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPlayerPositions);
+    void setTrackedShortPlayerPositions(PlayerTrackerMap trackedPlayerPositions);
 
     void setNeighbor(Direction direction, Chunk neighbor);
 
@@ -83,6 +83,10 @@ public interface IMixinChunk {
 
     void setScheduledForUnload(long scheduled);
 
+    boolean isQueuedForUnload();
+
+    void setQueuedForUnload(boolean queued);
+
     void getIntersectingEntities(Vector3d start, Vector3d direction, double distance, Predicate<EntityUniverse.EntityHit> filter,
             double entryY, double exitY, Set<EntityUniverse.EntityHit> intersections);
 
@@ -24,6 +24,7 @@
  */
 package org.spongepowered.common.interfaces.world;
 
+import co.aikar.timings.WorldTimingsHandler;
 import net.minecraft.world.World;
 
 import java.nio.file.Path;
@@ -35,4 +36,22 @@ public interface IMixinAnvilChunkLoader {
 
     Path getWorldDir();
 
+    void setTimingsHandler(WorldTimingsHandler timings);
+
+    /**
+     * Reads the NBT of the given chunk from its region file, to be used
+     * instead of reading it again once the chunk is loaded. May be called
+     * from any thread.
+     *
+     * @param x The chunk x coordinate
+     * @param z The chunk z coordinate
+     * @return Whether the chunk was read
+     */
+    boolean prefetchChunk(int x, int z);
+
+    /**
+     * Discards all chunks read by {@link #prefetchChunk} which weren't loaded.
+     */
+    void clearPrefetchedChunks();
+
 }
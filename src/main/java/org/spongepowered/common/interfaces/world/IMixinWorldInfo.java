@@ -31,6 +31,8 @@
 import org.spongepowered.common.config.SpongeConfig;
 import org.spongepowered.common.config.type.WorldConfig;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -50,6 +52,10 @@ public interface IMixinWorldInfo {
 
     Optional<UUID> getUniqueIdForIndex(int index);
 
+    void loadPlayerIdTable(Path worldDir) throws IOException;
+
+    void savePlayerIdTable(Path worldDir) throws IOException;
+
     @Nullable
     Integer getDimensionId();
 
@@ -27,6 +27,7 @@
 import javax.annotation.Nullable;
 
 import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.IChunkLoader;
 
 public interface IMixinChunkProviderServer {
 
@@ -39,4 +40,6 @@ public interface IMixinChunkProviderServer {
     @Nullable Chunk getLoadedChunkWithoutMarkingActive(int x, int z);
 
     long getChunkUnloadDelay();
+
+    IChunkLoader getChunkLoader();
 }
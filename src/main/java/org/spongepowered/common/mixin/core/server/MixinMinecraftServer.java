@@ -46,6 +46,7 @@
 import net.minecraft.world.WorldProvider;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.WorldType;
+import net.minecraft.world.chunk.storage.IChunkLoader;
 import net.minecraft.world.storage.ISaveHandler;
 import net.minecraft.world.storage.WorldInfo;
 import org.apache.logging.log4j.Logger;
@@ -96,11 +97,14 @@
 import org.spongepowered.common.interfaces.IMixinCommandSource;
 import org.spongepowered.common.interfaces.IMixinMinecraftServer;
 import org.spongepowered.common.interfaces.IMixinSubject;
+import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.profile.SpongeProfileManager;
 import org.spongepowered.common.resourcepack.SpongeResourcePack;
 import org.spongepowered.common.text.SpongeTexts;
+import org.spongepowered.common.util.SpongeUsernameCache;
+import org.spongepowered.common.world.SpawnChunkPrefetcher;
 import org.spongepowered.common.world.WorldManager;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
@@ -114,6 +118,9 @@
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
 
 @Mixin(MinecraftServer.class)
 public abstract class MixinMinecraftServer implements Server, ConsoleSource, IMixinSubject, IMixinCommandSource, IMixinCommandSender,
@@ -128,6 +135,8 @@ public abstract class MixinMinecraftServer implements Server, ConsoleSource, IMi
     @Shadow public WorldServer[] worldServers;
     @Shadow private Thread serverThread;
 
+    @Nullable private SpawnChunkPrefetcher spawnChunkPrefetcher;
+
     @Shadow public abstract void setDifficultyForAllWorlds(EnumDifficulty difficulty);
     @Shadow public abstract void addChatMessage(ITextComponent message);
     @Shadow public abstract void initiateShutdown();
@@ -306,6 +315,12 @@ public void onServerStopping(CallbackInfo ci) {
         ((MinecraftServer) (Object) this).getPlayerProfileCache().save();
     }
 
+    @Inject(method = "stopServer()V", at = @At("RETURN"))
+    public void onServerStopped(CallbackInfo ci) {
+        // The username cache is written in the background, wait for the last changes
+        SpongeUsernameCache.saveAndWait();
+    }
+
     /**
      * @author blood - December 23rd, 2015
      * @author Zidane - March 13th, 2016
@@ -336,9 +351,29 @@ protected void loadAllWorlds(String overworldFolder, String worldName, long seed
      */
     @Overwrite
     protected void initialWorldChunkLoad() {
-        for (WorldServer worldServer: this.worldServers) {
-            this.prepareSpawnArea(worldServer);
+        long start = System.nanoTime();
+        if (SpawnChunkPrefetcher.isEnabled()) {
+            // Read the spawn chunks of all worlds while the spawn areas are
+            // prepared one after another
+            this.spawnChunkPrefetcher = new SpawnChunkPrefetcher();
+            for (WorldServer worldServer: this.worldServers) {
+                if (((WorldProperties) worldServer.getWorldInfo()).doesGenerateSpawnOnLoad()) {
+                    this.spawnChunkPrefetcher.prefetch(worldServer);
+                }
+            }
+        }
+        try {
+            for (WorldServer worldServer: this.worldServers) {
+                this.prepareSpawnArea(worldServer);
+            }
+        } finally {
+            if (this.spawnChunkPrefetcher != null) {
+                this.spawnChunkPrefetcher.shutdown();
+                this.spawnChunkPrefetcher = null;
+            }
         }
+        LOG.info("Prepared start regions of {} levels in {} ms", this.worldServers.length,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
         this.clearCurrentTask();
     }
 
@@ -348,6 +383,14 @@ public void prepareSpawnArea(WorldServer worldServer) {
             return;
         }
 
+        long start = System.nanoTime();
+        SpawnChunkPrefetcher prefetcher = this.spawnChunkPrefetcher;
+        if (prefetcher == null && SpawnChunkPrefetcher.isEnabled()) {
+            // A world loaded after startup
+            prefetcher = new SpawnChunkPrefetcher();
+            prefetcher.prefetch(worldServer);
+        }
+
         IMixinChunkProviderServer chunkProviderServer = (IMixinChunkProviderServer) worldServer.getChunkProvider();
         chunkProviderServer.setForceChunkRequests(true);
         final CauseTracker causeTracker = ((IMixinWorldServer) worldServer).getCauseTracker();
@@ -361,6 +404,10 @@ public void prepareSpawnArea(WorldServer worldServer) {
         this.setUserMessage("menu.generatingTerrain");
         LOG.info("Preparing start region for level {} ({})", ((IMixinWorldServer) worldServer).getDimensionId(), ((World) worldServer).getName());
         BlockPos blockpos = worldServer.getSpawnPoint();
+        int prefetched = prefetcher == null ? 0 : prefetcher.await(worldServer);
+        if (prefetcher != null && prefetcher != this.spawnChunkPrefetcher) {
+            prefetcher.shutdown();
+        }
         long j = MinecraftServer.getCurrentTimeMillis();
         for (int k = -192; k <= 192 && this.isServerRunning(); k += 16) {
             for (int l = -192; l <= 192 && this.isServerRunning(); l += 16) {
@@ -380,6 +427,12 @@ public void prepareSpawnArea(WorldServer worldServer) {
             causeTracker.completePhase();
         }
         chunkProviderServer.setForceChunkRequests(false);
+        IChunkLoader chunkLoader = chunkProviderServer.getChunkLoader();
+        if (chunkLoader instanceof IMixinAnvilChunkLoader) {
+            ((IMixinAnvilChunkLoader) chunkLoader).clearPrefetchedChunks();
+        }
+        LOG.info("Prepared start region for level {} ({}) in {} ms, {} of {} chunks were read ahead", ((IMixinWorldServer) worldServer).getDimensionId(),
+                ((World) worldServer).getName(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), prefetched, i);
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -52,6 +52,8 @@
 import org.spongepowered.common.interfaces.server.management.IMixinPlayerProfileCacheEntry;
 import org.spongepowered.common.profile.callback.MapProfileLookupCallback;
 import org.spongepowered.common.profile.callback.SingleProfileLookupCallback;
+import org.spongepowered.common.service.user.UserIndex;
+import org.spongepowered.common.util.MostRecentlyUsedSet;
 import org.spongepowered.common.util.SpongeUsernameCache;
 
 import java.util.Collection;
@@ -61,9 +63,7 @@
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.annotation.Nullable;
 
@@ -76,13 +76,14 @@ public abstract class MixinPlayerProfileCache implements IMixinPlayerProfileCach
     @Nullable @Shadow public abstract com.mojang.authlib.GameProfile getProfileByUUID(UUID uniqueId);
     @Shadow public abstract void save();
     @Shadow private void addEntry(com.mojang.authlib.GameProfile profile, @Nullable Date expiry) { }
-    // Thread-safe queue
-    private Queue<com.mojang.authlib.GameProfile> profiles = new ConcurrentLinkedQueue<>();
+    // Thread-safe replacement for the deque, which moves profiles to the front in constant time
+    private final MostRecentlyUsedSet<com.mojang.authlib.GameProfile> profiles = new MostRecentlyUsedSet<>();
     private boolean canSave = false;
 
     @Inject(method = "addEntry(Lcom/mojang/authlib/GameProfile;Ljava/util/Date;)V", at = @At(value = "RETURN"))
     public void onAddEntry(com.mojang.authlib.GameProfile profile, Date date, CallbackInfo ci) {
         SpongeUsernameCache.setUsername(profile.getId(), profile.getName());
+        UserIndex.getInstance().onNameChanged(profile.getId(), profile.getName());
     }
 
     @Redirect(method = "addEntry(Lcom/mojang/authlib/GameProfile;Ljava/util/Date;)V", at = @At(value = "INVOKE", target = "Ljava/util/Deque;remove(Ljava/lang/Object;)Z", remap = false))
@@ -92,7 +93,7 @@ public boolean onAddEntryRemove(Deque<com.mojang.authlib.GameProfile> list, Obje
 
     @Redirect(method = "addEntry(Lcom/mojang/authlib/GameProfile;Ljava/util/Date;)V", at = @At(value = "INVOKE", target = "Ljava/util/Deque;addFirst(Ljava/lang/Object;)V", remap = false))
     public void onAddEntryAdd(Deque<com.mojang.authlib.GameProfile> list, Object obj) {
-        this.profiles.add((com.mojang.authlib.GameProfile) obj);
+        this.profiles.addFirst((com.mojang.authlib.GameProfile) obj);
     }
 
     @Redirect(method = "getGameProfileForUsername", at = @At(value = "INVOKE", target = "Ljava/util/Deque;remove(Ljava/lang/Object;)Z", ordinal = 0, remap = false))
@@ -107,7 +108,7 @@ public boolean onGetGameProfileForUsernameRemove2(Deque<com.mojang.authlib.GameP
 
     @Redirect(method = "getGameProfileForUsername", at = @At(value = "INVOKE", target = "Ljava/util/Deque;addFirst(Ljava/lang/Object;)V", remap = false))
     public void onGetGameProfileForUsernameAdd(Deque<com.mojang.authlib.GameProfile> list, Object obj) {
-        this.profiles.add((com.mojang.authlib.GameProfile) obj);
+        this.profiles.addFirst((com.mojang.authlib.GameProfile) obj);
     }
 
     @Redirect(method = "getByUUID", at = @At(value = "INVOKE", target = "Ljava/util/Deque;remove(Ljava/lang/Object;)Z", remap = false))
@@ -117,7 +118,7 @@ public boolean onGetByUUIDRemove(Deque<com.mojang.authlib.GameProfile> list, Obj
 
     @Redirect(method = "getByUUID", at = @At(value = "INVOKE", target = "Ljava/util/Deque;addFirst(Ljava/lang/Object;)V", remap = false))
     public void onGetByUUIDAdd(Deque<com.mojang.authlib.GameProfile> list, Object obj) {
-        this.profiles.add((com.mojang.authlib.GameProfile) obj);
+        this.profiles.addFirst((com.mojang.authlib.GameProfile) obj);
     }
 
     @Redirect(method = "getEntriesWithLimit", at = @At(value = "INVOKE", target = "Ljava/util/Deque;iterator()Ljava/util/Iterator;", remap = false))
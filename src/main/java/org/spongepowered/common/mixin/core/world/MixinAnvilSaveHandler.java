@@ -33,6 +33,10 @@
 import org.spongepowered.api.util.annotation.NonnullByDefault;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.common.world.storage.ChunkSaveExecutor;
 
 import java.io.File;
 
@@ -60,4 +64,14 @@ public IChunkLoader getChunkLoader(WorldProvider provider) {
         // This allows users to remove our mod and maintain world compatibility.
         return new AnvilChunkLoader(this.getWorldDirectory(), this.dataFixer);
     }
+
+    /**
+     * Completes the chunk writes of the chunk I/O pool before the region
+     * files are closed. The pool is shared by all worlds, just like the
+     * region file cache which is cleared afterwards.
+     */
+    @Inject(method = "flush", at = @At("HEAD"))
+    private void onFlush(CallbackInfo ci) {
+        ChunkSaveExecutor.awaitPending();
+    }
 }
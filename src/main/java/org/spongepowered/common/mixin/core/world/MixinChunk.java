@@ -88,6 +88,7 @@
 import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.block.BlockUtil;
 import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 import org.spongepowered.common.event.SpongeCommonEventFactory;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
@@ -127,6 +128,7 @@ public abstract class MixinChunk implements Chunk, IMixinChunk, IMixinCachable {
     private org.spongepowered.api.world.World world;
     private UUID uuid;
     private long scheduledForUnload = -1; // delay chunk unloads
+    private boolean queuedForUnload;
     private boolean persistedChunk = false;
     private net.minecraft.world.chunk.Chunk[] neighbors = new net.minecraft.world.chunk.Chunk[4];
     private long cacheKey;
@@ -742,13 +744,13 @@ public void addTrackedBlockPosition(Block block, BlockPos pos, User user, Player
     }
 
     @Override
-    public Map<Integer, PlayerTracker> getTrackedIntPlayerPositions() {
-        return Collections.emptyMap();
+    public PlayerTrackerMap getTrackedIntPlayerPositions() {
+        return PlayerTrackerMap.EMPTY;
     }
 
     @Override
-    public Map<Short, PlayerTracker> getTrackedShortPlayerPositions() {
-        return Collections.emptyMap();
+    public PlayerTrackerMap getTrackedShortPlayerPositions() {
+        return PlayerTrackerMap.EMPTY;
     }
 
     @Override
@@ -772,11 +774,11 @@ public void setBlockCreator(BlockPos pos, @Nullable UUID uuid) {
     }
 
     @Override
-    public void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPositions) {
+    public void setTrackedIntPlayerPositions(PlayerTrackerMap trackedPositions) {
     }
 
     @Override
-    public void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPositions) {
+    public void setTrackedShortPlayerPositions(PlayerTrackerMap trackedPositions) {
     }
 
     // Continuing the rest of the implementation
@@ -1213,6 +1215,16 @@ public void setScheduledForUnload(long scheduled) {
         this.scheduledForUnload = scheduled;
     }
 
+    @Override
+    public boolean isQueuedForUnload() {
+        return this.queuedForUnload;
+    }
+
+    @Override
+    public void setQueuedForUnload(boolean queued) {
+        this.queuedForUnload = queued;
+    }
+
 
     @Override
     public String toString() {
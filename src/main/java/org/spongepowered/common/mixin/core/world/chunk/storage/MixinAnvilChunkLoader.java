@@ -24,17 +24,21 @@
  */
 package org.spongepowered.common.mixin.core.world.chunk.storage;
 
+import co.aikar.timings.WorldTimingsHandler;
 import com.flowpowered.math.vector.Vector3d;
-import com.google.common.collect.Maps;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityList;
 import net.minecraft.entity.item.EntityMinecart;
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.datafix.DataFixer;
+import net.minecraft.util.datafix.FixTypes;
 import net.minecraft.util.math.ChunkPos;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.storage.AnvilChunkLoader;
 import net.minecraft.world.chunk.storage.RegionFileCache;
+import org.apache.logging.log4j.Logger;
 import org.spongepowered.api.entity.EntityType;
 import org.spongepowered.api.entity.Transform;
 import org.spongepowered.api.event.SpongeEventFactory;
@@ -48,6 +52,7 @@
 import org.spongepowered.asm.mixin.Interface;
 import org.spongepowered.asm.mixin.Intrinsic;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
@@ -56,87 +61,222 @@
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import org.spongepowered.asm.mixin.injection.callback.LocalCapture;
 import org.spongepowered.common.data.util.NbtDataUtil;
-import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 import org.spongepowered.common.interfaces.IMixinChunk;
 import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
 import org.spongepowered.common.registry.type.entity.EntityTypeRegistryModule;
+import org.spongepowered.common.world.storage.ChunkSaveExecutor;
 
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nullable;
 
 @Mixin(AnvilChunkLoader.class)
 @Implements(@Interface(iface = IMixinAnvilChunkLoader.class, prefix = "loader$"))
 public abstract class MixinAnvilChunkLoader implements IMixinAnvilChunkLoader {
 
+    // How often writing a chunk is attempted before it is given up on
+    private static final int MAX_CHUNK_WRITE_ATTEMPTS = 3;
+
+    // Marks a chunk which is being read ahead, see prefetchChunk
+    private static final NBTTagCompound PREFETCH_PENDING = new NBTTagCompound();
+
     private static final String ENTITY_LIST_CREATE_FROM_NBT =
             "Lnet/minecraft/entity/EntityList;createEntityFromNBT(Lnet/minecraft/nbt/NBTTagCompound;Lnet/minecraft/world/World;)Lnet/minecraft/entity/Entity;";
 
     @Shadow @Final private Set<ChunkPos> pendingAnvilChunksCoordinates;
     @Shadow @Final private Map<ChunkPos, NBTTagCompound> chunksToRemove;
     @Shadow @Final private File chunkSaveLocation;
+    @Shadow @Final private static Logger LOGGER;
+    @Shadow private boolean savingExtraData;
+    @Shadow @Final private DataFixer dataFixer;
+
+    @Shadow protected abstract net.minecraft.world.chunk.Chunk checkedReadChunkFromNBT(World worldIn, int x, int z, NBTTagCompound compound);
+
+    @Shadow private void writeChunkData(ChunkPos pos, NBTTagCompound compound) throws IOException {
+    }
+
+    @Nullable private WorldTimingsHandler timings;
+    private final Map<ChunkPos, NBTTagCompound> prefetchedChunks = new ConcurrentHashMap<>();
+    private final Map<ChunkPos, Integer> failedChunkWrites = new ConcurrentHashMap<>();
+
+    /**
+     * Hands chunks to the chunk I/O pool instead of the vanilla file I/O
+     * thread if asynchronous chunk saving is enabled. The serialized chunk
+     * stays in {@link #chunksToRemove} until it has been written, so loads
+     * and flushes in the meantime still see it.
+     */
+    @Inject(method = "addChunkToPending", at = @At("HEAD"), cancellable = true)
+    private void onAddChunkToPending(ChunkPos pos, NBTTagCompound compound, CallbackInfo ci) {
+        // The chunk read ahead is older than the one being saved
+        this.prefetchedChunks.remove(pos);
+        if (!ChunkSaveExecutor.isEnabled()) {
+            return;
+        }
+        ci.cancel();
+        this.chunksToRemove.put(pos, compound);
+        int queueSize = this.chunksToRemove.size();
+        if (this.timings != null) {
+            this.timings.recordChunkSaveQueueSize(queueSize);
+        }
+        if (queueSize > ChunkSaveExecutor.getQueueLimit()) {
+            // The I/O threads fall behind, write the chunk on this thread
+            // instead of letting the queue grow further
+            if (this.timings != null) {
+                this.timings.recordChunkSaveOverflow();
+            }
+            this.writeQueuedChunk(pos);
+        } else {
+            ChunkSaveExecutor.submit(() -> this.writeQueuedChunk(pos));
+        }
+    }
+
+    /**
+     * @author agent - October 18th, 2026
+     * @reason Write chunks through {@link #writeQueuedChunk} so a chunk is
+     * never written by the vanilla file I/O thread and the chunk I/O pool at
+     * the same time, and only report that all chunks are saved once the
+     * chunks written by the pool are done as well.
+     *
+     * @return Whether there may be more chunks to write
+     */
+    @Overwrite
+    public boolean writeNextIO() {
+        if (this.chunksToRemove.isEmpty()) {
+            if (this.savingExtraData) {
+                LOGGER.info("ThreadedAnvilChunkStorage ({}): All chunks are saved", this.chunkSaveLocation.getName());
+            }
+            return false;
+        }
+        for (ChunkPos pos : this.chunksToRemove.keySet()) {
+            if (this.writeQueuedChunk(pos)) {
+                return true;
+            }
+        }
+        // All remaining chunks are being written by other threads, wait
+        // for them before checking again
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        return true;
+    }
+
+    /**
+     * Writes the serialized chunk at the given position unless another
+     * thread is already writing it. Chunks saved again while being written
+     * are written again before this returns. A chunk which fails to be
+     * written stays queued to be retried later, until it failed
+     * {@link #MAX_CHUNK_WRITE_ATTEMPTS} times.
+     *
+     * @param pos The chunk position
+     * @return Whether this thread wrote the chunk
+     */
+    private boolean writeQueuedChunk(ChunkPos pos) {
+        boolean written = false;
+        boolean failed = false;
+        do {
+            if (!this.pendingAnvilChunksCoordinates.add(pos)) {
+                return written;
+            }
+            try {
+                NBTTagCompound compound;
+                while ((compound = this.chunksToRemove.get(pos)) != null) {
+                    long start = System.nanoTime();
+                    try {
+                        this.writeChunkData(pos, compound);
+                        this.failedChunkWrites.remove(pos);
+                    } catch (Exception e) {
+                        int attempts = this.failedChunkWrites.merge(pos, 1, Integer::sum);
+                        if (attempts < MAX_CHUNK_WRITE_ATTEMPTS) {
+                            LOGGER.error("Failed to save chunk, it will be retried", e);
+                            failed = true;
+                            break;
+                        }
+                        LOGGER.error("Failed to save chunk after " + attempts + " attempts", e);
+                        this.failedChunkWrites.remove(pos);
+                    }
+                    long duration = System.nanoTime() - start;
+                    // Keep a newer version of the chunk saved in the meantime
+                    this.chunksToRemove.remove(pos, compound);
+                    if (this.timings != null) {
+                        this.timings.recordChunkSaveWrite(duration);
+                        this.timings.recordChunkSaveQueueSize(this.chunksToRemove.size());
+                    }
+                }
+                written = true;
+            } finally {
+                this.pendingAnvilChunksCoordinates.remove(pos);
+            }
+            // The chunk may have been saved again after the last check but
+            // before it was released, in which case nobody else wrote it
+        } while (!failed && this.chunksToRemove.containsKey(pos));
+        if (failed && ChunkSaveExecutor.isEnabled()) {
+            ChunkSaveExecutor.submit(() -> this.writeQueuedChunk(pos));
+        }
+        return written;
+    }
 
     @Inject(method = "writeChunkToNBT", at = @At(value = "RETURN"))
     public void onWriteChunkToNBT(net.minecraft.world.chunk.Chunk chunkIn, World worldIn, NBTTagCompound compound, CallbackInfo ci) {
         IMixinChunk chunk = (IMixinChunk) chunkIn;
 
         // Add tracked block positions
-        if (chunk.getTrackedShortPlayerPositions().size() > 0 || chunk.getTrackedIntPlayerPositions().size() > 0) {
+        if (!chunk.getTrackedShortPlayerPositions().isEmpty() || !chunk.getTrackedIntPlayerPositions().isEmpty()) {
             NBTTagCompound trackedNbt = new NBTTagCompound();
             NBTTagList positions = new NBTTagList();
             trackedNbt.setTag(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, positions);
             compound.setTag(NbtDataUtil.SPONGE_DATA, trackedNbt);
 
-            for (Map.Entry<Short, PlayerTracker> mapEntry : chunk.getTrackedShortPlayerPositions().entrySet()) {
-                Short pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
+            chunk.getTrackedShortPlayerPositions().forEach((pos, ownerIndex, notifierIndex) -> {
                 NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                valueNbt.setInteger("notifier", notifierUniqueIdIndex);
-                valueNbt.setShort("pos", pos);
+                valueNbt.setInteger("owner", ownerIndex);
+                valueNbt.setInteger("notifier", notifierIndex);
+                valueNbt.setShort("pos", (short) pos);
                 positions.appendTag(valueNbt);
-            }
+            });
 
-            for (Map.Entry<Integer, PlayerTracker> mapEntry : chunk.getTrackedIntPlayerPositions().entrySet()) {
-                Integer pos = mapEntry.getKey();
-                Integer ownerUniqueIdIndex = mapEntry.getValue().ownerIndex;
-                Integer notifierUniqueIdIndex = mapEntry.getValue().notifierIndex;
+            chunk.getTrackedIntPlayerPositions().forEach((pos, ownerIndex, notifierIndex) -> {
                 NBTTagCompound valueNbt = new NBTTagCompound();
-                valueNbt.setInteger("owner", ownerUniqueIdIndex);
-                valueNbt.setInteger("notifier", notifierUniqueIdIndex);
+                valueNbt.setInteger("owner", ownerIndex);
+                valueNbt.setInteger("notifier", notifierIndex);
                 valueNbt.setInteger("ipos", pos);
                 positions.appendTag(valueNbt);
-            }
+            });
         }
     }
 
     @Inject(method = "readChunkFromNBT", at = @At(value = "INVOKE", target = "Lnet/minecraft/nbt/NBTTagCompound;getIntArray(Ljava/lang/String;)[I", shift = At.Shift.BEFORE), locals = LocalCapture.CAPTURE_FAILHARD)
     public void onReadChunkFromNBT(World worldIn, NBTTagCompound compound, CallbackInfoReturnable<net.minecraft.world.chunk.Chunk> ci, int chunkX, int chunkZ, net.minecraft.world.chunk.Chunk chunkIn) {
         if (compound.hasKey(NbtDataUtil.SPONGE_DATA)) {
-            Map<Integer, PlayerTracker> trackedIntPlayerPositions = Maps.newHashMap();
-            Map<Short, PlayerTracker> trackedShortPlayerPositions = Maps.newHashMap();
+            PlayerTrackerMap trackedIntPlayerPositions = new PlayerTrackerMap();
+            PlayerTrackerMap trackedShortPlayerPositions = new PlayerTrackerMap();
             NBTTagList positions = compound.getCompoundTag(NbtDataUtil.SPONGE_DATA).getTagList(NbtDataUtil.SPONGE_BLOCK_POS_TABLE, 10);
             IMixinChunk chunk = (IMixinChunk) chunkIn;
             for (int i = 0; i < positions.tagCount(); i++) {
                 NBTTagCompound valueNbt = positions.getCompoundTagAt(i);
                 boolean isShortPos = valueNbt.hasKey("pos");
-                PlayerTracker tracker = new PlayerTracker();
+                int ownerIndex = -1;
+                int notifierIndex = -1;
                 if (valueNbt.hasKey("owner")) {
-                    tracker.ownerIndex = valueNbt.getInteger("owner");
+                    ownerIndex = valueNbt.getInteger("owner");
                 } else if (valueNbt.hasKey("uuid")) { // Migrate old data, remove in future
-                    tracker.ownerIndex = valueNbt.getInteger("uuid");
+                    ownerIndex = valueNbt.getInteger("uuid");
                 }
                 if (valueNbt.hasKey("notifier")) {
-                    tracker.notifierIndex = valueNbt.getInteger("notifier");
+                    notifierIndex = valueNbt.getInteger("notifier");
                 }
 
-                if (tracker.notifierIndex != -1 || tracker.ownerIndex != -1) {
+                if (notifierIndex != -1 || ownerIndex != -1) {
                     if (isShortPos) {
-                        trackedShortPlayerPositions.put(valueNbt.getShort("pos"), tracker);
+                        trackedShortPlayerPositions.put(valueNbt.getShort("pos"), ownerIndex, notifierIndex);
                     } else {
-                        trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), tracker);
+                        trackedIntPlayerPositions.put(valueNbt.getInteger("ipos"), ownerIndex, notifierIndex);
                     }
                 }
             }
@@ -184,16 +324,63 @@ private Entity onReadEntity(NBTTagCompound compound, World world) {
         return EntityList.createEntityFromNBT(compound, world);
     }
 
-    @Intrinsic // Forge method
-    public boolean loader$chunkExists(World world, int x, int z) {
-        ChunkPos chunkcoordintpair = new ChunkPos(x, z);
+    @Inject(method = "loadChunk", at = @At("HEAD"), cancellable = true)
+    private void onLoadChunk(World worldIn, int x, int z, CallbackInfoReturnable<net.minecraft.world.chunk.Chunk> cir) {
+        if (this.prefetchedChunks.isEmpty()) {
+            return;
+        }
+        ChunkPos pos = new ChunkPos(x, z);
+        NBTTagCompound compound = this.prefetchedChunks.remove(pos);
+        // A chunk waiting to be saved is newer than the one read ahead
+        if (compound != null && compound != PREFETCH_PENDING && !this.chunksToRemove.containsKey(pos)) {
+            cir.setReturnValue(this.checkedReadChunkFromNBT(worldIn, x, z, this.dataFixer.process(FixTypes.CHUNK, compound)));
+        }
+    }
 
-        if (this.pendingAnvilChunksCoordinates.contains(chunkcoordintpair)) {
-            for (ChunkPos pendingChunkCoord : this.chunksToRemove.keySet()) {
-                if (pendingChunkCoord.equals(chunkcoordintpair)) {
-                    return true;
-                }
+    /**
+     * Drops the chunk read ahead when Forge loads the chunk through its
+     * asynchronous chunk loading, the chunk may be saved again afterwards.
+     */
+    @Inject(method = "loadChunk__Async", at = @At("HEAD"), remap = false, require = 0, expect = 0)
+    private void onLoadChunkAsync(World worldIn, int x, int z, CallbackInfoReturnable<Object[]> cir) {
+        if (!this.prefetchedChunks.isEmpty()) {
+            this.prefetchedChunks.remove(new ChunkPos(x, z));
+        }
+    }
+
+    @Override
+    public boolean prefetchChunk(int x, int z) {
+        ChunkPos pos = new ChunkPos(x, z);
+        if (this.chunksToRemove.containsKey(pos) || this.prefetchedChunks.putIfAbsent(pos, PREFETCH_PENDING) != null) {
+            return false;
+        }
+        NBTTagCompound compound = null;
+        try (DataInputStream stream = RegionFileCache.getChunkInputStream(this.chunkSaveLocation, x, z)) {
+            if (stream != null) {
+                compound = CompressedStreamTools.read(stream);
             }
+        } catch (IOException e) {
+            // The chunk is read again, and the error reported, once it is loaded
+        }
+        if (compound == null) {
+            this.prefetchedChunks.remove(pos, PREFETCH_PENDING);
+            return false;
+        }
+        // Loading or saving the chunk in the meantime removed the marker,
+        // the chunk which was read may already be outdated then
+        return this.prefetchedChunks.replace(pos, PREFETCH_PENDING, compound);
+    }
+
+    @Override
+    public void clearPrefetchedChunks() {
+        this.prefetchedChunks.clear();
+    }
+
+    @Intrinsic // Forge method
+    public boolean loader$chunkExists(World world, int x, int z) {
+        // Chunks waiting to be written aren't in their region file yet
+        if (this.chunksToRemove.containsKey(new ChunkPos(x, z))) {
+            return true;
         }
 
         return RegionFileCache.getChunkInputStream(this.chunkSaveLocation, x, z) != null;
@@ -204,4 +391,9 @@ public Path getWorldDir() {
         return this.chunkSaveLocation.toPath();
     }
 
+    @Override
+    public void setTimingsHandler(WorldTimingsHandler timings) {
+        this.timings = timings;
+    }
+
 }
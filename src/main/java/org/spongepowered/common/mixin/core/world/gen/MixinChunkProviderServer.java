@@ -24,6 +24,7 @@
  */
 package org.spongepowered.common.mixin.core.world.gen;
 
+import co.aikar.timings.WorldTimingsHandler;
 import com.flowpowered.math.vector.Vector3i;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import net.minecraft.util.math.ChunkPos;
@@ -67,8 +68,8 @@
 import org.spongepowered.common.world.storage.SpongeChunkDataStream;
 import org.spongepowered.common.world.storage.WorldStorageUtil;
 
-import java.util.Iterator;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.concurrent.CompletableFuture;
 
 @Mixin(ChunkProviderServer.class)
@@ -79,6 +80,25 @@ public abstract class MixinChunkProviderServer implements WorldStorage, IMixinCh
     private boolean forceChunkRequests = false;
     private long chunkUnloadDelay = 15000;
     private int maxChunkUnloads = 100;
+    // Chunks passed to unload, ordered by the time they may be unloaded
+    private final PriorityQueue<QueuedUnload> unloadQueue = new PriorityQueue<>();
+
+    private static final class QueuedUnload implements Comparable<QueuedUnload> {
+
+        final Chunk chunk;
+        long unloadTime;
+
+        QueuedUnload(Chunk chunk, long unloadTime) {
+            this.chunk = chunk;
+            this.unloadTime = unloadTime;
+        }
+
+        @Override
+        public int compareTo(QueuedUnload other) {
+            return Long.compare(this.unloadTime, other.unloadTime);
+        }
+
+    }
 
     @Shadow @Final public WorldServer worldObj;
     @Shadow @Final private IChunkLoader chunkLoader;
@@ -101,6 +121,9 @@ private void onConstruct(WorldServer worldObjIn, IChunkLoader chunkLoaderIn, ICh
         this.denyChunkRequests = spongeConfig.getConfig().getWorld().getDenyChunkRequests();
         this.chunkUnloadDelay = spongeConfig.getConfig().getWorld().getChunkUnloadDelay() * 1000;
         this.maxChunkUnloads = spongeConfig.getConfig().getWorld().getMaxChunkUnloads();
+        if (chunkLoaderIn instanceof IMixinAnvilChunkLoader) {
+            ((IMixinAnvilChunkLoader) chunkLoaderIn).setTimingsHandler(((IMixinWorldServer) worldObjIn).getTimingsHandler());
+        }
     }
 
     @Override
@@ -135,14 +158,23 @@ public WorldProperties getWorldProperties() {
     @Overwrite
     public void unload(Chunk chunkIn)
     {
-        if (!((IMixinChunk) chunkIn).isPersistedChunk() && this.worldObj.provider.canDropChunk(chunkIn.xPosition, chunkIn.zPosition))
+        final IMixinChunk spongeChunk = (IMixinChunk) chunkIn;
+        if (!spongeChunk.isPersistedChunk() && this.worldObj.provider.canDropChunk(chunkIn.xPosition, chunkIn.zPosition))
         {
-            // Sponge - we avoid using the queue and simply check the unloaded flag during unloads
+            // Sponge - we avoid using the droppedChunksSet and queue chunks by the time they may unload
             //this.droppedChunksSet.add(Long.valueOf(ChunkPos.chunkXZ2Int(chunkIn.xPosition, chunkIn.zPosition)));
             chunkIn.unloaded = true;
+            if (!spongeChunk.isQueuedForUnload()) {
+                spongeChunk.setQueuedForUnload(true);
+                this.unloadQueue.add(new QueuedUnload(chunkIn, this.getUnloadTime(spongeChunk)));
+            }
         }
     }
 
+    private long getUnloadTime(IMixinChunk chunk) {
+        return this.chunkUnloadDelay > 0 ? chunk.getScheduledForUnload() + this.chunkUnloadDelay : 0;
+    }
+
     // split from loadChunk to avoid 2 lookups with our inject
     private Chunk loadChunkForce(int x, int z) {
         Chunk chunk = this.loadChunkFromFile(x, z);
@@ -242,11 +274,17 @@ public long getChunkUnloadDelay() {
         return this.chunkUnloadDelay;
     }
 
+    @Override
+    public IChunkLoader getChunkLoader() {
+        return this.chunkLoader;
+    }
+
     /**
      * @author blood - October 20th, 2016
      * @reason Refactors entire method to not use the droppedChunksSet by
-     * simply looping through all loaded chunks and determining whether it
-     * can unload or not.
+     * polling the chunks passed to unload in the order they may unload.
+     * Chunks which were marked active again in the meantime are dropped
+     * from the queue when they are reached.
      * 
      * @return true if unload queue was processed
      */
@@ -255,28 +293,40 @@ public boolean unloadQueuedChunks()
     {
         if (!this.worldObj.disableLevelSaving)
         {
-            ((IMixinWorldServer) this.worldObj).getTimingsHandler().doChunkUnload.startTiming();
-            Iterator<Chunk> iterator = this.id2ChunkMap.values().iterator();
+            final WorldTimingsHandler timings = ((IMixinWorldServer) this.worldObj).getTimingsHandler();
+            timings.doChunkUnload.startTiming();
             int chunksUnloaded = 0;
             long now = System.currentTimeMillis();
-            while (chunksUnloaded < this.maxChunkUnloads && iterator.hasNext()) {
-                Chunk chunk = iterator.next();
+            QueuedUnload queued;
+            while (chunksUnloaded < this.maxChunkUnloads && (queued = this.unloadQueue.peek()) != null && queued.unloadTime <= now) {
+                this.unloadQueue.poll();
+                Chunk chunk = queued.chunk;
                 IMixinChunk spongeChunk = (IMixinChunk) chunk;
-                if (chunk != null && chunk.unloaded && !spongeChunk.isPersistedChunk()) {
-                    if (this.getChunkUnloadDelay() > 0) {
-                        if ((now - spongeChunk.getScheduledForUnload()) < this.chunkUnloadDelay) {
-                            continue;
-                        }
-                        spongeChunk.setScheduledForUnload(-1);
+                long chunkKey = ChunkPos.chunkXZ2Int(chunk.xPosition, chunk.zPosition);
+                if (!chunk.unloaded || spongeChunk.isPersistedChunk() || this.id2ChunkMap.get(chunkKey) != chunk) {
+                    spongeChunk.setQueuedForUnload(false);
+                    continue;
+                }
+                if (this.chunkUnloadDelay > 0) {
+                    // The chunk may have been scheduled again since it was queued
+                    long unloadTime = this.getUnloadTime(spongeChunk);
+                    if (unloadTime > now) {
+                        queued.unloadTime = unloadTime;
+                        this.unloadQueue.add(queued);
+                        continue;
                     }
-                    chunk.onChunkUnload();
-                    this.saveChunkData(chunk);
-                    this.saveChunkExtraData(chunk);
-                    iterator.remove();
-                    chunksUnloaded++;
+                    spongeChunk.setScheduledForUnload(-1);
                 }
+                spongeChunk.setQueuedForUnload(false);
+                timings.recordChunkUnloadLag(now - queued.unloadTime);
+                chunk.onChunkUnload();
+                this.saveChunkData(chunk);
+                this.saveChunkExtraData(chunk);
+                this.id2ChunkMap.remove(chunkKey);
+                chunksUnloaded++;
             }
-            ((IMixinWorldServer) this.worldObj).getTimingsHandler().doChunkUnload.stopTiming();
+            timings.recordChunkUnloadQueueSize(this.unloadQueue.size());
+            timings.doChunkUnload.stopTiming();
         }
 
         this.chunkLoader.chunkTick();
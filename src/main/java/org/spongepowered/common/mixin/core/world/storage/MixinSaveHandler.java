@@ -45,6 +45,7 @@
 import org.spongepowered.common.data.util.NbtDataUtil;
 import org.spongepowered.common.interfaces.IMixinSaveHandler;
 import org.spongepowered.common.interfaces.world.IMixinWorldInfo;
+import org.spongepowered.common.service.user.UserIndex;
 import org.spongepowered.common.world.WorldManager;
 import org.spongepowered.common.world.storage.SpongePlayerDataHandler;
 
@@ -115,9 +116,17 @@ public void loadSpongeDatData(WorldInfo info) throws IOException {
                 ((IMixinWorldInfo) info).readSpongeNbt(spongeCompound);
             }
         }
+        ((IMixinWorldInfo) info).loadPlayerIdTable(this.worldDirectory.toPath());
     }
 
     private void saveSpongeDatData(WorldInfo info) {
+        // The level data stores how many ids were written to the table, which
+        // stays at the previous count if the table can't be written
+        try {
+            ((IMixinWorldInfo) info).savePlayerIdTable(this.worldDirectory.toPath());
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to save the player id table of {}", this.worldDirectory, e);
+        }
         try {
             final File spongeFile1 = new File(this.worldDirectory, "level_sponge.dat_new");
             final File spongeFile2 = new File(this.worldDirectory, "level_sponge.dat_old");
@@ -225,6 +234,7 @@ private NBTTagCompound spongeReadPlayerData(InputStream inputStream) throws IOEx
     @Inject(method = "writePlayerData", at = @At(value = "INVOKE", target = COMPRESSED_WRITE_FILE, shift = At.Shift.AFTER))
     private void onSpongeWrite(EntityPlayer player, CallbackInfo callbackInfo) {
         SpongePlayerDataHandler.savePlayer(player.getUniqueID());
+        UserIndex.getInstance().onPlayerDataSaved(player.getUniqueID(), player.getName());
     }
 
 }
@@ -28,13 +28,10 @@
 
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.nbt.NBTTagList;
 import net.minecraft.scoreboard.ServerScoreboard;
 import net.minecraft.world.EnumDifficulty;
 import net.minecraft.world.GameRules;
@@ -86,11 +83,11 @@
 import org.spongepowered.common.util.FunctionalUtil;
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.persistence.JsonTranslator;
+import org.spongepowered.common.world.storage.PlayerIdTable;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -145,10 +142,8 @@ public abstract class MixinWorldInfo implements WorldProperties, IMixinWorldInfo
     private SerializationBehavior serializationBehavior = SerializationBehaviors.AUTOMATIC;
     private boolean isMod, generateBonusChest, isValid = true;
     private NBTTagCompound spongeRootLevelNbt = new NBTTagCompound(), spongeNbt = new NBTTagCompound();
-    private NBTTagList playerUniqueIdNbt = new NBTTagList();
-    private BiMap<Integer, UUID> playerUniqueIdMap = HashBiMap.create();
-    private List<UUID> pendingUniqueIds = new ArrayList<>();
-    private int trackedUniqueIdCount = 0;
+    private final PlayerIdTable playerIdTable = new PlayerIdTable();
+    private int expectedPlayerIdCount;
     private SpongeConfig<WorldConfig> worldConfig;
     @SuppressWarnings("unused")
     private ServerScoreboard scoreboard;
@@ -157,7 +152,6 @@ public abstract class MixinWorldInfo implements WorldProperties, IMixinWorldInfo
     //     protected WorldInfo()
     @Inject(method = "<init>", at = @At("RETURN") )
     public void onConstruction(CallbackInfo ci) {
-        this.spongeNbt.setTag(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, this.playerUniqueIdNbt);
         this.spongeRootLevelNbt.setTag(NbtDataUtil.SPONGE_DATA, this.spongeNbt);
     }
 
@@ -685,18 +679,22 @@ public void setPropertySection(DataQuery path, DataView data) {
 
     @Override
     public int getIndexForUniqueId(UUID uuid) {
-        if (this.playerUniqueIdMap.inverse().get(uuid) == null) {
-            this.playerUniqueIdMap.put(this.trackedUniqueIdCount, uuid);
-            this.pendingUniqueIds.add(uuid);
-            return this.trackedUniqueIdCount++;
-        } else {
-            return this.playerUniqueIdMap.inverse().get(uuid);
-        }
+        return this.playerIdTable.getOrCreateIndex(uuid);
     }
 
     @Override
     public Optional<UUID> getUniqueIdForIndex(int index) {
-        return Optional.ofNullable(this.playerUniqueIdMap.get(index));
+        return Optional.ofNullable(this.playerIdTable.getUniqueId(index));
+    }
+
+    @Override
+    public void loadPlayerIdTable(Path worldDir) throws IOException {
+        this.playerIdTable.load(worldDir.resolve(PlayerIdTable.FILE_NAME), this.expectedPlayerIdCount);
+    }
+
+    @Override
+    public void savePlayerIdTable(Path worldDir) throws IOException {
+        this.playerIdTable.save(worldDir.resolve(PlayerIdTable.FILE_NAME));
     }
 
     @Override
@@ -733,7 +731,6 @@ public void readSpongeNbt(NBTTagCompound nbt) {
         this.isMod = nbt.getBoolean(NbtDataUtil.IS_MOD);
         this.generateBonusChest = nbt.getBoolean(NbtDataUtil.GENERATE_BONUS_CHEST);
         this.portalAgentType = PortalAgentRegistryModule.getInstance().validatePortalAgent(nbt.getString(NbtDataUtil.PORTAL_AGENT_TYPE), this.levelName);
-        this.trackedUniqueIdCount = 0;
         if (nbt.hasKey(NbtDataUtil.WORLD_SERIALIZATION_BEHAVIOR)) {
             short saveBehavior = nbt.getShort(NbtDataUtil.WORLD_SERIALIZATION_BEHAVIOR);
             if (saveBehavior == 1) {
@@ -744,14 +741,11 @@ public void readSpongeNbt(NBTTagCompound nbt) {
                 this.serializationBehavior = SerializationBehaviors.NONE;
             }
         }
+        this.expectedPlayerIdCount = nbt.getCompoundTag(NbtDataUtil.SPONGE_PLAYER_UUID_FILE).getInteger(NbtDataUtil.SPONGE_PLAYER_UUID_FILE_COUNT);
         if (nbt.hasKey(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, NbtDataUtil.TAG_LIST)) {
-            final NBTTagList playerIdList = nbt.getTagList(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, NbtDataUtil.TAG_COMPOUND);
-            for (int i = 0; i < playerIdList.tagCount(); i++) {
-                final NBTTagCompound playerId = playerIdList.getCompoundTagAt(i);
-                final UUID playerUuid = playerId.getUniqueId(NbtDataUtil.UUID);
-                this.playerUniqueIdMap.put(this.trackedUniqueIdCount++, playerUuid);
-            }
-
+            // Migrate the table from the level data, it's moved into its own
+            // file on the next save
+            this.playerIdTable.loadLegacy(nbt.getTagList(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, NbtDataUtil.TAG_COMPOUND));
         }
     }
 
@@ -776,13 +770,16 @@ private void writeSpongeNbt() {
                 saveBehavior = 0;
             }
             this.spongeNbt.setShort(NbtDataUtil.WORLD_SERIALIZATION_BEHAVIOR, saveBehavior);
-            final Iterator<UUID> iterator = this.pendingUniqueIds.iterator();
-            final NBTTagList playerIdList = this.spongeNbt.getTagList(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, NbtDataUtil.TAG_COMPOUND);
-            while (iterator.hasNext()) {
-                final NBTTagCompound compound = new NBTTagCompound();
-                compound.setUniqueId(NbtDataUtil.UUID, iterator.next());
-                playerIdList.appendTag(compound);
-                iterator.remove();
+            final NBTTagCompound playerIdFile = new NBTTagCompound();
+            playerIdFile.setString(NbtDataUtil.SPONGE_PLAYER_UUID_FILE_NAME, PlayerIdTable.FILE_NAME);
+            playerIdFile.setInteger(NbtDataUtil.SPONGE_PLAYER_UUID_FILE_VERSION, PlayerIdTable.VERSION);
+            playerIdFile.setInteger(NbtDataUtil.SPONGE_PLAYER_UUID_FILE_COUNT, this.playerIdTable.getPersistedCount());
+            this.spongeNbt.setTag(NbtDataUtil.SPONGE_PLAYER_UUID_FILE, playerIdFile);
+            // The ids stay in the level data until the table file was written once
+            if (this.playerIdTable.isMigrationPending()) {
+                this.spongeNbt.setTag(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE, this.playerIdTable.saveLegacy());
+            } else {
+                this.spongeNbt.removeTag(NbtDataUtil.SPONGE_PLAYER_UUID_TABLE);
             }
         }
     }
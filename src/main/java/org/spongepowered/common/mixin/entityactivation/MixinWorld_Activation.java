@@ -30,10 +30,14 @@
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 import org.spongepowered.common.mixin.plugin.entityactivation.ActivationRange;
+import org.spongepowered.common.mixin.plugin.entityactivation.ActivationThrottle;
+import org.spongepowered.common.mixin.plugin.entityactivation.interfaces.IModData_WorldActivation;
 
 @NonnullByDefault
 @Mixin(value = net.minecraft.world.World.class, priority = 1005)
-public abstract class MixinWorld_Activation {
+public abstract class MixinWorld_Activation implements IModData_WorldActivation {
+
+    private final ActivationThrottle activationThrottle = new ActivationThrottle();
 
     @Inject(method = "updateEntities()V", at = @At(value = "INVOKE_STRING",
             target = "Lnet/minecraft/profiler/Profiler;endStartSection(Ljava/lang/String;)V", args = {"ldc=regular"}, shift = At.Shift.BY, by = -2))
@@ -43,4 +47,9 @@ private void onInvokeProfiler(CallbackInfo ci) {
         }
     }
 
+    @Override
+    public ActivationThrottle getActivationThrottle() {
+        return this.activationThrottle;
+    }
+
 }
@@ -27,6 +27,10 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityCreature;
 import net.minecraft.entity.EntityLivingBase;
@@ -51,6 +55,7 @@
 import net.minecraft.entity.projectile.EntityFireball;
 import net.minecraft.entity.projectile.EntityThrowable;
 import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
 import net.minecraft.world.WorldServer;
@@ -68,9 +73,9 @@
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.mixin.plugin.entityactivation.interfaces.IModData_Activation;
+import org.spongepowered.common.mixin.plugin.entityactivation.interfaces.IModData_WorldActivation;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 public class ActivationRange {
 
@@ -82,22 +87,8 @@ public class ActivationRange {
             .put((byte) 5, "misc")
             .build();
 
-    static AxisAlignedBB maxBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB miscBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB creatureBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB monsterBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB aquaticBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    static AxisAlignedBB ambientBB = new AxisAlignedBB(0, 0, 0, 0, 0, 0);
-    @SuppressWarnings("serial") static Map<Byte, Integer> maxActivationRanges = new HashMap<Byte, Integer>() {
-
-        {
-            put((byte) 1, 32);
-            put((byte) 2, 32);
-            put((byte) 3, 32);
-            put((byte) 4, 32);
-            put((byte) 5, 16);
-        }
-    };
+    // The highest activation range of each activation type, indexed by type
+    static final int[] maxActivationRanges = {0, 32, 32, 32, 32, 16};
 
     /**
      * Initializes an entities type on construction to specify what group this
@@ -219,116 +210,129 @@ public static void growBb(AxisAlignedBB target, AxisAlignedBB source, int x, int
      * Find what entities are in range of the players in the world and set
      * active if in range.
      *
+     * <p>The activation boxes of all players are merged per chunk first, so
+     * every chunk is only visited once no matter how many players overlap
+     * it.</p>
+     *
      * @param world The world to perform activation checks in
      */
     public static void activateEntities(World world) {
-        for (EntityPlayer player : world.playerEntities) {
+        final List<EntityPlayer> players = world.playerEntities;
+        if (players.isEmpty()) {
+            return;
+        }
+        final SpongeConfig<?> config = ((IMixinWorldServer) world).getActiveConfig();
+        if (config == null) {
+            return;
+        }
 
-            int maxRange = 0;
-            for (Integer range : maxActivationRanges.values()) {
-                if (range > maxRange) {
-                    maxRange = range;
-                }
+        int maxRange = 0;
+        for (int range : maxActivationRanges) {
+            if (range > maxRange) {
+                maxRange = range;
             }
-
-            maxRange = Math.min((SpongeImpl.getServer().getPlayerList().getViewDistance() << 4) - 8, maxRange);
-            ((IModData_Activation) player).setActivatedTick(world.getWorldInfo().getWorldTotalTime());
-            growBb(maxBB, player.getEntityBoundingBox(), maxRange, 256, maxRange);
-
-            int i = MathHelper.floor_double(maxBB.minX / 16.0D);
-            int j = MathHelper.floor_double(maxBB.maxX / 16.0D);
-            int k = MathHelper.floor_double(maxBB.minZ / 16.0D);
-            int l = MathHelper.floor_double(maxBB.maxZ / 16.0D);
+        }
+        maxRange = Math.min((SpongeImpl.getServer().getPlayerList().getViewDistance() << 4) - 8, maxRange);
+
+        final long currentTick = world.getWorldInfo().getWorldTotalTime();
+        final ActivationThrottle throttle = ((IModData_WorldActivation) world).getActivationThrottle();
+        throttle.update(((IMixinWorldServer) world).getDimensionId(), currentTick, config.getConfig().getEntityActivationRange());
+        maxRange = throttle.scaleRange(maxRange);
+        // The indexes of the players whose activation box covers a chunk
+        final Long2ObjectMap<IntList> chunkPlayers = new Long2ObjectOpenHashMap<>();
+        for (int index = 0; index < players.size(); index++) {
+            EntityPlayer player = players.get(index);
+            ((IModData_Activation) player).setActivatedTick(currentTick);
+            AxisAlignedBB playerBB = player.getEntityBoundingBox();
+
+            int i = MathHelper.floor_double((playerBB.minX - maxRange) / 16.0D);
+            int j = MathHelper.floor_double((playerBB.maxX + maxRange) / 16.0D);
+            int k = MathHelper.floor_double((playerBB.minZ - maxRange) / 16.0D);
+            int l = MathHelper.floor_double((playerBB.maxZ + maxRange) / 16.0D);
 
             for (int i1 = i; i1 <= j; ++i1) {
                 for (int j1 = k; j1 <= l; ++j1) {
-                    WorldServer worldserver = (WorldServer) world;
-                    Chunk chunk = ((IMixinChunkProviderServer) worldserver.getChunkProvider()).getLoadedChunkWithoutMarkingActive(i1, j1);
-                    if (chunk != null) {
-                        activateChunkEntities(player, chunk);
+                    long chunkKey = ChunkPos.chunkXZ2Int(i1, j1);
+                    IntList playerIndexes = chunkPlayers.get(chunkKey);
+                    if (playerIndexes == null) {
+                        playerIndexes = new IntArrayList(4);
+                        chunkPlayers.put(chunkKey, playerIndexes);
                     }
+                    playerIndexes.add(index);
                 }
             }
         }
+
+        final IMixinChunkProviderServer chunkProvider = (IMixinChunkProviderServer) ((WorldServer) world).getChunkProvider();
+        for (Long2ObjectMap.Entry<IntList> entry : chunkPlayers.long2ObjectEntrySet()) {
+            long chunkKey = entry.getLongKey();
+            Chunk chunk = chunkProvider.getLoadedChunkWithoutMarkingActive((int) chunkKey, (int) (chunkKey >> 32));
+            if (chunk != null) {
+                activateChunkEntities(players, entry.getValue(), chunk, currentTick, throttle);
+            }
+        }
     }
 
     /**
      * Checks for the activation state of all entities in this chunk.
      *
+     * @param players The players of the world
+     * @param playerIndexes The indexes of the players in range of the chunk
      * @param chunk Chunk to check for activation
+     * @param currentTick The current world tick
+     * @param throttle The activation throttle of the world
      */
-    private static void activateChunkEntities(EntityPlayer player, Chunk chunk) {
+    private static void activateChunkEntities(List<EntityPlayer> players, IntList playerIndexes, Chunk chunk, long currentTick,
+            ActivationThrottle throttle) {
         for (int i = 0; i < chunk.getEntityLists().length; ++i) {
 
-            for (Object o : chunk.getEntityLists()[i]) {
-                Entity entity = (Entity) o;
-                SpongeConfig<?> config = ((IMixinWorldServer) entity.worldObj).getActiveConfig();
+            for (Entity entity : chunk.getEntityLists()[i]) {
+                IModData_Activation spongeEntity = (IModData_Activation) entity;
+                if (currentTick <= spongeEntity.getActivatedTick()) {
+                    continue;
+                }
                 EntityType type = ((org.spongepowered.api.entity.Entity) entity).getType();
-                if (config == null || type == EntityTypes.UNKNOWN) {
+                if (type == EntityTypes.UNKNOWN) {
+                    continue;
+                }
+                if (spongeEntity.getDefaultActivationState()) {
+                    spongeEntity.setActivatedTick(currentTick);
                     continue;
                 }
 
-                long currentTick = entity.worldObj.getWorldInfo().getWorldTotalTime();
-                if (currentTick > ((IModData_Activation) entity).getActivatedTick()) {
-                    if (((IModData_Activation) entity).getDefaultActivationState()) {
-                        ((IModData_Activation) entity).setActivatedTick(currentTick);
-                        continue;
-                    }
-
-                    IModData_Activation spongeEntity = (IModData_Activation) entity;
-                    // check if activation cache needs to be updated
-                    if (spongeEntity.requiresActivationCacheRefresh()) {
-                        ActivationRange.initializeEntityActivationState(entity);
-                        spongeEntity.requiresActivationCacheRefresh(false);
-                    }
-                    // check for entity type overrides
-                    byte activationType = ((IModData_Activation) entity).getActivationType();
-                    int bbActivationRange = ((IModData_Activation) entity).getActivationRange();
-
-                    if (activationType == 5) {
-                        growBb(miscBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else if (activationType == 4) {
-                        growBb(ambientBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else if (activationType == 3) {
-                        growBb(aquaticBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else if (activationType == 2) {
-                        growBb(creatureBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    } else {
-                        growBb(monsterBB, player.getEntityBoundingBox(), bbActivationRange, 256, bbActivationRange);
-                    }
+                // check if activation cache needs to be updated
+                if (spongeEntity.requiresActivationCacheRefresh()) {
+                    ActivationRange.initializeEntityActivationState(entity);
+                    spongeEntity.requiresActivationCacheRefresh(false);
+                }
 
-                    switch (((IModData_Activation) entity).getActivationType()) {
-                        case 1:
-                            if (monsterBB.intersectsWith(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 2:
-                            if (creatureBB.intersectsWith(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 3:
-                            if (aquaticBB.intersectsWith(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 4:
-                            if (ambientBB.intersectsWith(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
-                            break;
-                        case 5:
-                        default:
-                            if (miscBB.intersectsWith(entity.getEntityBoundingBox())) {
-                                ((IModData_Activation) entity).setActivatedTick(currentTick);
-                            }
+                final int activationRange = throttle.scaleRange(spongeEntity.getActivationRange());
+                final AxisAlignedBB entityBB = entity.getEntityBoundingBox();
+                for (int j = 0; j < playerIndexes.size(); j++) {
+                    if (isInActivationRange(players.get(playerIndexes.getInt(j)).getEntityBoundingBox(), activationRange, entityBB)) {
+                        spongeEntity.setActivatedTick(currentTick);
+                        break;
                     }
                 }
             }
         }
     }
 
+    /**
+     * Checks whether the box intersects the player box grown by the range,
+     * without creating or modifying any box.
+     *
+     * @param playerBB The box of the player
+     * @param range The horizontal activation range
+     * @param entityBB The box of the entity
+     * @return Whether the entity is in range
+     */
+    private static boolean isInActivationRange(AxisAlignedBB playerBB, int range, AxisAlignedBB entityBB) {
+        return entityBB.maxX > playerBB.minX - range && entityBB.minX < playerBB.maxX + range
+                && entityBB.maxY > playerBB.minY - 256 && entityBB.minY < playerBB.maxY + 256
+                && entityBB.maxZ > playerBB.minZ - range && entityBB.minZ < playerBB.maxZ + range;
+    }
+
     /**
      * If an entity is not in range, do some more checks to see if we should
      * give it a shot.
@@ -395,8 +399,9 @@ public static boolean checkIfActive(Entity entity) {
 
         // Should this entity tick?
         if (!isActive) {
-            if ((currentTick - spongeEntity.getActivatedTick() - 1) % 20 == 0) {
-                // Check immunities every 20 ticks.
+            final int inactiveTickInterval = ((IModData_WorldActivation) entity.worldObj).getActivationThrottle().getInactiveTickInterval();
+            if ((currentTick - spongeEntity.getActivatedTick() - 1) % inactiveTickInterval == 0) {
+                // Check immunities every 20 ticks, or less often while throttled.
                 if (checkEntityImmunities(entity)) {
                     // Triggered some sort of immunity, give 20 full ticks before we check again.
                     spongeEntity.setActivatedTick(currentTick + 20);
@@ -447,8 +452,8 @@ public static void addEntityToConfig(World world, SpongeEntityType type, byte ac
                 requiresSave = true;
             } else if (modActivationRange != null) {
                 // check max ranges
-                if (modActivationRange > maxActivationRanges.get(activationType)) {
-                    maxActivationRanges.put(activationType, modActivationRange);
+                if (modActivationRange > maxActivationRanges[activationType]) {
+                    maxActivationRanges[activationType] = modActivationRange;
                 }
             }
 
@@ -459,8 +464,8 @@ public static void addEntityToConfig(World world, SpongeEntityType type, byte ac
                 requiresSave = true;
             } else if (entityActivationRange != null) {
                 // check max ranges
-                if (entityActivationRange > maxActivationRanges.get(activationType)) {
-                    maxActivationRanges.put(activationType, entityActivationRange);
+                if (entityActivationRange > maxActivationRanges[activationType]) {
+                    maxActivationRanges[activationType] = entityActivationRange;
                 }
             }
         }
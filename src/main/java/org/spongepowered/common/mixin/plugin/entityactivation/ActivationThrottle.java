@@ -0,0 +1,105 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.mixin.plugin.entityactivation;
+
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.category.EntityActivationRangeCategory;
+import org.spongepowered.common.interfaces.IMixinMinecraftServer;
+
+/**
+ * Adapts the activation ranges and the tick interval of inactive entities of
+ * a world to its measured tick time.
+ */
+public final class ActivationThrottle {
+
+    static final int DEFAULT_INACTIVE_TICK_INTERVAL = 20;
+    // How often, in ticks, the throttle is adjusted
+    private static final int UPDATE_INTERVAL = 20;
+    private static final double RANGE_SCALE_STEP = 0.05;
+    private static final int INACTIVE_TICK_INTERVAL_STEP = 5;
+    // The throttle only relaxes once the tick time dropped this far below the
+    // target, to avoid flip-flopping around it
+    private static final double RECOVERY_THRESHOLD = 0.8;
+
+    private double rangeScale = 1.0;
+    private int inactiveTickInterval = DEFAULT_INACTIVE_TICK_INTERVAL;
+
+    /**
+     * Adjusts the throttle to the mean tick time of the given dimension.
+     *
+     * @param dimensionId The dimension of the world
+     * @param currentTick The current world tick
+     * @param config The activation config of the world
+     */
+    void update(int dimensionId, long currentTick, EntityActivationRangeCategory config) {
+        if (!config.isAdaptiveThrottling()) {
+            this.rangeScale = 1.0;
+            this.inactiveTickInterval = DEFAULT_INACTIVE_TICK_INTERVAL;
+            return;
+        }
+        if (currentTick % UPDATE_INTERVAL != 0) {
+            return;
+        }
+        final long[] tickTimes = ((IMixinMinecraftServer) SpongeImpl.getServer()).getWorldTickTimes().get(dimensionId);
+        if (tickTimes == null || tickTimes.length == 0) {
+            return;
+        }
+        long total = 0;
+        for (long tickTime : tickTimes) {
+            total += tickTime;
+        }
+        final double meanTickTime = total / (double) tickTimes.length * 1.0e-6d;
+        final double targetTickTime = config.getAdaptiveTargetTickTime();
+
+        if (meanTickTime > targetTickTime) {
+            this.rangeScale = Math.max(config.getAdaptiveMinRangeScale(), this.rangeScale - RANGE_SCALE_STEP);
+            this.inactiveTickInterval = Math.min(Math.max(DEFAULT_INACTIVE_TICK_INTERVAL, config.getAdaptiveMaxInactiveTickInterval()),
+                    this.inactiveTickInterval + INACTIVE_TICK_INTERVAL_STEP);
+        } else if (meanTickTime < targetTickTime * RECOVERY_THRESHOLD) {
+            this.rangeScale = Math.min(1.0, this.rangeScale + RANGE_SCALE_STEP);
+            this.inactiveTickInterval = Math.max(DEFAULT_INACTIVE_TICK_INTERVAL, this.inactiveTickInterval - INACTIVE_TICK_INTERVAL_STEP);
+        }
+    }
+
+    /**
+     * Applies the throttle to an activation range, ranges never grow past
+     * their configured value.
+     *
+     * @param range The configured range
+     * @return The throttled range
+     */
+    public int scaleRange(int range) {
+        return this.rangeScale >= 1.0 ? range : (int) (range * this.rangeScale);
+    }
+
+    public double getRangeScale() {
+        return this.rangeScale;
+    }
+
+    public int getInactiveTickInterval() {
+        return this.inactiveTickInterval;
+    }
+
+}
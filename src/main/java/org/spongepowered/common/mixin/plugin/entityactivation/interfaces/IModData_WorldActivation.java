@@ -22,5 +22,12 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-@org.spongepowered.api.util.annotation.NonnullByDefault
-package org.spongepowered.common.profile.query;
+package org.spongepowered.common.mixin.plugin.entityactivation.interfaces;
+
+import org.spongepowered.common.mixin.plugin.entityactivation.ActivationThrottle;
+
+public interface IModData_WorldActivation {
+
+    ActivationThrottle getActivationThrottle();
+
+}
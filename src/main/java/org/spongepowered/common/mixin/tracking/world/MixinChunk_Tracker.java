@@ -24,9 +24,6 @@
  */
 package org.spongepowered.common.mixin.tracking.world;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectArrayMap;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import net.minecraft.block.Block;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
@@ -50,6 +47,7 @@
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.SpongeImplHooks;
 import org.spongepowered.common.entity.PlayerTracker;
+import org.spongepowered.common.entity.PlayerTrackerMap;
 import org.spongepowered.common.event.tracking.CauseTracker;
 import org.spongepowered.common.event.tracking.PhaseContext;
 import org.spongepowered.common.event.tracking.phase.generation.GenerationPhase;
@@ -60,7 +58,6 @@
 import org.spongepowered.common.util.SpongeHooks;
 import org.spongepowered.common.util.SpongeUsernameCache;
 
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -89,8 +86,8 @@ public abstract class MixinChunk_Tracker implements Chunk, IMixinChunk {
     @Shadow @Final private int[] heightMap;
     @Shadow private boolean isModified;
 
-    public Map<Integer, PlayerTracker> trackedIntBlockPositions = new Int2ObjectArrayMap<>();
-    public Map<Short, PlayerTracker> trackedShortBlockPositions = new Short2ObjectArrayMap<>();
+    public PlayerTrackerMap trackedIntBlockPositions = new PlayerTrackerMap();
+    public PlayerTrackerMap trackedShortBlockPositions = new PlayerTrackerMap();
 
     @Final // need this constructor to never be overwritten by anything.
     @Inject(method = "<init>(Lnet/minecraft/world/World;II)V", at = @At("RETURN"), remap = false)
@@ -127,84 +124,79 @@ public void addTrackedBlockPosition(Block block, BlockPos pos, User user, Player
         final int indexForUniqueId = worldInfo.getIndexForUniqueId(user.getUniqueId());
         if (pos.getY() <= 255) {
             short blockPos = blockPosToShort(pos);
-            final PlayerTracker playerTracker = this.trackedShortBlockPositions.get(blockPos);
-            if (playerTracker != null) {
-                if (trackerType == PlayerTracker.Type.OWNER) {
-                    playerTracker.ownerIndex = indexForUniqueId;
-                    playerTracker.notifierIndex = indexForUniqueId;
+            if (trackerType == PlayerTracker.Type.OWNER) {
+                if (this.trackedShortBlockPositions.containsKey(blockPos)) {
+                    this.trackedShortBlockPositions.put(blockPos, indexForUniqueId, indexForUniqueId);
                 } else {
-                    playerTracker.notifierIndex = indexForUniqueId;
+                    this.trackedShortBlockPositions.setOwner(blockPos, indexForUniqueId);
                 }
             } else {
-                this.trackedShortBlockPositions.put(blockPos, new PlayerTracker(indexForUniqueId, trackerType));
+                this.trackedShortBlockPositions.setNotifier(blockPos, indexForUniqueId);
             }
         } else {
             int blockPos = blockPosToInt(pos);
-            final PlayerTracker playerTracker = this.trackedIntBlockPositions.get(blockPos);
-            if (playerTracker != null) {
-                if (trackerType == PlayerTracker.Type.OWNER) {
-                    playerTracker.ownerIndex = indexForUniqueId;
-                } else {
-                    playerTracker.notifierIndex = indexForUniqueId;
-                }
+            if (trackerType == PlayerTracker.Type.OWNER) {
+                this.trackedIntBlockPositions.setOwner(blockPos, indexForUniqueId);
             } else {
-                this.trackedIntBlockPositions.put(blockPos, new PlayerTracker(indexForUniqueId, trackerType));
+                this.trackedIntBlockPositions.setNotifier(blockPos, indexForUniqueId);
             }
         }
     }
 
     @Override
-    public Map<Integer, PlayerTracker> getTrackedIntPlayerPositions() {
+    public PlayerTrackerMap getTrackedIntPlayerPositions() {
         return this.trackedIntBlockPositions;
     }
 
     @Override
-    public Map<Short, PlayerTracker> getTrackedShortPlayerPositions() {
+    public PlayerTrackerMap getTrackedShortPlayerPositions() {
         return this.trackedShortBlockPositions;
     }
 
     @Override
     public Optional<User> getBlockOwner(BlockPos pos) {
-        final int key = blockPosToInt(pos);
-        final PlayerTracker playerTracker = this.trackedIntBlockPositions.get(key);
-        if (playerTracker != null) {
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(playerTracker.ownerIndex));
-            if (uuid.isPresent()) {
-                UUID userUniqueId = uuid.get();
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(userUniqueId);
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                if (SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(userUniqueId)) {
-                    this.trackedIntBlockPositions.remove(key);
-                    return Optional.empty();
-                }
-                // player is not online, get or create user from storage
-                return this.getUserFromId(userUniqueId);
+        final int intKey = blockPosToInt(pos);
+        if (this.trackedIntBlockPositions.containsKey(intKey)) {
+            return this.getTrackedUser(this.trackedIntBlockPositions, intKey, this.trackedIntBlockPositions.getOwner(intKey));
+        }
+        final short shortKey = blockPosToShort(pos);
+        if (this.trackedShortBlockPositions.containsKey(shortKey)) {
+            return this.getTrackedUser(this.trackedShortBlockPositions, shortKey, this.trackedShortBlockPositions.getOwner(shortKey));
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<User> getBlockNotifier(BlockPos pos) {
+        final int intKey = blockPosToInt(pos);
+        if (this.trackedIntBlockPositions.containsKey(intKey)) {
+            return this.getTrackedUser(this.trackedIntBlockPositions, intKey, this.trackedIntBlockPositions.getNotifier(intKey));
+        }
+        final short shortKey = blockPosToShort(pos);
+        if (this.trackedShortBlockPositions.containsKey(shortKey)) {
+            return this.getTrackedUser(this.trackedShortBlockPositions, shortKey, this.trackedShortBlockPositions.getNotifier(shortKey));
+        }
+
+        return Optional.empty();
+    }
+
+    private Optional<User> getTrackedUser(PlayerTrackerMap trackedPositions, int key, int index) {
+        Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(index));
+        if (uuid.isPresent()) {
+            UUID userUniqueId = uuid.get();
+            // get player if online
+            EntityPlayer player = this.worldObj.getPlayerEntityByUUID(userUniqueId);
+            if (player != null) {
+                return Optional.of((User) player);
             }
-        } else {
-            final short shortKey = blockPosToShort(pos);
-            final PlayerTracker shortTracker = this.trackedShortBlockPositions.get(shortKey);
-            if (shortTracker != null) {
-                Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(shortTracker.ownerIndex));
-                if (uuid.isPresent()) {
-                    UUID userUniqueId = uuid.get();
-                    // get player if online
-                    EntityPlayer player = this.worldObj.getPlayerEntityByUUID(userUniqueId);
-                    if (player != null) {
-                        return Optional.of((User) player);
-                    }
-                    if (SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(userUniqueId)) {
-                        this.trackedShortBlockPositions.remove(shortKey);
-                        return Optional.empty();
-                    }
-                    // player is not online, get or create user from storage
-                    return this.getUserFromId(userUniqueId);
-                }
+            if (SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(userUniqueId)) {
+                trackedPositions.remove(key);
+                return Optional.empty();
             }
+            // player is not online, get or create user from storage
+            return this.getUserFromId(userUniqueId);
         }
-
         return Optional.empty();
     }
 
@@ -224,106 +216,35 @@ private Optional<User> getUserFromId(UUID uuid) {
         return this.userStorageService.get(GameProfile.of(uuid, username));
     }
 
-    @Override
-    public Optional<User> getBlockNotifier(BlockPos pos) {
-        final int intKey = blockPosToInt(pos);
-        final PlayerTracker intTracker = this.trackedIntBlockPositions.get(intKey);
-        if (intTracker != null) {
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(intTracker.notifierIndex));
-            if (uuid.isPresent()) {
-                UUID userUniqueId = uuid.get();
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(userUniqueId);
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                if (SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(userUniqueId)) {
-                    this.trackedIntBlockPositions.remove(intKey);
-                    return Optional.empty();
-                }
-                // player is not online, get or create user from storage
-                return this.getUserFromId(userUniqueId);
-            }
-        } else if (this.trackedShortBlockPositions.get(blockPosToShort(pos)) != null) {
-            short blockPos = blockPosToShort(pos);
-            PlayerTracker tracker = this.trackedShortBlockPositions.get(blockPos);
-            Optional<UUID> uuid = (((IMixinWorldInfo) this.worldObj.getWorldInfo()).getUniqueIdForIndex(tracker.notifierIndex));
-            if (uuid.isPresent()) {
-                UUID userUniqueId = uuid.get();
-                // get player if online
-                EntityPlayer player = this.worldObj.getPlayerEntityByUUID(userUniqueId);
-                if (player != null) {
-                    return Optional.of((User) player);
-                }
-                if (SpongeImpl.getGlobalConfig().getConfig().getWorld().getInvalidLookupUuids().contains(userUniqueId)) {
-                    this.trackedShortBlockPositions.remove(blockPos);
-                    return Optional.empty();
-                }
-                // player is not online, get or create user from storage
-                return this.getUserFromId(userUniqueId);
-            }
-        }
-
-        return Optional.empty();
-    }
-
     // Special setter used by API
     @Override
     public void setBlockNotifier(BlockPos pos, @Nullable UUID uuid) {
+        final int index = uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(uuid);
         if (pos.getY() <= 255) {
-            short blockPos = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(blockPos) != null) {
-                this.trackedShortBlockPositions.get(blockPos).notifierIndex = uuid == null ? -1 :
-                                                                              ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(uuid);
-            } else {
-                this.trackedShortBlockPositions.put(blockPos,
-                        new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(uuid),
-                                PlayerTracker.Type.NOTIFIER));
-            }
+            this.trackedShortBlockPositions.setNotifier(blockPosToShort(pos), index);
         } else {
-            int blockPos = blockPosToInt(pos);
-            if (this.trackedIntBlockPositions.get(blockPos) != null) {
-                this.trackedIntBlockPositions.get(blockPos).notifierIndex = uuid == null ? -1 :
-                                                                            ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(uuid);
-            } else {
-                this.trackedIntBlockPositions.put(blockPos,
-                        new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(uuid),
-                                PlayerTracker.Type.NOTIFIER));
-            }
+            this.trackedIntBlockPositions.setNotifier(blockPosToInt(pos), index);
         }
     }
 
     // Special setter used by API
     @Override
     public void setBlockCreator(BlockPos pos, @Nullable UUID uuid) {
+        final int index = uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo()).getIndexForUniqueId(uuid);
         if (pos.getY() <= 255) {
-            short blockPos = blockPosToShort(pos);
-            if (this.trackedShortBlockPositions.get(blockPos) != null) {
-                this.trackedShortBlockPositions.get(blockPos).ownerIndex = uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo())
-                        .getIndexForUniqueId(uuid);
-            } else {
-                this.trackedShortBlockPositions.put(blockPos, new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo())
-                        .getIndexForUniqueId(uuid), PlayerTracker.Type.OWNER));
-            }
+            this.trackedShortBlockPositions.setOwner(blockPosToShort(pos), index);
         } else {
-            int blockPos = blockPosToInt(pos);
-            if (this.trackedIntBlockPositions.get(blockPos) != null) {
-                this.trackedIntBlockPositions.get(blockPos).ownerIndex = uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo())
-                        .getIndexForUniqueId(uuid);
-            } else {
-                this.trackedIntBlockPositions.put(blockPos, new PlayerTracker(uuid == null ? -1 : ((IMixinWorldInfo) this.worldObj.getWorldInfo())
-                        .getIndexForUniqueId(uuid), PlayerTracker.Type.OWNER));
-            }
+            this.trackedIntBlockPositions.setOwner(blockPosToInt(pos), index);
         }
     }
 
     @Override
-    public void setTrackedIntPlayerPositions(Map<Integer, PlayerTracker> trackedPositions) {
+    public void setTrackedIntPlayerPositions(PlayerTrackerMap trackedPositions) {
         this.trackedIntBlockPositions = trackedPositions;
     }
 
     @Override
-    public void setTrackedShortPlayerPositions(Map<Short, PlayerTracker> trackedPositions) {
+    public void setTrackedShortPlayerPositions(PlayerTrackerMap trackedPositions) {
         this.trackedShortBlockPositions = trackedPositions;
     }
 
@@ -22,32 +22,42 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package org.spongepowered.common.profile.query;
+package org.spongepowered.common.profile;
 
 import org.spongepowered.api.profile.GameProfile;
 import org.spongepowered.api.profile.GameProfileCache;
 
-public abstract class GameProfileQuery<T> extends Query<T> {
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
 
-    protected GameProfileQuery(GameProfileCache cache, boolean useCache) {
-        super(cache, useCache);
-    }
+/**
+ * A profile source which performs the lookups of the active
+ * {@link GameProfileCache}, which also stores the results.
+ */
+final class CacheProfileSource implements ProfileSource {
+
+    private final Supplier<GameProfileCache> cache;
 
-    public static final class SingleFill extends GameProfileQuery<GameProfile> {
+    CacheProfileSource(Supplier<GameProfileCache> cache) {
+        this.cache = cache;
+    }
 
-        private final GameProfile profile;
-        private final boolean signed;
+    @Override
+    public Map<UUID, Optional<GameProfile>> findByIds(Collection<UUID> uniqueIds) {
+        return this.cache.get().lookupByIds(uniqueIds);
+    }
 
-        public SingleFill(GameProfileCache cache, GameProfile profile, boolean signed, boolean useCache) {
-            super(cache, useCache);
-            this.profile = profile;
-            this.signed = signed;
-        }
+    @Override
+    public Map<String, Optional<GameProfile>> findByNames(Collection<String> names) {
+        return this.cache.get().lookupByNames(names);
+    }
 
-        @Override
-        public GameProfile call() throws Exception {
-            return this.fillProfile(this.profile, this.signed);
-        }
+    @Override
+    public Optional<GameProfile> fill(GameProfile profile, boolean signed) {
+        return this.cache.get().fillProfile(profile, signed);
     }
 
 }
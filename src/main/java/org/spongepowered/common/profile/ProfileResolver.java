@@ -0,0 +1,223 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.profile;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import org.spongepowered.api.profile.GameProfile;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+/**
+ * Resolves profiles against a {@link ProfileSource}, coalescing the
+ * requests made in the meantime.
+ *
+ * <p>Concurrent requests for the same unique id or name share a single
+ * future. Lookups which are requested before the executor gets to them
+ * are sent to the source in batches, and the amount of requests made
+ * against the source can be limited.</p>
+ */
+public final class ProfileResolver {
+
+    private final ProfileSource source;
+    private final Executor executor;
+    private final int batchSize;
+    @Nullable private final RateLimiter rateLimiter;
+
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<GameProfile>>> idLookups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<Optional<GameProfile>>> nameLookups = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<GameProfile>>> fills = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, CompletableFuture<Optional<GameProfile>>> signedFills = new ConcurrentHashMap<>();
+    private final Queue<UUID> pendingIds = new ConcurrentLinkedQueue<>();
+    private final Queue<String> pendingNames = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param source The source to look up unknown profiles with
+     * @param executor The executor the lookups are made on
+     * @param batchSize The maximum amount of unique ids or names per request
+     * @param requestsPerSecond The maximum amount of requests per second
+     *     made against the source, or 0 to not limit them
+     */
+    public ProfileResolver(ProfileSource source, Executor executor, int batchSize, double requestsPerSecond) {
+        checkArgument(batchSize > 0, "batch size must be positive");
+        this.source = checkNotNull(source, "source");
+        this.executor = checkNotNull(executor, "executor");
+        this.batchSize = batchSize;
+        this.rateLimiter = requestsPerSecond > 0 ? RateLimiter.create(requestsPerSecond) : null;
+    }
+
+    /**
+     * Looks up the profile with the given unique id.
+     *
+     * @param uniqueId The unique id
+     * @return The future of the profile, which is empty if it wasn't found
+     */
+    public CompletableFuture<Optional<GameProfile>> resolve(UUID uniqueId) {
+        checkNotNull(uniqueId, "unique id");
+        final CompletableFuture<Optional<GameProfile>> future = new CompletableFuture<>();
+        final CompletableFuture<Optional<GameProfile>> inFlight = this.idLookups.putIfAbsent(uniqueId, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        this.pendingIds.add(uniqueId);
+        scheduleFlush();
+        return future;
+    }
+
+    /**
+     * Looks up the profile with the given name, ignoring its case.
+     *
+     * @param name The name
+     * @return The future of the profile, which is empty if it wasn't found
+     */
+    public CompletableFuture<Optional<GameProfile>> resolve(String name) {
+        final String key = checkNotNull(name, "name").toLowerCase(Locale.ROOT);
+        final CompletableFuture<Optional<GameProfile>> future = new CompletableFuture<>();
+        final CompletableFuture<Optional<GameProfile>> inFlight = this.nameLookups.putIfAbsent(key, future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        this.pendingNames.add(key);
+        scheduleFlush();
+        return future;
+    }
+
+    /**
+     * Fills in the properties of the given profile.
+     *
+     * @param profile The profile
+     * @param signed Whether the properties should be signed
+     * @return The future of the filled profile, which is empty if it wasn't
+     *     found
+     */
+    public CompletableFuture<Optional<GameProfile>> fill(GameProfile profile, boolean signed) {
+        checkNotNull(profile, "profile");
+        final ConcurrentMap<UUID, CompletableFuture<Optional<GameProfile>>> fills = signed ? this.signedFills : this.fills;
+        final CompletableFuture<Optional<GameProfile>> future = new CompletableFuture<>();
+        final CompletableFuture<Optional<GameProfile>> inFlight = fills.putIfAbsent(profile.getUniqueId(), future);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        this.executor.execute(() -> {
+            acquire(1);
+            try {
+                complete(fills, profile.getUniqueId(), this.source.fill(profile, signed));
+            } catch (Exception e) {
+                fail(fills, profile.getUniqueId(), e);
+            }
+        });
+        return future;
+    }
+
+    private void scheduleFlush() {
+        if (this.flushScheduled.compareAndSet(false, true)) {
+            this.executor.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        // Reset first, requests which are added from now on schedule a new flush
+        this.flushScheduled.set(false);
+
+        for (List<String> batch : Lists.partition(drain(this.pendingNames), this.batchSize)) {
+            acquire(1);
+            final Map<String, Optional<GameProfile>> result;
+            try {
+                result = this.source.findByNames(batch);
+            } catch (Exception e) {
+                batch.forEach(name -> fail(this.nameLookups, name, e));
+                continue;
+            }
+            // The source may return names which are capitalized differently
+            final Map<String, Optional<GameProfile>> profiles = new HashMap<>();
+            result.forEach((name, profile) -> profiles.put(name.toLowerCase(Locale.ROOT), profile));
+            batch.forEach(name -> complete(this.nameLookups, name, profiles.getOrDefault(name, Optional.empty())));
+        }
+
+        for (List<UUID> batch : Lists.partition(drain(this.pendingIds), this.batchSize)) {
+            acquire(batch.size());
+            final Map<UUID, Optional<GameProfile>> result;
+            try {
+                result = this.source.findByIds(batch);
+            } catch (Exception e) {
+                batch.forEach(uniqueId -> fail(this.idLookups, uniqueId, e));
+                continue;
+            }
+            batch.forEach(uniqueId -> complete(this.idLookups, uniqueId, result.getOrDefault(uniqueId, Optional.empty())));
+        }
+    }
+
+    private void acquire(int permits) {
+        if (this.rateLimiter != null) {
+            this.rateLimiter.acquire(permits);
+        }
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        final List<T> elements = new ArrayList<>();
+        T element;
+        while ((element = queue.poll()) != null) {
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    private static <K> void complete(ConcurrentMap<K, CompletableFuture<Optional<GameProfile>>> lookups, K key, Optional<GameProfile> profile) {
+        // Removed before completing, so requests made afterwards start a new lookup
+        final CompletableFuture<Optional<GameProfile>> future = lookups.remove(key);
+        if (future != null) {
+            future.complete(profile);
+        }
+    }
+
+    private static <K> void fail(ConcurrentMap<K, CompletableFuture<Optional<GameProfile>>> lookups, K key, Throwable t) {
+        final CompletableFuture<Optional<GameProfile>> future = lookups.remove(key);
+        if (future != null) {
+            future.completeExceptionally(t);
+        }
+    }
+
+}
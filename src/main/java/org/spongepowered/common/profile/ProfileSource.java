@@ -0,0 +1,71 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.profile;
+
+import org.spongepowered.api.profile.GameProfile;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The place the {@link ProfileResolver} looks up profiles which it doesn't
+ * know yet, usually the Mojang session server and profile repository.
+ *
+ * <p>Every method call is treated as a single request against the rate
+ * limit, except for {@link #findByIds(Collection)} which counts once per
+ * unique id.</p>
+ */
+public interface ProfileSource {
+
+    /**
+     * Looks up the profiles with the given unique ids.
+     *
+     * @param uniqueIds The unique ids
+     * @return The profiles, keyed by their unique ids
+     */
+    Map<UUID, Optional<GameProfile>> findByIds(Collection<UUID> uniqueIds);
+
+    /**
+     * Looks up the profiles with the given names, in a single bulk request.
+     * The keys of the result may be capitalized differently than the
+     * requested names.
+     *
+     * @param names The names
+     * @return The profiles, keyed by their names
+     */
+    Map<String, Optional<GameProfile>> findByNames(Collection<String> names);
+
+    /**
+     * Fills in the properties of the given profile.
+     *
+     * @param profile The profile
+     * @param signed Whether the properties should be signed
+     * @return The filled profile, if it was found
+     */
+    Optional<GameProfile> fill(GameProfile profile, boolean signed);
+
+}
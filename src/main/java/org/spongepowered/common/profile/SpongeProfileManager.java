@@ -26,33 +26,46 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.Sets;
 import org.spongepowered.api.profile.GameProfile;
 import org.spongepowered.api.profile.GameProfileCache;
 import org.spongepowered.api.profile.GameProfileManager;
+import org.spongepowered.api.profile.ProfileNotFoundException;
 import org.spongepowered.api.profile.property.ProfileProperty;
 import org.spongepowered.common.SpongeImpl;
-import org.spongepowered.common.profile.query.GameProfileQuery;
-import org.spongepowered.common.profile.query.NameQuery;
-import org.spongepowered.common.profile.query.UniqueIdQuery;
 import org.spongepowered.common.profile.task.GameProfileQueryTask;
 import org.spongepowered.common.scheduler.SpongeScheduler;
+import org.spongepowered.common.util.SpongeUsernameCache;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 public final class SpongeProfileManager implements GameProfileManager {
 
+    // The maximum amount of names in a single bulk request to Mojang's profile repository
+    private static final int LOOKUP_BATCH_SIZE = 100;
+
     private final GameProfileCache defaultCache = (GameProfileCache) SpongeImpl.getServer().getPlayerProfileCache();
     private final GameProfileQueryTask gameProfileQueryTask;
+    private final ProfileResolver resolver;
     private GameProfileCache cache = this.defaultCache;
 
     public SpongeProfileManager() {
         this.gameProfileQueryTask = new GameProfileQueryTask();
+        this.resolver = new ProfileResolver(new CacheProfileSource(this::getCache),
+                command -> SpongeScheduler.getInstance().submitAsyncTask(() -> {
+                    command.run();
+                    return null;
+                }), LOOKUP_BATCH_SIZE, SpongeImpl.getGlobalConfig().getConfig().getWorld().getGameProfileLookupRateLimit());
         SpongeScheduler.getInstance().createTaskBuilder().interval(SpongeImpl.getGlobalConfig().getConfig().getWorld().getGameProfileQueryTaskInterval(), TimeUnit.SECONDS).execute(this.gameProfileQueryTask).name("GameProfileQueryTask").submit(SpongeImpl.getPlugin());
     }
 
@@ -73,27 +86,53 @@ public ProfileProperty createProfileProperty(String name, String value, @Nullabl
 
     @Override
     public CompletableFuture<GameProfile> get(UUID uniqueId, final boolean useCache) {
-        return this.submitTask(new UniqueIdQuery.SingleGet(this.cache, checkNotNull(uniqueId, "unique id"), useCache));
+        checkNotNull(uniqueId, "unique id");
+        return this.getById(uniqueId, useCache).thenApply(profile -> profile.orElseGet(() -> GameProfile.of(uniqueId, null)));
     }
 
     @Override
     public CompletableFuture<Collection<GameProfile>> getAllById(Iterable<UUID> uniqueIds, boolean useCache) {
-        return this.submitTask(new UniqueIdQuery.MultiGet(this.cache, checkNotNull(uniqueIds, "unique ids"), useCache));
+        checkNotNull(uniqueIds, "unique ids");
+        final List<CompletableFuture<Optional<GameProfile>>> futures = new ArrayList<>();
+        for (UUID uniqueId : Sets.newHashSet(uniqueIds)) {
+            futures.add(this.getById(uniqueId, useCache));
+        }
+        return allPresent(futures);
     }
 
     @Override
     public CompletableFuture<GameProfile> get(String name, boolean useCache) {
-        return this.submitTask(new NameQuery.SingleGet(this.cache, checkNotNull(name, "name"), useCache));
+        checkNotNull(name, "name");
+        return this.getByName(name, useCache).thenApply(profile -> profile.orElseThrow(
+                () -> new CompletionException(new ProfileNotFoundException("Profile: " + name))));
     }
 
     @Override
     public CompletableFuture<Collection<GameProfile>> getAllByName(Iterable<String> names, boolean useCache) {
-        return this.submitTask(new NameQuery.MultiGet(this.cache, checkNotNull(names, "names"), useCache));
+        checkNotNull(names, "names");
+        final List<CompletableFuture<Optional<GameProfile>>> futures = new ArrayList<>();
+        for (String name : Sets.newHashSet(names)) {
+            futures.add(this.getByName(name, useCache));
+        }
+        return allPresent(futures);
     }
 
     @Override
     public CompletableFuture<GameProfile> fill(GameProfile profile, boolean signed, boolean useCache) {
-        return this.submitTask(new GameProfileQuery.SingleFill(this.cache, checkNotNull(profile, "profile"), signed, useCache));
+        checkNotNull(profile, "profile");
+        if (useCache) {
+            final Optional<GameProfile> cached = this.cache.getById(profile.getUniqueId());
+            if (cached.isPresent() && cached.get().isFilled() && !cached.get().getPropertyMap().isEmpty()) {
+                return CompletableFuture.completedFuture(cached.get());
+            }
+        }
+        return this.resolver.fill(profile, signed).thenApply(result -> {
+            if (result.isPresent() && result.get().isFilled()) {
+                this.cache.add(result.get(), true, null);
+                return result.get();
+            }
+            throw new CompletionException(new ProfileNotFoundException("Profile: " + profile));
+        });
     }
 
     @Override
@@ -111,8 +150,38 @@ public GameProfileCache getDefaultCache() {
         return this.defaultCache;
     }
 
-    private <T> CompletableFuture<T> submitTask(Callable<T> callable) {
-        return SpongeScheduler.getInstance().submitAsyncTask(callable);
+    private CompletableFuture<Optional<GameProfile>> getById(UUID uniqueId, boolean useCache) {
+        if (useCache) {
+            // check username cache first
+            @Nullable final String username = SpongeUsernameCache.getLastKnownUsername(uniqueId);
+            if (username != null) {
+                return CompletableFuture.completedFuture(Optional.of(GameProfile.of(uniqueId, username)));
+            }
+            final Optional<GameProfile> profile = this.cache.getById(uniqueId);
+            if (profile.isPresent()) {
+                return CompletableFuture.completedFuture(profile);
+            }
+        }
+        return this.resolver.resolve(uniqueId);
+    }
+
+    private CompletableFuture<Optional<GameProfile>> getByName(String name, boolean useCache) {
+        if (useCache) {
+            final Optional<GameProfile> profile = this.cache.getByName(name);
+            if (profile.isPresent()) {
+                return CompletableFuture.completedFuture(profile);
+            }
+        }
+        return this.resolver.resolve(name);
+    }
+
+    private static CompletableFuture<Collection<GameProfile>> allPresent(List<CompletableFuture<Optional<GameProfile>>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+                .thenApply(v -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Optional::isPresent)
+                        .map(Optional::get)
+                        .collect(Collectors.toList()));
     }
 
 }
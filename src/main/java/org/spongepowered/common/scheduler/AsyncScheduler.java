@@ -24,124 +24,317 @@
  */
 package org.spongepowered.common.scheduler;
 
-import org.spongepowered.api.scheduler.Task;
+import co.aikar.timings.AsyncTaskTimings;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.category.SchedulerCategory;
 
-import java.util.Set;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class AsyncScheduler extends SchedulerBase {
 
-    // Adjustable timeout for pending Tasks
-    private long minimumTimeout = Long.MAX_VALUE;
-    private long lastProcessingTimestamp;
     // Locking mechanism
     private final Lock lock = new ReentrantLock();
     private final Condition condition = this.lock.newCondition();
-    // The dynamic thread pooling executor of asynchronous tasks.
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+    // The pending tasks, ordered by the time they are due. The due time is
+    // fixed when a task is queued, as the state of a task may change at any
+    // time. Only the head of the queue has to be checked to know if any task
+    // is due.
+    private final PriorityQueue<QueuedTask> queue = new PriorityQueue<>(64, Comparator.comparingLong(QueuedTask::getDueTime));
+    private final List<QueuedTask> dueTasks = new ArrayList<>();
+    // The executor of asynchronous tasks, as configured
+    private final ExecutorService executor;
+    // The maximum amount of running tasks per plugin, unlimited if 0 or less
+    private final int maxConcurrentTasksPerPlugin;
+    private final Map<String, PluginTasks> pluginTasks = new ConcurrentHashMap<>();
+    // Lateness of started tasks, the time between when a task was due and
+    // when it was actually started
+    private long startedTasks;
+    private long totalLateness;
+    private long maxLateness;
 
     AsyncScheduler() {
+        this(SpongeImpl.getGlobalConfig().getConfig().getScheduler());
+    }
+
+    private AsyncScheduler(SchedulerCategory config) {
+        this(createExecutor(config), config.getMaxConcurrentAsyncTasksPerPlugin());
+    }
+
+    AsyncScheduler(ExecutorService executor, int maxConcurrentTasksPerPlugin) {
         super(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS);
 
+        this.executor = executor;
+        this.maxConcurrentTasksPerPlugin = maxConcurrentTasksPerPlugin;
+
         Thread thread = new Thread(AsyncScheduler.this::mainLoop);
         thread.setName("Sponge Async Scheduler Thread");
         thread.setDaemon(true);
         thread.start();
     }
 
+    private static ExecutorService createExecutor(SchedulerCategory config) {
+        final int poolSize = config.getAsyncPoolSize() > 0 ? config.getAsyncPoolSize() : Runtime.getRuntime().availableProcessors();
+        switch (config.getAsyncExecutor().toLowerCase(Locale.ENGLISH)) {
+            case "fixed":
+                return Executors.newFixedThreadPool(poolSize);
+            case "work-stealing":
+                return Executors.newWorkStealingPool(poolSize);
+            case "lightweight":
+                try {
+                    return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                } catch (ReflectiveOperationException e) {
+                    SpongeImpl.getLogger().info("Virtual threads are not supported by this runtime, using a work-stealing async executor");
+                    return Executors.newWorkStealingPool(poolSize);
+                }
+            case "cached":
+                return Executors.newCachedThreadPool();
+            default:
+                SpongeImpl.getLogger().warn("Unknown async executor '{}', using a cached async executor", config.getAsyncExecutor());
+                return Executors.newCachedThreadPool();
+        }
+    }
+
     ExecutorService getExecutor() {
         return this.executor;
     }
 
     private void mainLoop() {
-        this.lastProcessingTimestamp = System.nanoTime();
         while (true) {
-            recalibrateMinimumTimeout();
-            this.runTick();
+            this.lock.lock();
+            try {
+                awaitDueTask();
+                long now = System.nanoTime();
+                QueuedTask queued;
+                while ((queued = this.queue.peek()) != null && queued.dueTime - now <= 0) {
+                    this.dueTasks.add(this.queue.poll());
+                }
+                // Due tasks are collected first, a task which is still
+                // switching isn't started and must not be polled again
+                for (QueuedTask dueTask : this.dueTasks) {
+                    processDueTask(dueTask, now);
+                }
+            } catch (InterruptedException ignored) {
+                // The queue has been modified; there is work to do.
+                // Continue on without handling the Exception.
+            } catch (IllegalMonitorStateException e) {
+                SpongeImpl.getLogger().error("The scheduler internal state machine suffered a catastrophic error", e);
+            } finally {
+                this.dueTasks.clear();
+                this.lock.unlock();
+            }
         }
     }
 
-    private void recalibrateMinimumTimeout() {
-        this.lock.lock();
-        try {
-            Set<Task> tasks = this.getScheduledTasks();
-            this.minimumTimeout = Long.MAX_VALUE;
-            long now = System.nanoTime();
-            for (Task tmpTask : tasks) {
-                ScheduledTask task = (ScheduledTask) tmpTask;
-                // Recalibrate the wait delay for processing tasks before new
-                // tasks cause the scheduler to process pending tasks.
-                if (task.offset == 0 && task.period == 0) {
-                    this.minimumTimeout = 0;
-                }
-                // The time since the task last executed or was added to the map
-                long timeSinceLast = now - task.getTimestamp();
+    /**
+     * Waits until the head of the queue is due, or the queue is modified.
+     */
+    private void awaitDueTask() throws InterruptedException {
+        QueuedTask head = this.queue.peek();
+        if (head == null) {
+            this.condition.await();
+        } else {
+            long timeout = head.dueTime - System.nanoTime();
+            if (timeout > 0) {
+                this.condition.awaitNanos(timeout);
+            }
+        }
+    }
 
-                if (task.offset > 0 && task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
-                    // There is an offset and the task hasn't run yet
-                    this.minimumTimeout = Math.min(task.offset - timeSinceLast, this.minimumTimeout);
-                }
-                if (task.period > 0 && task.getState().isActive) {
-                    // The task repeats and has run after the initial delay
-                    this.minimumTimeout = Math.min(task.period - timeSinceLast, this.minimumTimeout);
-                }
-                if (this.minimumTimeout <= 0) {
-                    break;
+    private void processDueTask(QueuedTask queued, long now) {
+        final ScheduledTask task = queued.task;
+        final long timestamp = task.getTimestamp();
+        this.processTask(task);
+        // The timestamp of a task is reset when it is started
+        final boolean started = task.getTimestamp() != timestamp;
+        if (started) {
+            long lateness = now - queued.dueTime;
+            this.startedTasks++;
+            this.totalLateness += lateness;
+            this.maxLateness = Math.max(this.maxLateness, lateness);
+        }
+        // Repeating tasks are queued again a period after they were started.
+        // A task which was skipped, because its previous execution is still
+        // switching, e.g. waiting for the executor, is retried a period later.
+        if (task.period > 0 && task.getState() != ScheduledTask.ScheduledTaskState.CANCELED) {
+            this.queue.add(new QueuedTask(task, (started ? task.getTimestamp() : now) + task.period));
+        }
+    }
+
+    @Override
+    protected void executeTaskRunnable(ScheduledTask task, Runnable runnable) {
+        final AsyncTaskTimings timings = AsyncTaskTimings.of(task);
+        final Runnable timedRunnable;
+        if (timings == AsyncTaskTimings.NONE) {
+            timedRunnable = runnable;
+        } else {
+            final long submitted = System.nanoTime();
+            timedRunnable = () -> {
+                final long start = System.nanoTime();
+                timings.recordQueueWait(start - submitted);
+                try {
+                    runnable.run();
+                } finally {
+                    timings.recordRunTime(System.nanoTime() - start);
                 }
+            };
+        }
+        if (this.maxConcurrentTasksPerPlugin <= 0) {
+            this.executor.execute(timedRunnable);
+            return;
+        }
+
+        final PluginTasks tasks = this.pluginTasks.computeIfAbsent(task.getOwner().getId(), id -> new PluginTasks());
+        final Runnable limitedRunnable = () -> {
+            try {
+                timedRunnable.run();
+            } finally {
+                onPluginTaskFinished(tasks);
             }
-            if (!tasks.isEmpty()) {
-                long latency = System.nanoTime() - this.lastProcessingTimestamp;
-                this.minimumTimeout -= (latency <= 0) ? 0 : latency;
-                this.minimumTimeout = (this.minimumTimeout < 0) ? 0 : this.minimumTimeout;
+        };
+        synchronized (tasks) {
+            if (tasks.running >= this.maxConcurrentTasksPerPlugin) {
+                tasks.pending.add(limitedRunnable);
+                return;
             }
-        } finally {
-            this.lock.unlock();
+            tasks.running++;
+        }
+        this.executor.execute(limitedRunnable);
+    }
+
+    private void onPluginTaskFinished(PluginTasks tasks) {
+        final Runnable next;
+        synchronized (tasks) {
+            next = tasks.pending.poll();
+            if (next == null) {
+                tasks.running--;
+            }
+        }
+        // The finished task hands its slot over to the next pending one
+        if (next != null) {
+            this.executor.execute(next);
+        }
+    }
+
+    @Override
+    protected void removeTask(ScheduledTask task) {
+        super.removeTask(task);
+        if (task.period > 0) {
+            AsyncTaskTimings.remove(task);
         }
     }
 
     @Override
-    protected void preTick() {
+    protected void onTaskCancelled(ScheduledTask task) {
         this.lock.lock();
         try {
-            this.condition.await(this.minimumTimeout, TimeUnit.NANOSECONDS);
-        } catch (InterruptedException ignored) {
-            // The taskMap has been modified; there is work to do.
-            // Continue on without handling the Exception.
-        } catch (IllegalMonitorStateException e) {
-            SpongeImpl.getLogger().error("The scheduler internal state machine suffered a catastrophic error", e);
+            // Cancelled tasks would otherwise stay queued until they are due
+            if (this.queue.removeIf(queued -> queued.task == task)) {
+                this.removeTask(task);
+            }
+        } finally {
+            this.lock.unlock();
         }
     }
 
     @Override
-    protected void postTick() {
-        this.lastProcessingTimestamp = System.nanoTime();
+    protected void addTask(ScheduledTask task) {
+        this.lock.lock();
+        try {
+            super.addTask(task);
+            this.queue.add(new QueuedTask(task, task.nextExecutionTimestamp()));
+            // Only wake up the loop if the wait time changed
+            if (this.queue.peek().task == task) {
+                this.condition.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    @Override
-    protected void finallyPostTick() {
-        this.lock.unlock();
+    /**
+     * Gets the amount of tasks waiting in the queue.
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        this.lock.lock();
+        try {
+            return this.queue.size();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    @Override
-    protected void executeTaskRunnable(Runnable runnable) {
-        this.executor.submit(runnable);
+    /**
+     * Gets the average time in nanoseconds between a task being due and it
+     * being started.
+     *
+     * @return The average lateness
+     */
+    public long getAverageLateness() {
+        this.lock.lock();
+        try {
+            return this.startedTasks == 0 ? 0 : this.totalLateness / this.startedTasks;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
-    @Override
-    protected void addTask(ScheduledTask task) {
+    /**
+     * Gets the highest time in nanoseconds between a task being due and it
+     * being started.
+     *
+     * @return The maximum lateness
+     */
+    public long getMaxLateness() {
         this.lock.lock();
         try {
-            super.addTask(task);
-            this.condition.signalAll();
+            return this.maxLateness;
         } finally {
             this.lock.unlock();
         }
     }
 
+    /**
+     * A task in the queue, with the time at which it is due.
+     */
+    private static final class QueuedTask {
+
+        final ScheduledTask task;
+        final long dueTime;
+
+        QueuedTask(ScheduledTask task, long dueTime) {
+            this.task = task;
+            this.dueTime = dueTime;
+        }
+
+        long getDueTime() {
+            return this.dueTime;
+        }
+
+    }
+
+    /**
+     * The running and pending tasks of a plugin with a concurrency limit.
+     */
+    private static final class PluginTasks {
+
+        int running;
+        final Queue<Runnable> pending = new ArrayDeque<>();
+
+    }
+
 }
@@ -32,6 +32,8 @@
 import java.util.function.Consumer;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 /**
  * An internal representation of a {@link Task} created by a plugin.
  */
@@ -49,6 +51,8 @@ public class ScheduledTask implements Task {
     private final String name;
     private final TaskSynchronicity syncType;
     private final String stringRepresentation;
+    // The scheduler the task was added to
+    @Nullable SchedulerBase scheduler;
 
     // Internal Task state. Not for user-service use.
     public enum ScheduledTaskState {
@@ -130,6 +134,9 @@ public boolean cancel() {
             success = true;
         }
         this.setState(ScheduledTask.ScheduledTaskState.CANCELED);
+        if (this.scheduler != null) {
+            this.scheduler.onTaskCancelled(this);
+        }
         return success;
     }
 
@@ -191,6 +191,26 @@ public void tickSyncScheduler() {
         this.syncScheduler.tick();
     }
 
+    /**
+     * Gets the asynchronous scheduler, which exposes queue depth and
+     * lateness metrics.
+     *
+     * @return The asynchronous scheduler
+     */
+    public AsyncScheduler getAsyncScheduler() {
+        return this.asyncScheduler;
+    }
+
+    /**
+     * Gets the synchronous scheduler, which exposes counters of tasks that
+     * were deferred by its tick budget.
+     *
+     * @return The synchronous scheduler
+     */
+    public SyncScheduler getSyncScheduler() {
+        return this.syncScheduler;
+    }
+
     public <T> CompletableFuture<T> submitAsyncTask(Callable<T> callable) {
         return Functional.asyncFailableFuture(callable, this.asyncScheduler.getExecutor());
     }
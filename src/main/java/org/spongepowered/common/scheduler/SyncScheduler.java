@@ -24,13 +24,32 @@
  */
 package org.spongepowered.common.scheduler;
 
+import org.spongepowered.common.SpongeImpl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 public class SyncScheduler extends SchedulerBase {
 
     // The number of ticks elapsed since this scheduler began.
     private volatile long counter = 0L;
+    // The time tasks may take per tick, unlimited if 0 or less
+    private final long tickBudget;
+    private long tickStart;
+    // Tasks which were due but deferred as the tick budget was used up, in the
+    // order they were deferred. A task is deferred at most once at a time.
+    private final Map<ScheduledTask, Runnable> deferredTasks = new LinkedHashMap<>();
+    // Starvation counters
+    private long totalDeferredTasks;
+    private long deferringTicks;
+    private boolean deferredThisTick;
 
     SyncScheduler() {
         super(ScheduledTask.TaskSynchronicity.SYNCHRONOUS);
+
+        this.tickBudget = (long) (SpongeImpl.getGlobalConfig().getConfig().getScheduler().getSyncTickBudget() * TimeUnit.MILLISECONDS.toNanos(1));
     }
 
     /**
@@ -41,6 +60,32 @@ void tick() {
         this.runTick();
     }
 
+    @Override
+    protected void preTick() {
+        this.tickStart = System.nanoTime();
+        this.deferredThisTick = false;
+        // Deferred tasks run before any newly due task
+        Iterator<Map.Entry<ScheduledTask, Runnable>> it = this.deferredTasks.entrySet().iterator();
+        while (it.hasNext() && !isOverBudget()) {
+            Map.Entry<ScheduledTask, Runnable> entry = it.next();
+            it.remove();
+            if (entry.getKey().getState() != ScheduledTask.ScheduledTaskState.CANCELED) {
+                entry.getValue().run();
+            }
+        }
+    }
+
+    @Override
+    protected void postTick() {
+        if (this.deferredThisTick) {
+            this.deferringTicks++;
+        }
+    }
+
+    private boolean isOverBudget() {
+        return this.tickBudget > 0 && System.nanoTime() - this.tickStart >= this.tickBudget;
+    }
+
     @Override
     protected long getTimestamp(ScheduledTask task) {
         if (task.getState() == ScheduledTask.ScheduledTaskState.WAITING) {
@@ -62,8 +107,44 @@ protected long getTimestamp(ScheduledTask task) {
     }
 
     @Override
-    protected void executeTaskRunnable(Runnable runnable) {
+    protected void executeTaskRunnable(ScheduledTask task, Runnable runnable) {
+        if (isOverBudget() || !this.deferredTasks.isEmpty()) {
+            // Repeating tasks which are still deferred skip this execution
+            if (this.deferredTasks.putIfAbsent(task, runnable) == null) {
+                this.totalDeferredTasks++;
+                this.deferredThisTick = true;
+            }
+            return;
+        }
         runnable.run();
     }
 
+    /**
+     * Gets the amount of tasks which are currently deferred to the next tick.
+     *
+     * @return The amount of deferred tasks
+     */
+    public int getDeferredTaskCount() {
+        return this.deferredTasks.size();
+    }
+
+    /**
+     * Gets the total amount of task executions which were deferred as the
+     * tick budget was used up.
+     *
+     * @return The total amount of deferred tasks
+     */
+    public long getTotalDeferredTasks() {
+        return this.totalDeferredTasks;
+    }
+
+    /**
+     * Gets the amount of ticks in which at least one task was deferred.
+     *
+     * @return The amount of deferring ticks
+     */
+    public long getDeferringTicks() {
+        return this.deferringTicks;
+    }
+
 }
@@ -28,14 +28,12 @@
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import com.google.common.collect.Sets;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.User;
 import org.spongepowered.api.profile.GameProfile;
 import org.spongepowered.api.service.user.UserStorageService;
 
 import java.util.Collection;
-import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
@@ -100,15 +98,38 @@ public boolean delete(User user) {
 
     @Override
     public Collection<GameProfile> match(String lastKnownName) {
-        lastKnownName = checkNotNull(lastKnownName, "lastKnownName").toLowerCase(Locale.ROOT);
-        Collection<GameProfile> allProfiles = UserDiscoverer.getAllProfiles();
-        Collection<GameProfile> matching = Sets.newHashSet();
-        for (GameProfile profile : allProfiles) {
-            if (profile.getName().isPresent() && profile.getName().get().startsWith(lastKnownName)) {
-                matching.add(profile);
-            }
-        }
-        return matching;
+        return UserDiscoverer.matchProfiles(checkNotNull(lastKnownName, "lastKnownName"));
+    }
+
+    /**
+     * Gets a page of the profiles of all users with a known name, sorted by
+     * name. Unlike {@link #getAll()} this doesn't include users which only
+     * exist in memory.
+     *
+     * @param offset The amount of profiles to skip
+     * @param limit The maximum amount of profiles to return
+     * @return The profiles
+     */
+    public Collection<GameProfile> getAll(int offset, int limit) {
+        checkArgument(offset >= 0, "Offset must be at least 0");
+        checkArgument(limit >= 0, "Limit must be at least 0");
+        return UserDiscoverer.getAllProfiles(offset, limit);
+    }
+
+    /**
+     * Gets a page of the profiles of the users whose last known name starts
+     * with the given name, sorted by name.
+     *
+     * @param lastKnownName The case insensitive name prefix
+     * @param offset The amount of profiles to skip
+     * @param limit The maximum amount of profiles to return
+     * @return The profiles
+     */
+    public Collection<GameProfile> match(String lastKnownName, int offset, int limit) {
+        checkNotNull(lastKnownName, "lastKnownName");
+        checkArgument(offset >= 0, "Offset must be at least 0");
+        checkArgument(limit >= 0, "Limit must be at least 0");
+        return UserDiscoverer.matchProfiles(lastKnownName, offset, limit);
     }
 
 }
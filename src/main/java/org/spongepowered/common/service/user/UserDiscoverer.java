@@ -31,7 +31,6 @@
 import com.mojang.authlib.GameProfile;
 import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.server.management.PlayerList;
-import net.minecraft.server.management.PlayerProfileCache;
 import net.minecraft.server.management.UserListBans;
 import net.minecraft.server.management.UserListEntryBan;
 import net.minecraft.server.management.UserListWhitelist;
@@ -40,6 +39,7 @@
 import net.minecraft.world.storage.SaveHandler;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.entity.living.player.User;
+import org.spongepowered.api.profile.GameProfileCache;
 import org.spongepowered.common.SpongeImpl;
 import org.spongepowered.common.entity.player.SpongeUser;
 import org.spongepowered.common.interfaces.entity.player.IMixinEntityPlayerMP;
@@ -49,7 +49,6 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
@@ -105,13 +104,15 @@ static User findByProfile(org.spongepowered.api.profile.GameProfile profile) {
     }
 
     static User findByUsername(String username) {
-        PlayerProfileCache cache = SpongeImpl.getServer().getPlayerProfileCache();
-        HashSet<String> names = Sets.newHashSet(cache.getUsernames());
-        if (names.contains(username.toLowerCase(Locale.ROOT))) {
-            GameProfile profile = cache.getGameProfileForUsername(username);
-            if (profile != null) {
-                return findByProfile((org.spongepowered.api.profile.GameProfile) profile);
-            }
+        // The profile cache knows the most recent names, but it isn't
+        // allowed to do a lookup here
+        GameProfileCache cache = (GameProfileCache) SpongeImpl.getServer().getPlayerProfileCache();
+        Optional<org.spongepowered.api.profile.GameProfile> profile = cache.getByName(username);
+        if (!profile.isPresent()) {
+            profile = UserIndex.getInstance().getByName(username);
+        }
+        if (profile.isPresent()) {
+            return findByProfile(profile.get());
         }
         return null;
     }
@@ -123,45 +124,38 @@ static Collection<org.spongepowered.api.profile.GameProfile> getAllProfiles() {
         // Add all cached profiles
         profiles.addAll(userCache.asMap().values().stream().map(User::getProfile).collect(Collectors.toList()));
 
-        // Add all known profiles from the data files
-        SaveHandler saveHandler = (SaveHandler) WorldManager.getWorldByDimensionId(0).get().getSaveHandler();
-        String[] uuids = saveHandler.getAvailablePlayerDat();
-        for (String playerUuid : uuids) {
+        // Add all users with data files and all whitelisted and banned users
+        profiles.addAll(UserIndex.getInstance().getAll());
 
-            // If the filename contains a period, we can fail fast. Vanilla code fixes the Strings that have ".dat" to strip that out
-            // before passing that back in getAvailablePlayerDat. It doesn't remove non ".dat" filenames from the list.
-            if (playerUuid.contains(".")) {
-                continue;
-            }
+        return profiles;
+    }
 
-            // At this point, we have a filename who has no extension. This doesn't mean it is actually a UUID. We trap the exception and ignore
-            // any filenames that fail the UUID check.
-            UUID uuid;
-            try {
-                uuid = UUID.fromString(playerUuid);
-            } catch (Exception ex) {
-                continue;
-            }
+    static Collection<org.spongepowered.api.profile.GameProfile> getAllProfiles(int offset, int limit) {
+        Preconditions.checkState(Sponge.isServerAvailable(), "Server is not available!");
+        return UserIndex.getInstance().getAll(offset, limit);
+    }
 
-            final GameProfile profile = SpongeImpl.getServer().getPlayerProfileCache().getProfileByUUID(uuid);
-            if (profile != null) {
-                profiles.add((org.spongepowered.api.profile.GameProfile) profile);
+    static Collection<org.spongepowered.api.profile.GameProfile> matchProfiles(String lastKnownName) {
+        Preconditions.checkState(Sponge.isServerAvailable(), "Server is not available!");
+        String search = lastKnownName.toLowerCase(Locale.ROOT);
+        Set<org.spongepowered.api.profile.GameProfile> profiles = Sets.newHashSet();
+
+        for (User user : userCache.asMap().values()) {
+            org.spongepowered.api.profile.GameProfile profile = user.getProfile();
+            if (profile.getName().isPresent() && profile.getName().get().toLowerCase(Locale.ROOT).startsWith(search)) {
+                profiles.add(profile);
             }
         }
-
-        // Add all whitelisted users
-        final UserListWhitelist whiteList = SpongeImpl.getServer().getPlayerList().getWhitelistedPlayers();
-        profiles.addAll(whiteList.getValues().values().stream().map(entry -> (org.spongepowered.api.profile.GameProfile) entry.value)
-                .collect(Collectors.toList()));
-
-        // Add all banned users
-        final UserListBans banList = SpongeImpl.getServer().getPlayerList().getBannedPlayers();
-        profiles.addAll(banList.getValues().values().stream().filter(entry -> entry != null).map(entry -> (org.spongepowered.api.profile.GameProfile)
-                entry.value).collect(Collectors.toList()));
+        profiles.addAll(UserIndex.getInstance().match(search, 0, Integer.MAX_VALUE));
 
         return profiles;
     }
 
+    static Collection<org.spongepowered.api.profile.GameProfile> matchProfiles(String lastKnownName, int offset, int limit) {
+        Preconditions.checkState(Sponge.isServerAvailable(), "Server is not available!");
+        return UserIndex.getInstance().match(lastKnownName, offset, limit);
+    }
+
     static boolean delete(UUID uniqueId) {
         if (getOnlinePlayer(uniqueId) != null) {
             // Don't delete online player's data
@@ -256,7 +250,11 @@ private static boolean deleteStoredPlayerData(UUID uniqueId) {
         File dataFile = getPlayerDataFile(uniqueId);
         if (dataFile != null) {
             try {
-                return dataFile.delete();
+                boolean deleted = dataFile.delete();
+                if (deleted) {
+                    UserIndex.getInstance().onPlayerDataDeleted(uniqueId);
+                }
+                return deleted;
             } catch (SecurityException e) {
                 SpongeImpl.getLogger().warn("Unable to delete file {} due to a security error", dataFile, e);
                 return false;
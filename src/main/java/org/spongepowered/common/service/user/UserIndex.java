@@ -0,0 +1,402 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.service.user;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.mojang.authlib.GameProfile;
+import net.minecraft.server.management.UserListBansEntry;
+import net.minecraft.server.management.UserListWhitelistEntry;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.storage.SaveHandler;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.util.SpongeUsernameCache;
+import org.spongepowered.common.world.WorldManager;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * A persistent index of all users known to the server, which are the users
+ * that have player data in the overworld, are whitelisted or are banned.
+ *
+ * <p>The index is loaded lazily on first use, at which point it's reconciled
+ * with the player data directory and the user lists. After that it's kept up
+ * to date by the profile cache, the user lists and player data saves, so
+ * lookups don't need to touch the file system.</p>
+ */
+public final class UserIndex {
+
+    private static final int VERSION = 1;
+
+    private static final int SOURCE_DATA = 1;
+    private static final int SOURCE_WHITELIST = 1 << 1;
+    private static final int SOURCE_BANLIST = 1 << 2;
+
+    // Separates the name from the unique id in the name keys, this can't be
+    // part of a valid user name
+    private static final char NAME_SEPARATOR = ':';
+
+    private static final UserIndex INSTANCE = new UserIndex();
+
+    public static UserIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private static final class Entry {
+
+        @Nullable String name;
+        int sources;
+
+        Entry(@Nullable String name, int sources) {
+            this.name = name;
+            this.sources = sources;
+        }
+
+    }
+
+    private final Map<UUID, Entry> entries = Maps.newHashMap();
+    // Lower case name, separator and unique id to the unique id, sorted for
+    // prefix searches
+    private final NavigableMap<String, UUID> names = new TreeMap<>();
+    @Nullable private Path playersDir;
+    @Nullable private Path indexFile;
+    private boolean dirty;
+
+    private UserIndex() {
+    }
+
+    /**
+     * Gets the profiles of all indexed users with a known name.
+     *
+     * @return The profiles
+     */
+    public synchronized List<org.spongepowered.api.profile.GameProfile> getAll() {
+        return getAll(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets a page of the profiles of all indexed users with a known name,
+     * sorted by name.
+     *
+     * @param offset The amount of profiles to skip
+     * @param limit The maximum amount of profiles to return
+     * @return The profiles
+     */
+    public synchronized List<org.spongepowered.api.profile.GameProfile> getAll(int offset, int limit) {
+        ensureLoaded();
+        return page(this.names, offset, limit);
+    }
+
+    /**
+     * Gets a page of the profiles of the indexed users whose last known name
+     * starts with the prefix, sorted by name.
+     *
+     * @param prefix The case insensitive name prefix
+     * @param offset The amount of profiles to skip
+     * @param limit The maximum amount of profiles to return
+     * @return The profiles
+     */
+    public synchronized List<org.spongepowered.api.profile.GameProfile> match(String prefix, int offset, int limit) {
+        ensureLoaded();
+        String key = prefix.toLowerCase(Locale.ROOT);
+        return page(this.names.subMap(key, true, key + Character.MAX_VALUE, false), offset, limit);
+    }
+
+    /**
+     * Gets the profile of the indexed user whose last known name matches the
+     * name.
+     *
+     * @param name The case insensitive name
+     * @return The profile, if found
+     */
+    public synchronized Optional<org.spongepowered.api.profile.GameProfile> getByName(String name) {
+        ensureLoaded();
+        String key = name.toLowerCase(Locale.ROOT) + NAME_SEPARATOR;
+        Map.Entry<String, UUID> entry = this.names.ceilingEntry(key);
+        if (entry == null || !entry.getKey().startsWith(key)) {
+            return Optional.empty();
+        }
+        return Optional.of(toProfile(entry.getValue(), this.entries.get(entry.getValue()).name));
+    }
+
+    public synchronized void onPlayerDataSaved(UUID uniqueId, @Nullable String name) {
+        addSource(uniqueId, name, SOURCE_DATA);
+    }
+
+    public synchronized void onPlayerDataDeleted(UUID uniqueId) {
+        removeSource(uniqueId, SOURCE_DATA);
+    }
+
+    public synchronized void onWhitelistAdded(GameProfile profile) {
+        addSource(profile.getId(), profile.getName(), SOURCE_WHITELIST);
+    }
+
+    public synchronized void onWhitelistRemoved(UUID uniqueId) {
+        removeSource(uniqueId, SOURCE_WHITELIST);
+    }
+
+    public synchronized void onBanAdded(GameProfile profile) {
+        addSource(profile.getId(), profile.getName(), SOURCE_BANLIST);
+    }
+
+    public synchronized void onBanRemoved(UUID uniqueId) {
+        removeSource(uniqueId, SOURCE_BANLIST);
+    }
+
+    /**
+     * Updates the last known name of a user, if the user is indexed.
+     *
+     * @param uniqueId The unique id of the user
+     * @param name The new name
+     */
+    public synchronized void onNameChanged(UUID uniqueId, @Nullable String name) {
+        if (this.indexFile == null || name == null || name.isEmpty()) {
+            return;
+        }
+        Entry entry = this.entries.get(uniqueId);
+        if (entry != null && !name.equals(entry.name)) {
+            setName(uniqueId, entry, name);
+        }
+    }
+
+    /**
+     * Writes the index to disk if it has changed since it was last written.
+     */
+    public synchronized void save() {
+        if (this.indexFile == null || !this.dirty) {
+            return;
+        }
+        Path tmpFile = this.indexFile.resolveSibling(this.indexFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(this.indexFile.getParent());
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(tmpFile))) {
+                out.writeInt(VERSION);
+                out.writeInt(this.entries.size());
+                for (Map.Entry<UUID, Entry> entry : this.entries.entrySet()) {
+                    out.writeLong(entry.getKey().getMostSignificantBits());
+                    out.writeLong(entry.getKey().getLeastSignificantBits());
+                    out.writeUTF(entry.getValue().name == null ? "" : entry.getValue().name);
+                    out.writeByte(entry.getValue().sources);
+                }
+            }
+            Files.move(tmpFile, this.indexFile, StandardCopyOption.REPLACE_EXISTING);
+            this.dirty = false;
+        } catch (IOException e) {
+            SpongeImpl.getLogger().warn("Failed to save the user index to {}", this.indexFile, e);
+        }
+    }
+
+    private void addSource(UUID uniqueId, @Nullable String name, int source) {
+        if (this.indexFile == null) {
+            // Picked up when the index is loaded
+            return;
+        }
+        Entry entry = this.entries.get(uniqueId);
+        if (entry == null) {
+            entry = new Entry(null, 0);
+            this.entries.put(uniqueId, entry);
+        }
+        if ((entry.sources & source) == 0) {
+            entry.sources |= source;
+            this.dirty = true;
+        }
+        if (name != null && !name.isEmpty() && !name.equals(entry.name)) {
+            setName(uniqueId, entry, name);
+        }
+    }
+
+    private void removeSource(UUID uniqueId, int source) {
+        if (this.indexFile == null) {
+            return;
+        }
+        Entry entry = this.entries.get(uniqueId);
+        if (entry == null || (entry.sources & source) == 0) {
+            return;
+        }
+        entry.sources &= ~source;
+        if (entry.sources == 0) {
+            this.entries.remove(uniqueId);
+            if (entry.name != null) {
+                this.names.remove(nameKey(entry.name, uniqueId));
+            }
+        }
+        this.dirty = true;
+    }
+
+    private void setName(UUID uniqueId, Entry entry, String name) {
+        if (entry.name != null) {
+            this.names.remove(nameKey(entry.name, uniqueId));
+        }
+        entry.name = name;
+        this.names.put(nameKey(name, uniqueId), uniqueId);
+        this.dirty = true;
+    }
+
+    private void ensureLoaded() {
+        Optional<WorldServer> overworld = WorldManager.getWorldByDimensionId(0);
+        if (!overworld.isPresent()) {
+            return;
+        }
+        Path playersDir = ((SaveHandler) overworld.get().getSaveHandler()).playersDirectory.toPath();
+        if (playersDir.equals(this.playersDir)) {
+            return;
+        }
+        // First use, or a different save was loaded
+        save();
+        this.entries.clear();
+        this.names.clear();
+        this.playersDir = playersDir;
+        this.indexFile = WorldManager.getCurrentSavesDirectory().get().resolve("data").resolve("sponge").resolve("users.idx");
+        read();
+        reconcile();
+    }
+
+    private void read() {
+        if (!Files.isRegularFile(this.indexFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(this.indexFile))) {
+            if (in.readInt() != VERSION) {
+                return;
+            }
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                UUID uniqueId = new UUID(in.readLong(), in.readLong());
+                String name = in.readUTF();
+                Entry entry = new Entry(null, in.readByte());
+                this.entries.put(uniqueId, entry);
+                if (!name.isEmpty()) {
+                    setName(uniqueId, entry, name);
+                }
+            }
+        } catch (IOException e) {
+            SpongeImpl.getLogger().warn("Failed to read the user index from {}, rebuilding it", this.indexFile, e);
+            this.entries.clear();
+            this.names.clear();
+        }
+        this.dirty = false;
+    }
+
+    /**
+     * Brings the stored index up to date with changes made while the server
+     * wasn't running. This lists the player data directory once, and only
+     * resolves names of users which weren't indexed yet.
+     */
+    private void reconcile() {
+        Set<UUID> dataIds = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.playersDir, "*.dat")) {
+            for (Path file : stream) {
+                String fileName = file.getFileName().toString();
+                try {
+                    dataIds.add(UUID.fromString(fileName.substring(0, fileName.length() - 4)));
+                } catch (IllegalArgumentException e) {
+                    // Not a player data file
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            SpongeImpl.getLogger().warn("Failed to list the player data in {}", this.playersDir, e);
+            return;
+        }
+
+        Set<UUID> whitelisted = new HashSet<>();
+        for (UserListWhitelistEntry entry : SpongeImpl.getServer().getPlayerList().getWhitelistedPlayers().getValues().values()) {
+            addSource(entry.value.getId(), entry.value.getName(), SOURCE_WHITELIST);
+            whitelisted.add(entry.value.getId());
+        }
+        Set<UUID> banned = new HashSet<>();
+        for (UserListBansEntry entry : SpongeImpl.getServer().getPlayerList().getBannedPlayers().getValues().values()) {
+            if (entry != null) {
+                addSource(entry.value.getId(), entry.value.getName(), SOURCE_BANLIST);
+                banned.add(entry.value.getId());
+            }
+        }
+
+        for (UUID uniqueId : Lists.newArrayList(this.entries.keySet())) {
+            if (!dataIds.contains(uniqueId)) {
+                removeSource(uniqueId, SOURCE_DATA);
+            }
+            if (!whitelisted.contains(uniqueId)) {
+                removeSource(uniqueId, SOURCE_WHITELIST);
+            }
+            if (!banned.contains(uniqueId)) {
+                removeSource(uniqueId, SOURCE_BANLIST);
+            }
+        }
+        for (UUID uniqueId : dataIds) {
+            Entry entry = this.entries.get(uniqueId);
+            if (entry == null || (entry.sources & SOURCE_DATA) == 0) {
+                addSource(uniqueId, SpongeUsernameCache.getLastKnownUsername(uniqueId), SOURCE_DATA);
+            } else if (entry.name == null) {
+                onNameChanged(uniqueId, SpongeUsernameCache.getLastKnownUsername(uniqueId));
+            }
+        }
+    }
+
+    private List<org.spongepowered.api.profile.GameProfile> page(Map<String, UUID> names, int offset, int limit) {
+        if (offset >= names.size() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<org.spongepowered.api.profile.GameProfile> profiles = Lists.newArrayListWithCapacity(Math.min(limit, names.size() - offset));
+        int index = 0;
+        for (UUID uniqueId : names.values()) {
+            if (index++ < offset) {
+                continue;
+            }
+            profiles.add(toProfile(uniqueId, this.entries.get(uniqueId).name));
+            if (profiles.size() >= limit) {
+                break;
+            }
+        }
+        return profiles;
+    }
+
+    private static org.spongepowered.api.profile.GameProfile toProfile(UUID uniqueId, @Nullable String name) {
+        return (org.spongepowered.api.profile.GameProfile) new GameProfile(uniqueId, name);
+    }
+
+    private static String nameKey(String name, UUID uniqueId) {
+        return name.toLowerCase(Locale.ROOT) + NAME_SEPARATOR + uniqueId;
+    }
+
+}
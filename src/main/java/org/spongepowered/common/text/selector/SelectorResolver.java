@@ -28,6 +28,7 @@
 import static org.spongepowered.common.util.OptionalUtils.asSet;
 
 import com.flowpowered.math.vector.Vector3d;
+import com.flowpowered.math.vector.Vector3i;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -43,7 +44,6 @@
 import org.spongepowered.api.entity.living.player.gamemode.GameModes;
 import org.spongepowered.api.scoreboard.Team;
 import org.spongepowered.api.scoreboard.TeamMember;
-import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.selector.Argument;
 import org.spongepowered.api.text.selector.Argument.Invertible;
 import org.spongepowered.api.text.selector.ArgumentHolder;
@@ -52,6 +52,7 @@
 import org.spongepowered.api.text.selector.Selector;
 import org.spongepowered.api.text.selector.SelectorType;
 import org.spongepowered.api.text.selector.SelectorTypes;
+import org.spongepowered.api.util.AABB;
 import org.spongepowered.api.util.Functional;
 import org.spongepowered.api.command.CommandSource;
 import org.spongepowered.api.world.Locatable;
@@ -59,6 +60,7 @@
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.extent.Extent;
 import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.util.VecHelper;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -66,6 +68,8 @@
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -81,6 +85,10 @@ public class SelectorResolver {
     private static final Set<ArgumentType<?>> LOCATION_BASED_ARGUMENTS;
     private static final Function<Number, Double> TO_DOUBLE = Number::doubleValue;
     private static final Collection<SelectorType> INFINITE_TYPES = ImmutableSet.of(SelectorTypes.ALL_ENTITIES, SelectorTypes.ALL_PLAYERS);
+    // Used for the vertical bounds of the search box when the selector doesn't limit them
+    private static final double UNBOUNDED_Y = 1.0E7;
+    // Searching more chunks than this is slower than filtering every entity of the extent
+    private static final int MAX_SEARCHED_CHUNKS = 1024;
 
     static {
         ImmutableSet.Builder<ArgumentType<?>> builder = ImmutableSet.builder();
@@ -110,11 +118,15 @@ private static <I, R> Predicate<I> requireTypePredicate(Class<I> inputType, fina
         return requiredType::isInstance;
     }
 
+    private static final LongAdder filterCacheHits = new LongAdder();
+    private static final LongAdder filterCacheMisses = new LongAdder();
+
     private final Collection<Extent> extents;
     private final Vector3d position;
     private final Optional<CommandSource> original;
     private final Selector selector;
     private final Predicate<Entity> selectorFilter;
+    private final Optional<AABB> searchBox;
     private final boolean alwaysUsePosition;
 
     public SelectorResolver(Collection<? extends Extent> extents, Selector selector, boolean force) {
@@ -136,23 +148,40 @@ private SelectorResolver(Collection<? extends Extent> extents, Vector3d position
         this.original = Optional.ofNullable(original);
         this.selector = checkNotNull(selector);
         this.selectorFilter = makeFilter();
+        this.searchBox = makeSearchBox();
         this.alwaysUsePosition = force;
     }
 
     private Predicate<Entity> makeFilter() {
-        // for easier reading
-        final Selector sel = this.selector;
+        CompiledFilter compiled = getCompiledFilter(this.selector);
         Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
         List<Predicate<Entity>> filters = Lists.newArrayList();
-        addTypeFilters(filters);
+        // Cheap filters first, the data based ones have to build manipulators
+        filters.add(compiled.typeFilter);
         addDimensionFilters(position, filters);
         addRadiusFilters(position, filters);
-        addLevelFilters(filters);
-        addGamemodeFilters(filters);
-        addNameFilters(filters);
-        addRotationFilters(filters);
-        addTeamFilters(filters);
-        addScoreFilters(filters);
+        filters.add(compiled.entityFilter);
+        return Functional.predicateAnd(filters);
+    }
+
+    private static CompiledFilter getCompiledFilter(Selector selector) {
+        if (selector instanceof SpongeSelector) {
+            return ((SpongeSelector) selector).getCompiledFilter();
+        }
+        filterCacheMisses.increment();
+        return compileFilter(selector);
+    }
+
+    /**
+     * Compiles the filters of the given selector which don't depend on the
+     * position it is resolved at, so they can be reused.
+     *
+     * @param sel The selector
+     * @return The compiled filter
+     */
+    static CompiledFilter compileFilter(Selector sel) {
+        List<Predicate<Entity>> typeFilters = Lists.newArrayList();
+        addTypeFilters(sel, typeFilters);
         SelectorType selectorType = sel.getType();
         Optional<Invertible<EntityType>> type = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
         // isn't an ALL_ENTITIES selector or it is a RANDOM selector for only players
@@ -162,9 +191,68 @@ private Predicate<Entity> makeFilter() {
                 && type.get().getValue() != EntityTypes.PLAYER);
         if (isPlayerOnlySelector) {
             // insert at the start so it applies first
-            filters.add(0, requireTypePredicate(Entity.class, Player.class));
+            typeFilters.add(0, requireTypePredicate(Entity.class, Player.class));
         }
-        return Functional.predicateAnd(filters);
+        List<Predicate<Entity>> entityFilters = Lists.newArrayList();
+        addRotationFilters(sel, entityFilters);
+        addLevelFilters(sel, entityFilters);
+        addGamemodeFilters(sel, entityFilters);
+        addNameFilters(sel, entityFilters);
+        addTeamFilters(sel, entityFilters);
+        addScoreFilters(sel, entityFilters);
+        return new CompiledFilter(Functional.predicateAnd(typeFilters), Functional.predicateAnd(entityFilters));
+    }
+
+    static void recordFilterCacheHit() {
+        filterCacheHits.increment();
+    }
+
+    static void recordFilterCacheMiss() {
+        filterCacheMisses.increment();
+    }
+
+    public static long getFilterCacheHits() {
+        return filterCacheHits.sum();
+    }
+
+    public static long getFilterCacheMisses() {
+        return filterCacheMisses.sum();
+    }
+
+    /**
+     * Creates the box which contains every entity the location arguments of
+     * the selector can match, so only the chunks within it have to be
+     * searched. The box is empty when the selector isn't bounded
+     * horizontally.
+     */
+    private Optional<AABB> makeSearchBox() {
+        final Selector sel = this.selector;
+        final Vector3d position = getPositionOrDefault(this.position, ArgumentTypes.POSITION);
+        Vector3d min = new Vector3d(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        Vector3d max = new Vector3d(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        Optional<Integer> radiusMax = sel.get(ArgumentTypes.RADIUS.maximum());
+        if (radiusMax.isPresent()) {
+            double radius = radiusMax.get();
+            min = position.sub(radius, radius, radius);
+            max = position.add(radius, radius, radius);
+        }
+        Vector3d boxDimensions = getPositionOrDefault(ORIGIN, ArgumentTypes.DIMENSION);
+        Vector3d boxMin = position.min(position.add(boxDimensions));
+        Vector3d boxMax = position.max(position.add(boxDimensions));
+        min = new Vector3d(sel.has(ArgumentTypes.DIMENSION.x()) ? Math.max(min.getX(), boxMin.getX()) : min.getX(),
+                sel.has(ArgumentTypes.DIMENSION.y()) ? Math.max(min.getY(), boxMin.getY()) : min.getY(),
+                sel.has(ArgumentTypes.DIMENSION.z()) ? Math.max(min.getZ(), boxMin.getZ()) : min.getZ());
+        max = new Vector3d(sel.has(ArgumentTypes.DIMENSION.x()) ? Math.min(max.getX(), boxMax.getX()) : max.getX(),
+                sel.has(ArgumentTypes.DIMENSION.y()) ? Math.min(max.getY(), boxMax.getY()) : max.getY(),
+                sel.has(ArgumentTypes.DIMENSION.z()) ? Math.min(max.getZ(), boxMax.getZ()) : max.getZ());
+        if (Double.isInfinite(min.getX()) || Double.isInfinite(min.getZ()) || Double.isInfinite(max.getX()) || Double.isInfinite(max.getZ())) {
+            return Optional.empty();
+        }
+        min = new Vector3d(min.getX(), Math.max(min.getY(), -UNBOUNDED_Y), min.getZ());
+        // Disjoint arguments match nothing, the filters take care of that
+        max = new Vector3d(max.getX(), Math.min(max.getY(), UNBOUNDED_Y), max.getZ()).max(min);
+        // The search intersects bounding boxes, grow it so that it is never degenerate
+        return Optional.of(new AABB(min.sub(Vector3d.ONE), max.add(Vector3d.ONE)));
     }
 
     private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>> filters) {
@@ -194,8 +282,7 @@ private void addDimensionFilters(final Vector3d position, List<Predicate<Entity>
         }
     }
 
-    private void addGamemodeFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addGamemodeFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<GameMode> gamemode = sel.get(ArgumentTypes.GAME_MODE);
         // If the gamemode is NOT_SET, that means accept any
         if (gamemode.isPresent() && gamemode.get() != GameModes.NOT_SET) {
@@ -207,8 +294,7 @@ private void addGamemodeFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addLevelFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addLevelFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<Integer> levelMin = sel.get(ArgumentTypes.LEVEL.minimum());
         Optional<Integer> levelMax = sel.get(ArgumentTypes.LEVEL.maximum());
         if (levelMin.isPresent()) {
@@ -227,8 +313,7 @@ private void addLevelFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addNameFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addNameFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<Argument.Invertible<String>> nameOpt = sel.getArgument(ArgumentTypes.NAME);
         if (nameOpt.isPresent()) {
             final String name = nameOpt.get().getValue();
@@ -256,8 +341,7 @@ private void addRadiusFilters(final Vector3d position, List<Predicate<Entity>> f
         }
     }
 
-    private void addRotationFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addRotationFilters(Selector sel, List<Predicate<Entity>> filters) {
         // If the Z's are uncommented, don't forget to implement them
         // Optional<Double> rotMinZ = sel.get(ArgumentTypes.ROTATION.minimum().z());
         // Optional<Double> rotMaxZ = sel.get(ArgumentTypes.ROTATION.maximum().z());
@@ -283,42 +367,30 @@ private void addRotationFilters(List<Predicate<Entity>> filters) {
         }
     }
 
-    private void addScoreFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addScoreFilters(Selector sel, List<Predicate<Entity>> filters) {
         sel.getArguments();
     }
 
-    private void addTeamFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addTeamFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<Invertible<String>> teamOpt = sel.getArgument(ArgumentTypes.TEAM);
         if (teamOpt.isPresent()) {
             Invertible<String> teamArg = teamOpt.get();
             final boolean inverted = teamArg.isInverted();
-            final Collection<Team> teams = Sponge.getGame().getServer().getServerScoreboard().get().getTeams();
-            filters.add(new Predicate<Entity>() {
-
-                @Override
-                public boolean test(Entity input) {
-                    if (input instanceof TeamMember) {
-                        return inverted ^ collectMembers(teams).contains(((TeamMember) input).getTeamRepresentation());
-                    }
-                    return false;
-                }
-
-                private Collection<Text> collectMembers(Collection<Team> teams) {
-                    ImmutableSet.Builder<Text> users = ImmutableSet.builder();
-                    for (Team t : teams) {
-                        users.addAll(t.getMembers());
-                    }
-                    return users.build();
+            final String name = teamArg.getValue();
+            // The team is looked up when testing, compiled filters outlive changes to the scoreboard
+            filters.add(input -> {
+                if (input instanceof TeamMember) {
+                    Optional<Team> team = Sponge.getGame().getServer().getServerScoreboard().get()
+                            .getMemberTeam(((TeamMember) input).getTeamRepresentation());
+                    // Like Vanilla, an empty name matches entities without a team
+                    return inverted ^ (name.isEmpty() ? !team.isPresent() : team.isPresent() && team.get().getName().equals(name));
                 }
-
+                return false;
             });
         }
     }
 
-    private void addTypeFilters(List<Predicate<Entity>> filters) {
-        Selector sel = this.selector;
+    private static void addTypeFilters(Selector sel, List<Predicate<Entity>> filters) {
         Optional<Argument.Invertible<EntityType>> typeOpt = sel.getArgument(ArgumentTypes.ENTITY_TYPE);
         if (typeOpt.isPresent()) {
             Argument.Invertible<EntityType> typeArg = typeOpt.get();
@@ -335,6 +407,64 @@ private Vector3d getPositionOrDefault(Vector3d pos, ArgumentHolder.Vector3<?, ?
         return new Vector3d(x.orElse(Double.valueOf(pos.getX())), y.orElse(Double.valueOf(pos.getY())), z.orElse(Double.valueOf(pos.getZ())));
     }
 
+    /**
+     * The entities selected so far, out of every match.
+     */
+    private static final class Selection {
+
+        // The amount of entities to select, all if 0
+        private final int maxToSelect;
+        private final boolean random;
+        private final List<Entity> selected = new ArrayList<>();
+        private int matched;
+
+        Selection(int maxToSelect, boolean random) {
+            this.maxToSelect = maxToSelect;
+            this.random = random;
+        }
+
+        void add(Entity entity) {
+            this.matched++;
+            if (this.maxToSelect == 0 || this.selected.size() < this.maxToSelect) {
+                this.selected.add(entity);
+            } else {
+                // Reservoir sampling, every match ends up selected with the same chance
+                int index = ThreadLocalRandom.current().nextInt(this.matched);
+                if (index < this.maxToSelect) {
+                    this.selected.set(index, entity);
+                }
+            }
+        }
+
+        /**
+         * Gets whether no further entity would be selected, random
+         * selections have to see every match.
+         */
+        boolean isDone() {
+            return !this.random && this.maxToSelect != 0 && this.selected.size() >= this.maxToSelect;
+        }
+
+        Set<Entity> build() {
+            if (this.random) {
+                Collections.shuffle(this.selected);
+            }
+            return ImmutableSet.copyOf(this.selected);
+        }
+
+    }
+
+    static final class CompiledFilter {
+
+        final Predicate<Entity> typeFilter;
+        final Predicate<Entity> entityFilter;
+
+        CompiledFilter(Predicate<Entity> typeFilter, Predicate<Entity> entityFilter) {
+            this.typeFilter = typeFilter;
+            this.entityFilter = entityFilter;
+        }
+
+    }
+
     public String getName() {
         return this.original.map(GET_NAME).orElse("SelectorResolver");
     }
@@ -345,30 +475,87 @@ public Set<Entity> resolve() {
         if (INFINITE_TYPES.contains(selectorType)) {
             defaultCount = 0;
         }
-        int maxToSelect = this.selector.get(ArgumentTypes.COUNT).orElse(defaultCount);
+        // Vanilla selects from the other end for negative counts, the amount is the same
+        int maxToSelect = Math.abs(this.selector.get(ArgumentTypes.COUNT).orElse(defaultCount));
+        boolean random = selectorType == SelectorTypes.RANDOM;
         Set<? extends Extent> extents = getExtentSet();
-        int count = 0;
-        ImmutableSet.Builder<Entity> entities = ImmutableSet.builder();
+        Selection selection = new Selection(maxToSelect, random);
         for (Extent extent : extents) {
-            Collection<Entity> allEntities = extent.getEntities();
-            if (selectorType == SelectorTypes.RANDOM) {
-                List<Entity> entityList = new ArrayList<>(allEntities);
-                Collections.shuffle(entityList);
-                allEntities = entityList;
+            Optional<AABB> box = getSearchBox(extent);
+            if (box.isPresent()) {
+                // Only the chunks within the search box are searched. The
+                // entities are selected within the filter, which stops
+                // testing them once enough are selected.
+                final Predicate<Entity> boundsFilter = getBoundsFilter(extent);
+                extent.getIntersectingEntities(box.get(), e -> {
+                    if (!selection.isDone() && boundsFilter.test(e) && this.selectorFilter.test(e)) {
+                        selection.add(e);
+                    }
+                    return false;
+                });
+            } else {
+                for (Entity e : extent.getEntities()) {
+                    if (this.selectorFilter.test(e)) {
+                        selection.add(e);
+                        if (selection.isDone()) {
+                            break;
+                        }
+                    }
+                }
             }
+            if (selection.isDone()) {
+                break;
+            }
+        }
+        return selection.build();
+    }
 
-            for (Entity e : allEntities) {
-                if (!this.selectorFilter.test(e)) {
-                    continue;
-                }
-                entities.add(e);
-                count++;
-                if (maxToSelect != 0 && count > maxToSelect) {
-                    break;
-                }
+    /**
+     * Gets the part of the search box within the given extent, or nothing
+     * if the entities of the whole extent should be filtered instead.
+     *
+     * <p>Views check that the box is within their blocks, but select
+     * entities by their position, whose bounding boxes may stick out of the
+     * last blocks. A box which doesn't fit within a view is therefore not
+     * used, only the lower bounds are cut.</p>
+     */
+    private Optional<AABB> getSearchBox(Extent extent) {
+        if (!this.searchBox.isPresent()) {
+            return Optional.empty();
+        }
+        AABB box = this.searchBox.get();
+        if (!(extent instanceof World)) {
+            final Vector3d blockMin = extent.getBlockMin().toDouble();
+            final Vector3d blockMax = extent.getBlockMax().toDouble();
+            final Vector3d max = box.getMax();
+            if (max.getX() > blockMax.getX() || max.getY() > blockMax.getY() || max.getZ() > blockMax.getZ()) {
+                return Optional.empty();
+            }
+            final Vector3d min = box.getMin().max(blockMin);
+            if (min.getX() >= max.getX() || min.getY() >= max.getY() || min.getZ() >= max.getZ()) {
+                return Optional.empty();
             }
+            box = new AABB(min, max);
+        }
+        final long chunksX = ((long) Math.floor(box.getMax().getX()) >> 4) - ((long) Math.floor(box.getMin().getX()) >> 4) + 1;
+        final long chunksZ = ((long) Math.floor(box.getMax().getZ()) >> 4) - ((long) Math.floor(box.getMin().getZ()) >> 4) + 1;
+        if (chunksX * chunksZ > MAX_SEARCHED_CHUNKS) {
+            return Optional.empty();
+        }
+        return Optional.of(box);
+    }
+
+    /**
+     * Gets the filter of the entities within the bounds of the given extent,
+     * which views don't apply to the intersecting entities themselves.
+     */
+    private static Predicate<Entity> getBoundsFilter(Extent extent) {
+        if (extent instanceof World) {
+            return e -> true;
         }
-        return entities.build();
+        final Vector3i blockMin = extent.getBlockMin();
+        final Vector3i max = extent.getBlockMax().add(Vector3i.ONE);
+        return e -> VecHelper.inBounds(e.getLocation().getPosition(), blockMin, max);
     }
 
     private Set<? extends Extent> getExtentSet() {
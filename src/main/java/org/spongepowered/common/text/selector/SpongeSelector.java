@@ -46,6 +46,8 @@
 import java.util.Optional;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 @NonnullByDefault
 public class SpongeSelector implements Selector {
 
@@ -53,6 +55,7 @@ public class SpongeSelector implements Selector {
     protected final ImmutableMap<ArgumentType<?>, Argument<?>> arguments;
 
     private final String plain;
+    @Nullable private volatile SelectorResolver.CompiledFilter compiledFilter;
 
     public SpongeSelector(SelectorType type, ImmutableMap<ArgumentType<?>, Argument<?>> arguments) {
         this.type = checkNotNull(type, "type");
@@ -102,6 +105,18 @@ public boolean isInverted(ArgumentType.Invertible<?> type) {
         return ((Argument.Invertible<?>) this.arguments.get(type)).isInverted();
     }
 
+    SelectorResolver.CompiledFilter getCompiledFilter() {
+        SelectorResolver.CompiledFilter filter = this.compiledFilter;
+        if (filter == null) {
+            // Compiling twice on a race is harmless, the filters are equivalent
+            SelectorResolver.recordFilterCacheMiss();
+            this.compiledFilter = filter = SelectorResolver.compileFilter(this);
+        } else {
+            SelectorResolver.recordFilterCacheHit();
+        }
+        return filter;
+    }
+
     @Override
     public Set<Entity> resolve(CommandSource origin) {
         return new SelectorResolver(origin, this, false).resolve();
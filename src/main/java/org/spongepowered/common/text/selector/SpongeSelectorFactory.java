@@ -27,6 +27,9 @@
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
@@ -118,6 +121,13 @@ public static <K, V> Function<K, V> methodAsFunction(final Method m,
         }
     }
 
+    // The maximum amount of parsed selectors which are kept, command blocks tend to reuse the same ones
+    private static final int MAX_CACHED_SELECTORS = 1024;
+
+    private final Cache<String, Selector> selectorCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_SELECTORS)
+            .recordStats()
+            .build();
     private final Map<String, ArgumentHolder.Limit<ArgumentType<Integer>>> scoreToTypeMap =
             Maps.newLinkedHashMap();
     private final Map<String, ArgumentType<?>> argumentLookupMap = Maps
@@ -128,9 +138,23 @@ public Selector.Builder createBuilder() {
         return new SpongeSelectorBuilder();
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public Selector parseRawSelector(String selector) {
+        // Selectors are immutable, so the parsed ones can be shared
+        Selector parsed = this.selectorCache.getIfPresent(selector);
+        if (parsed == null) {
+            parsed = parseUncachedSelector(selector);
+            this.selectorCache.put(selector, parsed);
+        }
+        return parsed;
+    }
+
+    public CacheStats getSelectorCacheStats() {
+        return this.selectorCache.stats();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Selector parseUncachedSelector(String selector) {
         checkArgument(selector.startsWith("@"), "Invalid selector %s",
                 selector);
         // If multi-character types are possible, this handles it
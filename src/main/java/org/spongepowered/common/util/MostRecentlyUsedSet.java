@@ -0,0 +1,170 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe set which remembers the order in which its elements were
+ * last used. Adding, touching and removing an element are constant time
+ * operations, unlike removing from a {@link java.util.Deque}.
+ *
+ * <p>Iteration starts at the most recently used element. Iterators are
+ * weakly consistent: they never throw a
+ * {@link java.util.ConcurrentModificationException} and may or may not
+ * reflect changes made after their creation.</p>
+ *
+ * @param <E> The type of the elements
+ */
+public final class MostRecentlyUsedSet<E> implements Iterable<E> {
+
+    private final Map<E, Node<E>> nodes = new HashMap<>();
+    @Nullable private Node<E> head;
+    @Nullable private Node<E> tail;
+
+    /**
+     * Adds the element as the most recently used one, moving it to the
+     * front if it is already present.
+     *
+     * @param element The element
+     */
+    public synchronized void addFirst(E element) {
+        final Node<E> node = this.nodes.remove(element);
+        if (node != null) {
+            unlink(node);
+        }
+        final Node<E> first = new Node<>(element);
+        first.next = this.head;
+        if (this.head != null) {
+            this.head.prev = first;
+        } else {
+            this.tail = first;
+        }
+        this.head = first;
+        this.nodes.put(element, first);
+    }
+
+    public synchronized boolean remove(Object element) {
+        final Node<E> node = this.nodes.remove(element);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    public synchronized boolean contains(Object element) {
+        return this.nodes.containsKey(element);
+    }
+
+    public synchronized int size() {
+        return this.nodes.size();
+    }
+
+    public synchronized void clear() {
+        // Unlinked nodes keep their next pointer, so running iterators just reach the end
+        for (Node<E> node = this.head; node != null; node = node.next) {
+            node.removed = true;
+        }
+        this.nodes.clear();
+        this.head = null;
+        this.tail = null;
+    }
+
+    private void unlink(Node<E> node) {
+        // The next pointer is kept, so iterators positioned at this node can continue
+        node.removed = true;
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            this.head = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        } else {
+            this.tail = node.prev;
+        }
+        node.prev = null;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        synchronized (this) {
+            return new Itr(this.head);
+        }
+    }
+
+    private final class Itr implements Iterator<E> {
+
+        @Nullable private Node<E> next;
+
+        Itr(@Nullable Node<E> next) {
+            this.next = next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            synchronized (MostRecentlyUsedSet.this) {
+                // Skip the elements which were removed in the meantime
+                while (this.next != null && this.next.removed) {
+                    this.next = this.next.next;
+                }
+                return this.next != null;
+            }
+        }
+
+        @Override
+        public E next() {
+            synchronized (MostRecentlyUsedSet.this) {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final E element = this.next.element;
+                this.next = this.next.next;
+                return element;
+            }
+        }
+
+    }
+
+    private static final class Node<E> {
+
+        final E element;
+        @Nullable Node<E> prev;
+        @Nullable Node<E> next;
+        boolean removed;
+
+        Node(E element) {
+            this.element = element;
+        }
+
+    }
+
+}
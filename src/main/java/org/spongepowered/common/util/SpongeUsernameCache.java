@@ -26,24 +26,43 @@
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.annotation.Nullable;
 
 import org.spongepowered.common.SpongeImpl;
 import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Maps;
-import com.google.common.io.Files;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonSyntaxException;
 
 /**
@@ -59,18 +78,45 @@
  * here :
  * 
  * https://github.com/MinecraftForge/MinecraftForge/blob/1.8.9/src/main/java/net/minecraftforge/common/UsernameCache.java
+ *
+ * <p>Unlike Forge, the cache is stored in an append-only log. Changes are
+ * appended in the background shortly after they happen, and the log is
+ * compacted once it holds much more records than names. The old json file is
+ * only read once, to migrate it.</p>
  */
 public final class SpongeUsernameCache {
 
-    // Thread-safe map
-    private static Map<UUID, String> map = new ConcurrentHashMap<>();
+    private static final int LOG_MAGIC = 0x53554e43; // SUNC
+    private static final int LOG_VERSION = 1;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    // The delay after a change before it is appended to the log
+    private static final long SAVE_DELAY_SECONDS = 5;
+    // The log is compacted when it holds more than twice as many records as names
+    private static final int MIN_RECORDS_TO_COMPACT = 1024;
+
+    private static final UniqueIdNameTable table = new UniqueIdNameTable(1024);
+    private static final Interner<String> names = Interners.newWeakInterner();
+    // The unique ids whose changes have yet to be appended to the log
+    private static final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // The snapshots of changed names waiting to be appended to the log, in
+    // the order they were taken. A null name is a removal.
+    private static final Queue<Map<UUID, String>> pendingChanges = new ConcurrentLinkedQueue<>();
 
     private static final Charset charset = Charsets.UTF_8;
 
-    private static final File saveFile = new File(".", "usernamecache.json");
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private static final File saveFile = new File(".", "usernamecache.log");
+    private static final File legacySaveFile = new File(".", "usernamecache.json");
+    private static final Gson gson = new Gson();
+    private static final Object fileLock = new Object();
 
-    private static boolean loaded = false;
+    private static final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("Sponge - Username Cache").setDaemon(true).build());
+    private static final AtomicBoolean saveScheduled = new AtomicBoolean();
+    @Nullable private static volatile CompletableFuture<Void> loadFuture;
+    private static volatile boolean loaded = false;
+    // Guarded by the file lock
+    private static int logRecords;
 
     /**
      * Set a player's current username
@@ -83,15 +129,13 @@ public final class SpongeUsernameCache {
     public static void setUsername(UUID uuid, String username) {
         checkNotNull(uuid);
         checkNotNull(username);
-        if (!loaded) {
-            load();
-        }
+        awaitLoad();
 
-        if (username.equals(map.get(uuid))) {
+        if (username.equals(table.put(uuid, names.intern(username)))) {
             return;
         }
 
-        map.put(uuid, username);
+        markDirty(uuid);
     }
 
     /**
@@ -103,11 +147,10 @@ public static void setUsername(UUID uuid, String username) {
      */
     public static boolean removeUsername(UUID uuid) {
         checkNotNull(uuid);
-        if (!loaded) {
-            load();
-        }
+        awaitLoad();
 
-        if (map.remove(uuid) != null) {
+        if (table.remove(uuid) != null) {
+            markDirty(uuid);
             return true;
         }
 
@@ -127,11 +170,9 @@ public static boolean removeUsername(UUID uuid) {
     @Nullable
     public static String getLastKnownUsername(UUID uuid) {
         checkNotNull(uuid);
-        if (!loaded) {
-            load();
-        }
+        awaitLoad();
 
-        return map.get(uuid);
+        return table.get(uuid);
     }
 
     /**
@@ -143,11 +184,9 @@ public static String getLastKnownUsername(UUID uuid) {
      */
     public static boolean containsUUID(UUID uuid) {
         checkNotNull(uuid);
-        if (!loaded) {
-            load();
-        }
+        awaitLoad();
 
-        return map.containsKey(uuid);
+        return table.get(uuid) != null;
     }
 
     /**
@@ -156,53 +195,240 @@ public static boolean containsUUID(UUID uuid) {
      * @return the map
      */
     public static Map<UUID, String> getMap() {
-        if (!loaded) {
-            load();
-        }
+        awaitLoad();
 
-        return ImmutableMap.copyOf(map);
+        ImmutableMap.Builder<UUID, String> builder = ImmutableMap.builder();
+        table.forEach(builder::put);
+        return builder.build();
     }
 
     /**
-     * Save the cache to file
+     * Save the cache to file. The pending changes are appended to the log in
+     * the background.
      */
     public static void save() {
-        if (!loaded) {
-            load();
+        awaitLoad();
+
+        if (takeChanges()) {
+            executor.execute(SpongeUsernameCache::writeChanges);
         }
+    }
+
+    /**
+     * Save the cache to file, and wait until every change is written. Used
+     * when the server stops, as the cache is written by a daemon thread.
+     */
+    public static void saveAndWait() {
+        awaitLoad();
 
+        takeChanges();
         try {
-            // Make sure we don't save when another thread is still saving
-            Files.write(gson.toJson(map), saveFile, charset);
-        } catch (IOException e) {
-            SpongeImpl.getLogger().error("Failed to save username cache to file!", e);
+            executor.submit(SpongeUsernameCache::writeChanges).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            SpongeImpl.getLogger().error("Failed to save username cache to file!", e.getCause());
         }
     }
 
     /**
-     * Load the cache from file
+     * Load the cache from file. The file is read in the background, the
+     * cache waits for it when it is first used.
      */
     public static void load() {
-        loaded = true;
-        if (!saveFile.exists()) return;
+        if (loadFuture == null) {
+            synchronized (fileLock) {
+                if (loadFuture == null) {
+                    loadFuture = CompletableFuture.runAsync(SpongeUsernameCache::readLog, executor);
+                }
+            }
+        }
+    }
 
-        try {
+    private static void awaitLoad() {
+        if (!loaded) {
+            load();
+            loadFuture.join();
+        }
+    }
+
+    private static void markDirty(UUID uuid) {
+        dirty.add(uuid);
+        if (saveScheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> {
+                saveScheduled.set(false);
+                takeChanges();
+                writeChanges();
+            }, SAVE_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void readLog() {
+        synchronized (fileLock) {
+            try {
+                if (saveFile.exists()) {
+                    readRecords();
+                } else if (legacySaveFile.exists()) {
+                    readLegacyFile();
+                    compact();
+                }
+            } catch (IOException e) {
+                SpongeImpl.getLogger().error("Failed to read username cache file from disk, deleting file", e);
+                table.clear();
+                saveFile.delete();
+                logRecords = 0;
+            } finally {
+                loaded = true;
+            }
+        }
+    }
+
+    private static void readRecords() throws IOException {
+        boolean truncated = false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(saveFile)))) {
+            if (in.readInt() != LOG_MAGIC || in.readInt() != LOG_VERSION) {
+                throw new IOException("Unknown username cache format");
+            }
+            while (true) {
+                int type = in.read();
+                if (type == -1) {
+                    break;
+                }
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                if (type == RECORD_PUT) {
+                    table.put(uuid, names.intern(in.readUTF()));
+                } else if (type == RECORD_REMOVE) {
+                    table.remove(uuid);
+                } else {
+                    throw new IOException("Unknown username cache record type " + type);
+                }
+                logRecords++;
+            }
+        } catch (EOFException e) {
+            // The server stopped while a record was written, the rest of the log is fine
+            truncated = true;
+        }
+        if (truncated) {
+            SpongeImpl.getLogger().warn("The username cache file ends with an incomplete record, it will be rewritten");
+            compact();
+        }
+    }
 
-            String json = Files.toString(saveFile, charset);
+    private static void readLegacyFile() {
+        try {
+            String json = new String(Files.readAllBytes(legacySaveFile.toPath()), charset);
             Type type = new TypeToken<Map<UUID, String>>() { private static final long serialVersionUID = 1L; }.getType();
 
-            map = gson.fromJson(json, type);
-        } catch (JsonSyntaxException e) {
-            SpongeImpl.getLogger().error("Could not parse username cache file as valid json, deleting file", e);
-            saveFile.delete();
-        } catch (IOException e) {
-            SpongeImpl.getLogger().error("Failed to read username cache file from disk, deleting file", e);
-            saveFile.delete();
-        } finally {
+            Map<UUID, String> map = gson.fromJson(json, type);
+            if (map != null) {
+                map.forEach((uuid, username) -> table.put(uuid, names.intern(username)));
+            }
+        } catch (JsonSyntaxException | IOException e) {
             // Can sometimes occur when the json file is malformed
-            if (map == null) {
-                map = Maps.newHashMap();
+            SpongeImpl.getLogger().error("Could not read the legacy username cache file, ignoring it", e);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the names of the changed unique ids, so that they
+     * can be written in the background.
+     *
+     * @return Whether there were any changes
+     */
+    private static boolean takeChanges() {
+        // Snapshots are queued in the order they are taken, so a later name is never overwritten by an earlier one
+        synchronized (pendingChanges) {
+            if (dirty.isEmpty()) {
+                return false;
+            }
+            final Map<UUID, String> changes = new HashMap<>();
+            for (UUID uuid : dirty) {
+                dirty.remove(uuid);
+                // The current name is written, so several changes in a row only take one record
+                changes.put(uuid, table.get(uuid));
             }
+            pendingChanges.add(changes);
+            return true;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Appends the pending changes to the log, and compacts it if it holds
+     * too many records. Only called on the executor.
+     */
+    private static void writeChanges() {
+        synchronized (fileLock) {
+            try {
+                Map<UUID, String> changes;
+                while ((changes = pendingChanges.peek()) != null) {
+                    appendChanges(changes);
+                    pendingChanges.poll();
+                }
+                if (logRecords >= MIN_RECORDS_TO_COMPACT && logRecords > table.size() * 2) {
+                    compact();
+                }
+            } catch (IOException e) {
+                // The changes are kept, and written again with the next save
+                SpongeImpl.getLogger().error("Failed to save username cache to file!", e);
+            }
+        }
+    }
+
+    private static void appendChanges(Map<UUID, String> changes) throws IOException {
+        final boolean newFile = !saveFile.exists();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(saveFile, true)))) {
+            if (newFile) {
+                writeHeader(out);
+                logRecords = 0;
+            }
+            for (Map.Entry<UUID, String> change : changes.entrySet()) {
+                final UUID uuid = change.getKey();
+                @Nullable final String username = change.getValue();
+                if (username != null) {
+                    writePut(out, uuid, username);
+                } else {
+                    out.writeByte(RECORD_REMOVE);
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                }
+                logRecords++;
+            }
+        }
+    }
+
+    private static void compact() throws IOException {
+        File tempFile = new File(saveFile.getPath() + ".tmp");
+        int[] records = new int[1];
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            writeHeader(out);
+            IOException[] failure = new IOException[1];
+            table.forEach((uuid, username) -> {
+                if (failure[0] == null) {
+                    try {
+                        writePut(out, uuid, username);
+                        records[0]++;
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        }
+        Files.move(tempFile.toPath(), saveFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logRecords = records[0];
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(LOG_MAGIC);
+        out.writeInt(LOG_VERSION);
+    }
+
+    private static void writePut(DataOutputStream out, UUID uuid, String username) throws IOException {
+        out.writeByte(RECORD_PUT);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeUTF(username);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * An open addressing hash table from unique ids to names, which stores
+ * the unique ids as pairs of longs instead of objects. Collisions are
+ * resolved by linear probing, and removals shift the following entries
+ * back instead of leaving tombstones.
+ */
+final class UniqueIdNameTable {
+
+    private final int initialCapacity;
+    private long[] most;
+    private long[] least;
+    // A null name marks an empty slot
+    private String[] values;
+    private int size;
+
+    /**
+     * Creates a new table.
+     *
+     * @param initialCapacity The initial amount of slots, a power of two
+     */
+    UniqueIdNameTable(int initialCapacity) {
+        checkArgument(initialCapacity > 0 && Integer.bitCount(initialCapacity) == 1, "initialCapacity must be a power of two");
+        this.initialCapacity = initialCapacity;
+        clear();
+    }
+
+    synchronized int size() {
+        return this.size;
+    }
+
+    @Nullable
+    synchronized String get(UUID uuid) {
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        final int mask = this.values.length - 1;
+        for (int i = slot(msb, lsb, mask); this.values[i] != null; i = (i + 1) & mask) {
+            if (this.most[i] == msb && this.least[i] == lsb) {
+                return this.values[i];
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    synchronized String put(UUID uuid, String value) {
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        final int mask = this.values.length - 1;
+        int i = slot(msb, lsb, mask);
+        for (; this.values[i] != null; i = (i + 1) & mask) {
+            if (this.most[i] == msb && this.least[i] == lsb) {
+                final String previous = this.values[i];
+                this.values[i] = value;
+                return previous;
+            }
+        }
+        this.most[i] = msb;
+        this.least[i] = lsb;
+        this.values[i] = value;
+        // Keep the load factor at or below one half
+        if (++this.size * 2 > this.values.length) {
+            resize(this.values.length * 2);
+        }
+        return null;
+    }
+
+    @Nullable
+    synchronized String remove(UUID uuid) {
+        final long msb = uuid.getMostSignificantBits();
+        final long lsb = uuid.getLeastSignificantBits();
+        final int mask = this.values.length - 1;
+        for (int i = slot(msb, lsb, mask); this.values[i] != null; i = (i + 1) & mask) {
+            if (this.most[i] == msb && this.least[i] == lsb) {
+                final String previous = this.values[i];
+                shiftBack(i, mask);
+                this.size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    synchronized void clear() {
+        this.most = new long[this.initialCapacity];
+        this.least = new long[this.initialCapacity];
+        this.values = new String[this.initialCapacity];
+        this.size = 0;
+    }
+
+    synchronized int capacity() {
+        return this.values.length;
+    }
+
+    synchronized void forEach(BiConsumer<UUID, String> consumer) {
+        for (int i = 0; i < this.values.length; i++) {
+            if (this.values[i] != null) {
+                consumer.accept(new UUID(this.most[i], this.least[i]), this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Fills the slot of a removed entry with the entries after it, so
+     * that lookups don't stop at the gap.
+     */
+    private void shiftBack(int gap, int mask) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (this.values[i] == null) {
+                break;
+            }
+            final int home = slot(this.most[i], this.least[i], mask);
+            // Move the entry if its home slot isn't cyclically between the gap and its slot
+            if (gap <= i ? (home <= gap || home > i) : (home <= gap && home > i)) {
+                this.most[gap] = this.most[i];
+                this.least[gap] = this.least[i];
+                this.values[gap] = this.values[i];
+                gap = i;
+            }
+        }
+        this.values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        final long[] oldMost = this.most;
+        final long[] oldLeast = this.least;
+        final String[] oldValues = this.values;
+        this.most = new long[capacity];
+        this.least = new long[capacity];
+        this.values = new String[capacity];
+        final int mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldMost[j], oldLeast[j], mask);
+                while (this.values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                this.most[i] = oldMost[j];
+                this.least[i] = oldLeast[j];
+                this.values[i] = oldValues[j];
+            }
+        }
+    }
+
+    static int slot(long msb, long lsb, int mask) {
+        final long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+}
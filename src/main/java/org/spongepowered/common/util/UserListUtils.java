@@ -24,8 +24,12 @@
  */
 package org.spongepowered.common.util;
 
+import com.mojang.authlib.GameProfile;
 import net.minecraft.server.management.UserList;
+import net.minecraft.server.management.UserListBans;
 import net.minecraft.server.management.UserListEntry;
+import net.minecraft.server.management.UserListWhitelist;
+import org.spongepowered.common.service.user.UserIndex;
 
 import java.io.IOException;
 
@@ -34,6 +38,11 @@ public class UserListUtils {
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static void addEntry(UserList list, UserListEntry entry) {
         list.getValues().put(list.getObjectKey(entry.getValue()), entry);
+        if (list instanceof UserListWhitelist) {
+            UserIndex.getInstance().onWhitelistAdded((GameProfile) entry.getValue());
+        } else if (list instanceof UserListBans) {
+            UserIndex.getInstance().onBanAdded((GameProfile) entry.getValue());
+        }
 
         try {
             list.writeChanges();
@@ -46,6 +55,11 @@ public static void addEntry(UserList list, UserListEntry entry) {
     @SuppressWarnings({"rawtypes", "unchecked"})
     public static void removeEntry(UserList list, Object object) {
         list.getValues().remove(list.getObjectKey(object));
+        if (list instanceof UserListWhitelist) {
+            UserIndex.getInstance().onWhitelistRemoved(((GameProfile) object).getId());
+        } else if (list instanceof UserListBans) {
+            UserIndex.getInstance().onBanRemoved(((GameProfile) object).getId());
+        }
 
         try {
             list.writeChanges();
@@ -129,7 +129,7 @@ public BlockVolumeWorker<? extends ImmutableBlockVolume> getBlockWorker(Cause ca
     public MutableBlockVolume getBlockCopy(StorageType type) {
         switch (type) {
             case STANDARD:
-                return new ArrayMutableBlockBuffer(this.palette, this.start, this.size, this.data);
+                return ArrayMutableBlockBuffer.copyOf(this.palette, this.start, this.size, this.data);
             case THREAD_SAFE:
             default:
                 throw new UnsupportedOperationException(type.name());
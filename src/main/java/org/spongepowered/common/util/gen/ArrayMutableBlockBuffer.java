@@ -40,6 +40,13 @@
 import org.spongepowered.common.world.extent.UnmodifiableBlockVolumeWrapper;
 import org.spongepowered.common.world.extent.worker.SpongeMutableBlockVolumeWorker;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
 public class ArrayMutableBlockBuffer extends AbstractBlockBuffer implements MutableBlockVolume {
 
     @SuppressWarnings("ConstantConditions")
@@ -78,6 +85,48 @@ public ArrayMutableBlockBuffer(BlockPalette palette, Vector3i start, Vector3i si
         this.data = blocks.copyOf();
     }
 
+    /**
+     * Does not copy the backing data passed into it.
+     *
+     * @param blocks The backing data
+     * @param palette The palette
+     * @param start The start position
+     * @param size The size
+     */
+    private ArrayMutableBlockBuffer(BackingData blocks, BlockPalette palette, Vector3i start, Vector3i size) {
+        super(start, size);
+        this.palette = palette;
+        this.data = blocks;
+    }
+
+    /**
+     * Creates a standard copy of the given backing data, which is stored
+     * off the heap if the volume is large enough.
+     */
+    static ArrayMutableBlockBuffer copyOf(BlockPalette palette, Vector3i start, Vector3i size, BackingData blocks) {
+        if (DirectBufferUtil.shouldCopyOffHeap(size)) {
+            return new ArrayMutableBlockBuffer(blocks.copyOffHeap(), palette, start, size);
+        }
+        return new ArrayMutableBlockBuffer(palette, start, size, blocks);
+    }
+
+    /**
+     * Creates an empty buffer, which is stored off the heap if it is large
+     * enough, like standard copies of a buffer.
+     *
+     * @param palette The palette
+     * @param start The start position
+     * @param size The size
+     * @param type The type of the backing data
+     * @return The buffer
+     */
+    public static ArrayMutableBlockBuffer create(BlockPalette palette, Vector3i start, Vector3i size, BackingDataType type) {
+        if (DirectBufferUtil.shouldCopyOffHeap(size)) {
+            return new ArrayMutableBlockBuffer(type.createOffHeap(size), palette, start, size);
+        }
+        return new ArrayMutableBlockBuffer(palette, start, size, type);
+    }
+
     @Override
     public BlockPalette getPalette() {
         return this.palette;
@@ -123,7 +172,7 @@ public UnmodifiableBlockVolume getUnmodifiableBlockView() {
     public MutableBlockVolume getBlockCopy(StorageType type) {
         switch (type) {
             case STANDARD:
-                return new ArrayMutableBlockBuffer(this.palette, this.start, this.size, this.data);
+                return copyOf(this.palette, this.start, this.size, this.data);
             case THREAD_SAFE:
             default:
                 throw new UnsupportedOperationException(type.name());
@@ -135,6 +184,188 @@ public ImmutableBlockVolume getImmutableBlockCopy() {
         return new ArrayImmutableBlockBuffer(this.palette, this.start, this.size, this.data);
     }
 
+    /**
+     * Gets whether the blocks of this buffer are stored off the heap.
+     *
+     * @return Whether this buffer is stored off the heap
+     */
+    public boolean isOffHeap() {
+        return this.data instanceof DirectBackingData;
+    }
+
+    /**
+     * Frees the memory of this buffer right away if it is stored off the
+     * heap, instead of once it is garbage collected. Using the buffer
+     * afterwards throws an {@link IllegalStateException}. Does nothing for
+     * buffers stored on the heap.
+     */
+    public void release() {
+        this.data.release();
+    }
+
+    /**
+     * Sets the palette ids of the blocks of this buffer from the varint
+     * encoded block data of a schematic. The blocks are stored x first,
+     * then z, then y, from the minimum of this buffer on.
+     *
+     * @param blockData The varint encoded palette ids
+     * @return The amount of blocks which were read
+     * @throws IllegalArgumentException If the data is corrupted, holds more
+     *     blocks than this buffer or an id which isn't in the palette
+     */
+    public int setBlockData(byte[] blockData) {
+        final BlockDataDecoder decoder = new BlockDataDecoder();
+        decoder.decode(blockData, blockData.length);
+        return decoder.finish();
+    }
+
+    /**
+     * Sets the palette ids of the blocks of this buffer like
+     * {@link #setBlockData(byte[])}, decoding the given amount of bytes
+     * from the stream without holding all of them in memory.
+     *
+     * @param in The stream of varint encoded palette ids
+     * @param length The amount of bytes to read
+     * @return The amount of blocks which were read
+     * @throws IOException If the stream couldn't be read or ends early
+     * @throws IllegalArgumentException If the data is corrupted, holds more
+     *     blocks than this buffer or an id which isn't in the palette
+     */
+    public int setBlockData(InputStream in, int length) throws IOException {
+        final BlockDataDecoder decoder = new BlockDataDecoder();
+        final byte[] bytes = new byte[Math.min(length, 8192)];
+        int remaining = length;
+        while (remaining > 0) {
+            final int read = in.read(bytes, 0, Math.min(remaining, bytes.length));
+            if (read < 0) {
+                throw new EOFException("Block data ended after " + (length - remaining) + " of " + length + " bytes");
+            }
+            decoder.decode(bytes, read);
+            remaining -= read;
+        }
+        return decoder.finish();
+    }
+
+    /**
+     * Decodes varint encoded palette ids into the backing data, the bytes
+     * may be passed in several parts.
+     */
+    private final class BlockDataDecoder {
+
+        private final int width = ArrayMutableBlockBuffer.this.size.getX();
+        private final int height = ArrayMutableBlockBuffer.this.size.getY();
+        private final int length = ArrayMutableBlockBuffer.this.size.getZ();
+        private final int xStride = this.height * this.length;
+        private final int volume = this.width * this.xStride;
+        private final BitSet knownIds = new BitSet();
+        private int count;
+        // The index into the data of this buffer, which is y first instead
+        private int x;
+        private int y;
+        private int z;
+        private int index;
+        // The varint which is being read
+        private int value;
+        private int shift;
+
+        void decode(byte[] bytes, int end) {
+            final BackingData data = ArrayMutableBlockBuffer.this.data;
+            final BlockPalette palette = ArrayMutableBlockBuffer.this.palette;
+            int count = this.count;
+            int x = this.x;
+            int y = this.y;
+            int z = this.z;
+            int index = this.index;
+            int value = this.value;
+            int shift = this.shift;
+            for (int i = 0; i < end; i++) {
+                if (shift >= 35) {
+                    throw new IllegalArgumentException("VarInt too big (probably corrupted data)");
+                }
+                final byte b = bytes[i];
+                value |= (b & 127) << shift;
+                shift += 7;
+                if ((b & 128) != 0) {
+                    continue;
+                }
+
+                if (count++ == this.volume) {
+                    throw new IllegalArgumentException("Block data holds more than " + this.volume + " blocks");
+                }
+                if (value < 0 || !this.knownIds.get(value)) {
+                    if (value < 0 || !palette.get(value).isPresent()) {
+                        throw new IllegalArgumentException("Unknown block palette id " + value);
+                    }
+                    this.knownIds.set(value);
+                }
+                data.set(index, value);
+                value = 0;
+                shift = 0;
+
+                if (++x < this.width) {
+                    index += this.xStride;
+                } else {
+                    x = 0;
+                    if (++z < this.length) {
+                        index = z * this.height + y;
+                    } else {
+                        z = 0;
+                        index = ++y;
+                    }
+                }
+            }
+            this.count = count;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.index = index;
+            this.value = value;
+            this.shift = shift;
+        }
+
+        int finish() {
+            if (this.shift != 0) {
+                // The data ended within a varint
+                throw new IllegalArgumentException("VarInt too big (probably corrupted data)");
+            }
+            return this.count;
+        }
+
+    }
+
+    /**
+     * Gets the palette ids of the blocks of this buffer as the varint
+     * encoded block data of a schematic, the inverse of
+     * {@link #setBlockData(byte[])}.
+     *
+     * @return The varint encoded palette ids
+     */
+    public byte[] getBlockData() {
+        final int width = this.size.getX();
+        final int height = this.size.getY();
+        final int length = this.size.getZ();
+        final int xStride = height * length;
+        byte[] blockData = new byte[width * xStride];
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            for (int z = 0; z < length; z++) {
+                for (int index = z * height + y, x = 0; x < width; x++, index += xStride) {
+                    int id = this.data.get(index);
+                    // A varint takes at most 5 bytes
+                    if (i + 5 > blockData.length) {
+                        blockData = Arrays.copyOf(blockData, Math.max(blockData.length * 2, i + 5));
+                    }
+                    while ((id & -128) != 0) {
+                        blockData[i++] = (byte) (id & 127 | 128);
+                        id >>>= 7;
+                    }
+                    blockData[i++] = (byte) id;
+                }
+            }
+        }
+        return i == blockData.length ? blockData : Arrays.copyOf(blockData, i);
+    }
+
     public static enum BackingDataType {
         BYTE {
 
@@ -142,6 +373,11 @@ public static enum BackingDataType {
             public BackingData create(Vector3i size) {
                 return new ByteBackingData(size.getX() * size.getY() * size.getZ());
             }
+
+            @Override
+            BackingData createOffHeap(Vector3i size) {
+                return new DirectByteBackingData(DirectBufferUtil.allocate(size.getX() * size.getY() * size.getZ()));
+            }
         },
         CHAR {
 
@@ -149,6 +385,11 @@ public BackingData create(Vector3i size) {
             public BackingData create(Vector3i size) {
                 return new CharBackingData(size.getX() * size.getY() * size.getZ());
             }
+
+            @Override
+            BackingData createOffHeap(Vector3i size) {
+                return new DirectCharBackingData(DirectBufferUtil.allocate(size.getX() * size.getY() * size.getZ() * 2));
+            }
         },
         INT {
 
@@ -156,9 +397,16 @@ public BackingData create(Vector3i size) {
             public BackingData create(Vector3i size) {
                 return new IntBackingData(size.getX() * size.getY() * size.getZ());
             }
+
+            @Override
+            BackingData createOffHeap(Vector3i size) {
+                return new DirectIntBackingData(DirectBufferUtil.allocate(size.getX() * size.getY() * size.getZ() * 4));
+            }
         };
 
         public abstract BackingData create(Vector3i size);
+
+        abstract BackingData createOffHeap(Vector3i size);
     }
 
     static interface BackingData {
@@ -171,6 +419,10 @@ static interface BackingData {
 
         BackingData copyOf();
 
+        BackingData copyOffHeap();
+
+        void release();
+
     }
 
     static class ByteBackingData implements BackingData {
@@ -192,7 +444,7 @@ public Object getBacking() {
 
         @Override
         public int get(int index) {
-            return this.data[index];
+            return this.data[index] & 0xFF;
         }
 
         @Override
@@ -204,6 +456,17 @@ public void set(int index, int val) {
         public BackingData copyOf() {
             return new ByteBackingData(this.data.clone());
         }
+
+        @Override
+        public BackingData copyOffHeap() {
+            ByteBuffer buffer = DirectBufferUtil.allocate(this.data.length);
+            buffer.put(this.data);
+            return new DirectByteBackingData(buffer);
+        }
+
+        @Override
+        public void release() {
+        }
     }
 
     static class CharBackingData implements BackingData {
@@ -237,6 +500,17 @@ public void set(int index, int val) {
         public BackingData copyOf() {
             return new CharBackingData(this.data.clone());
         }
+
+        @Override
+        public BackingData copyOffHeap() {
+            ByteBuffer buffer = DirectBufferUtil.allocate(this.data.length * 2);
+            buffer.asCharBuffer().put(this.data);
+            return new DirectCharBackingData(buffer);
+        }
+
+        @Override
+        public void release() {
+        }
     }
 
     static class IntBackingData implements BackingData {
@@ -270,5 +544,130 @@ public void set(int index, int val) {
         public BackingData copyOf() {
             return new IntBackingData(this.data.clone());
         }
+
+        @Override
+        public BackingData copyOffHeap() {
+            ByteBuffer buffer = DirectBufferUtil.allocate(this.data.length * 4);
+            buffer.asIntBuffer().put(this.data);
+            return new DirectIntBackingData(buffer);
+        }
+
+        @Override
+        public void release() {
+        }
+    }
+
+    /**
+     * Backing data stored in a direct buffer, which can be released
+     * explicitly.
+     */
+    abstract static class DirectBackingData implements BackingData {
+
+        private ByteBuffer buffer;
+
+        DirectBackingData(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        protected final ByteBuffer buffer() {
+            ByteBuffer buffer = this.buffer;
+            if (buffer == null) {
+                throw new IllegalStateException("trying to use buffer after it was released");
+            }
+            return buffer;
+        }
+
+        @Override
+        public Object getBacking() {
+            return buffer();
+        }
+
+        @Override
+        public BackingData copyOffHeap() {
+            return copyOf();
+        }
+
+        protected final ByteBuffer copyBuffer() {
+            ByteBuffer source = buffer().duplicate();
+            source.clear();
+            ByteBuffer copy = DirectBufferUtil.allocate(source.capacity());
+            copy.put(source);
+            return copy;
+        }
+
+        @Override
+        public void release() {
+            ByteBuffer buffer = this.buffer;
+            if (buffer != null) {
+                this.buffer = null;
+                DirectBufferUtil.free(buffer);
+            }
+        }
+    }
+
+    static class DirectByteBackingData extends DirectBackingData {
+
+        DirectByteBackingData(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        public int get(int index) {
+            return buffer().get(index) & 0xFF;
+        }
+
+        @Override
+        public void set(int index, int val) {
+            buffer().put(index, (byte) (val & 0xFF));
+        }
+
+        @Override
+        public BackingData copyOf() {
+            return new DirectByteBackingData(copyBuffer());
+        }
+    }
+
+    static class DirectCharBackingData extends DirectBackingData {
+
+        DirectCharBackingData(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        public int get(int index) {
+            return buffer().getChar(index << 1);
+        }
+
+        @Override
+        public void set(int index, int val) {
+            buffer().putChar(index << 1, (char) (val & 0xFFFF));
+        }
+
+        @Override
+        public BackingData copyOf() {
+            return new DirectCharBackingData(copyBuffer());
+        }
+    }
+
+    static class DirectIntBackingData extends DirectBackingData {
+
+        DirectIntBackingData(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        public int get(int index) {
+            return buffer().getInt(index << 2);
+        }
+
+        @Override
+        public void set(int index, int val) {
+            buffer().putInt(index << 2, val);
+        }
+
+        @Override
+        public BackingData copyOf() {
+            return new DirectIntBackingData(copyBuffer());
+        }
     }
 }
@@ -83,7 +83,7 @@ public BiomeVolumeWorker<? extends ImmutableBiomeVolume> getBiomeWorker() {
     public MutableBiomeVolume getBiomeCopy(StorageType type) {
         switch (type) {
             case STANDARD:
-                return new ByteArrayMutableBiomeBuffer(this.biomes.clone(), this.start, this.size);
+                return ByteBufferMutableBiomeBuffer.copyOf(this.biomes, this.start, this.size);
             case THREAD_SAFE:
             default:
                 throw new UnsupportedOperationException(type.name());
@@ -152,7 +152,7 @@ public MutableBiomeVolume getBiomeCopy(StorageType type) {
         checkOpen();
         switch (type) {
             case STANDARD:
-                return new ByteArrayMutableBiomeBuffer(this.biomes.clone(), this.start, this.size);
+                return ByteBufferMutableBiomeBuffer.copyOf(this.biomes, this.start, this.size);
             case THREAD_SAFE:
             default:
                 throw new UnsupportedOperationException(type.name());
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util.gen;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.world.biome.Biome;
+import org.spongepowered.api.util.DiscreteTransform3;
+import org.spongepowered.api.world.biome.BiomeType;
+import org.spongepowered.api.world.biome.BiomeTypes;
+import org.spongepowered.api.world.extent.ImmutableBiomeVolume;
+import org.spongepowered.api.world.extent.MutableBiomeVolume;
+import org.spongepowered.api.world.extent.StorageType;
+import org.spongepowered.api.world.extent.UnmodifiableBiomeVolume;
+import org.spongepowered.api.world.extent.worker.MutableBiomeVolumeWorker;
+import org.spongepowered.common.world.extent.MutableBiomeViewDownsize;
+import org.spongepowered.common.world.extent.MutableBiomeViewTransform;
+import org.spongepowered.common.world.extent.UnmodifiableBiomeVolumeWrapper;
+import org.spongepowered.common.world.extent.worker.SpongeMutableBiomeVolumeWorker;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Mutable biome volume backed by a direct byte buffer, used for standard
+ * copies of large biome volumes.
+ *
+ * <p>Using {@link #release()} the memory of the buffer is freed right away
+ * instead of once this object is garbage collected.</p>
+ */
+public final class ByteBufferMutableBiomeBuffer extends AbstractBiomeBuffer implements MutableBiomeVolume {
+
+    private ByteBuffer biomes;
+
+    private ByteBuffer biomes() {
+        checkState(this.biomes != null, "trying to use buffer after it was released");
+        return this.biomes;
+    }
+
+    ByteBufferMutableBiomeBuffer(byte[] biomes, Vector3i start, Vector3i size) {
+        super(start, size);
+        this.biomes = DirectBufferUtil.allocate(biomes.length);
+        this.biomes.put(biomes);
+    }
+
+    private ByteBufferMutableBiomeBuffer(ByteBuffer biomes, Vector3i start, Vector3i size) {
+        super(start, size);
+        this.biomes = biomes;
+    }
+
+    /**
+     * Creates a standard copy of the given biome ids, which is stored off
+     * the heap if the volume is large enough.
+     */
+    static MutableBiomeVolume copyOf(byte[] biomes, Vector3i start, Vector3i size) {
+        if (DirectBufferUtil.shouldCopyOffHeap(size)) {
+            return new ByteBufferMutableBiomeBuffer(biomes, start, size);
+        }
+        return new ByteArrayMutableBiomeBuffer(biomes.clone(), start, size);
+    }
+
+    @Override
+    public void setBiome(int x, int y, int z, BiomeType biome) {
+        checkRange(x, y, z);
+
+        biomes().put(getIndex(x, z), (byte) Biome.getIdForBiome((Biome) biome));
+    }
+
+    @Override
+    public BiomeType getBiome(int x, int y, int z) {
+        checkRange(x, y, z);
+
+        byte biomeId = biomes().get(getIndex(x, z));
+        BiomeType biomeType = (BiomeType) Biome.getBiomeForId(biomeId & 255);
+        return biomeType == null ? BiomeTypes.OCEAN : biomeType;
+    }
+
+    /**
+     * Frees the memory of this buffer. Using the buffer afterwards throws an
+     * {@link IllegalStateException}.
+     */
+    public void release() {
+        ByteBuffer biomes = this.biomes;
+        if (biomes != null) {
+            this.biomes = null;
+            DirectBufferUtil.free(biomes);
+        }
+    }
+
+    private byte[] toArray() {
+        ByteBuffer biomes = biomes().duplicate();
+        biomes.clear();
+        byte[] array = new byte[biomes.capacity()];
+        biomes.get(array);
+        return array;
+    }
+
+    @Override
+    public MutableBiomeVolume getBiomeView(Vector3i newMin, Vector3i newMax) {
+        checkRange(newMin.getX(), newMin.getY(), newMin.getZ());
+        checkRange(newMax.getX(), newMax.getY(), newMax.getZ());
+        return new MutableBiomeViewDownsize(this, newMin, newMax);
+    }
+
+    @Override
+    public MutableBiomeVolume getBiomeView(DiscreteTransform3 transform) {
+        return new MutableBiomeViewTransform(this, transform);
+    }
+
+    @Override
+    public MutableBiomeVolumeWorker<? extends MutableBiomeVolume> getBiomeWorker() {
+        return new SpongeMutableBiomeVolumeWorker<>(this);
+    }
+
+    @Override
+    public UnmodifiableBiomeVolume getUnmodifiableBiomeView() {
+        return new UnmodifiableBiomeVolumeWrapper(this);
+    }
+
+    @Override
+    public MutableBiomeVolume getBiomeCopy(StorageType type) {
+        switch (type) {
+            case STANDARD:
+                return copyOf(toArray(), this.start, this.size);
+            case THREAD_SAFE:
+            default:
+                throw new UnsupportedOperationException(type.name());
+        }
+    }
+
+    @Override
+    public ImmutableBiomeVolume getImmutableBiomeCopy() {
+        return ByteArrayImmutableBiomeBuffer.newWithoutArrayClone(toArray(), this.start, this.size);
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.storage.IChunkLoader;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.world.IMixinAnvilChunkLoader;
+import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads the spawn chunks of worlds from their region files on a pool of
+ * threads ahead of the spawn area preparation.
+ *
+ * <p>Only the disk reads and the decompression and parsing of the chunk NBT
+ * happen on the pool. The chunks themselves are still constructed, and
+ * missing chunks generated, on the main thread by
+ * {@link org.spongepowered.common.interfaces.IMixinMinecraftServer#prepareSpawnArea},
+ * so the cause tracker sees the same phases as before.</p>
+ */
+public final class SpawnChunkPrefetcher {
+
+    // The spawn area prepared for each world, in blocks from the spawn point
+    private static final int SPAWN_RADIUS = 192;
+
+    private final ExecutorService executor;
+    private final Map<WorldServer, CompletableFuture<Integer>> pending = new IdentityHashMap<>();
+
+    public SpawnChunkPrefetcher() {
+        this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setNameFormat("Sponge - Spawn Chunk Prefetch #%d").setDaemon(true).build());
+    }
+
+    /**
+     * Gets whether spawn chunks should be read ahead.
+     *
+     * @return Whether spawn chunk prefetching is enabled
+     */
+    public static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useParallelSpawnChunkLoading();
+    }
+
+    /**
+     * Starts reading the spawn chunks of the given world.
+     *
+     * @param worldServer The world
+     */
+    public void prefetch(WorldServer worldServer) {
+        IChunkLoader chunkLoader = ((IMixinChunkProviderServer) worldServer.getChunkProvider()).getChunkLoader();
+        if (!(chunkLoader instanceof IMixinAnvilChunkLoader) || this.pending.containsKey(worldServer)) {
+            return;
+        }
+        IMixinAnvilChunkLoader anvilChunkLoader = (IMixinAnvilChunkLoader) chunkLoader;
+        BlockPos spawnPoint = worldServer.getSpawnPoint();
+        AtomicInteger prefetched = new AtomicInteger();
+        int diameter = SPAWN_RADIUS * 2 / 16 + 1;
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[diameter * diameter];
+        int i = 0;
+        for (int k = -SPAWN_RADIUS; k <= SPAWN_RADIUS; k += 16) {
+            for (int l = -SPAWN_RADIUS; l <= SPAWN_RADIUS; l += 16) {
+                int x = spawnPoint.getX() + k >> 4;
+                int z = spawnPoint.getZ() + l >> 4;
+                futures[i++] = CompletableFuture.runAsync(() -> {
+                    if (anvilChunkLoader.prefetchChunk(x, z)) {
+                        prefetched.incrementAndGet();
+                    }
+                }, this.executor);
+            }
+        }
+        this.pending.put(worldServer, CompletableFuture.allOf(futures).thenApply(v -> prefetched.get()));
+    }
+
+    /**
+     * Waits until the spawn chunks of the given world have been read.
+     *
+     * @param worldServer The world
+     * @return The amount of chunks which were read ahead
+     */
+    public int await(WorldServer worldServer) {
+        CompletableFuture<Integer> future = this.pending.remove(worldServer);
+        if (future == null) {
+            return 0;
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // The remaining chunks are simply read on the main thread
+            SpongeImpl.getLogger().warn("Failed to read the spawn chunks of {} ahead", worldServer.getWorldInfo().getWorldName(), e.getCause());
+            return 0;
+        }
+    }
+
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+}
@@ -30,15 +30,40 @@
 import com.flowpowered.math.GenericMath;
 import com.flowpowered.math.vector.Vector3d;
 import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.gen.ChunkProviderServer;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.slf4j.Logger;
 import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.WorldBorder;
+import org.spongepowered.api.world.storage.WorldStorage;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.interfaces.server.management.IMixinPlayerChunkMap;
+import org.spongepowered.common.interfaces.world.gen.IMixinChunkProviderServer;
 import org.spongepowered.common.scheduler.SpongeScheduler;
 import org.spongepowered.common.world.storage.SpongeChunkLayout;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Consumer;
 
 import javax.annotation.Nullable;
@@ -138,7 +163,37 @@ public String toString() {
             '}';
     }
 
-    private static class ChunkPreGenerator implements Consumer<Task> {
+    /**
+     * Gets the pre-generator running in the given task, which exposes the
+     * progress of the task and allows to pause and resume it.
+     *
+     * @param task The task
+     * @return The pre-generator, if the task is a pre-generation task
+     */
+    public static Optional<ChunkPreGenerator> getGenerator(Task task) {
+        if (task.getConsumer() instanceof ChunkPreGenerator) {
+            return Optional.of((ChunkPreGenerator) task.getConsumer());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Generates the chunks in a square spiral around the center.
+     *
+     * <p>Which chunks of the next batch already exist on disk is looked up
+     * asynchronously while the current batch is generated. Existing chunks
+     * are skipped, unless they are next to a missing chunk and thus needed
+     * to populate it. The chunks loaded by the generator are queued for
+     * unloading again once they are no longer needed to populate their
+     * neighbours, so they are saved by the regular chunk unloading.</p>
+     *
+     * <p>The position in the spiral is persisted to the world directory after
+     * every batch, a generator started again with the same center and
+     * diameter resumes from there. Every center and diameter has its own
+     * cursor file, so generators of different areas don't overwrite each
+     * other's progress.</p>
+     */
+    public static class ChunkPreGenerator implements Consumer<Task> {
 
         private static final Vector3i[] OFFSETS = {
             Vector3i.UNIT_Z.negate().mul(2),
@@ -147,12 +202,19 @@ private static class ChunkPreGenerator implements Consumer<Task> {
             Vector3i.UNIT_X.negate().mul(2)
         };
         private static final String TIME_FORMAT = "s's 'S'ms'";
+        // Followed by the center chunk and the diameter in chunks
+        private static final String CURSOR_FILE_PREFIX = "sponge_chunk_pregen_";
+        // The amount of 2x2 chunk groups looked up per batch
+        private static final int BATCH_SIZE = 64;
         private final World world;
+        private final Vector3i center;
         private final int chunkRadius;
         private final int chunkCount;
         private final float tickPercent;
         private final long tickTimeLimit;
         @Nullable private final Logger logger;
+        private final File cursorFile;
+        private final double totalUnits;
         private Vector3i currentPosition;
         private int currentGenCount;
         private int currentLayer;
@@ -160,6 +222,17 @@ private static class ChunkPreGenerator implements Consumer<Task> {
         private int nextJump;
         private int totalCount;
         private long totalTime;
+        @Nullable private CompletableFuture<Batch> nextBatch;
+        @Nullable private Batch currentBatch;
+        // Chunks loaded by the generator which may still be needed to populate
+        // their neighbours
+        private final Deque<BatchChunk> loadedChunks = new ArrayDeque<>();
+        private volatile boolean paused;
+        // The spiral progress of the batches which were fetched, and of those
+        // which were fully processed
+        private int fetchedUnits;
+        private volatile int processedUnits;
+        private volatile long activeTime;
 
         ChunkPreGenerator(World world, Vector3d center, double diameter, int chunkCount, float tickPercent, @Nullable Logger logger) {
             this.world = world;
@@ -168,48 +241,261 @@ private static class ChunkPreGenerator implements Consumer<Task> {
             this.tickPercent = tickPercent;
             this.logger = logger;
             this.tickTimeLimit = Math.round(SpongeScheduler.getInstance().getPreferredTickInterval() * tickPercent);
+            this.totalUnits = Math.pow(this.chunkRadius * 2 + 1, 2);
             final Optional<Vector3i> currentPosition = SpongeChunkLayout.instance.toChunk(center.toInt());
             if (currentPosition.isPresent()) {
                 this.currentPosition = currentPosition.get();
             } else {
                 throw new IllegalArgumentException("Center is not a valid chunk coordinate");
             }
+            this.center = this.currentPosition;
             this.currentGenCount = 4;
             this.currentLayer = 0;
             this.currentIndex = 0;
             this.nextJump = 0;
             this.totalCount = 0;
             this.totalTime = 0;
+            this.cursorFile = new File(((WorldServer) world).getSaveHandler().getWorldDirectory(),
+                    CURSOR_FILE_PREFIX + this.center.getX() + '_' + this.center.getZ() + '_' + (this.chunkRadius * 2 + 1) + ".dat");
+            readCursor();
         }
 
         @Override
         public void accept(Task task) {
+            if (this.paused) {
+                return;
+            }
+            if (this.currentBatch == null) {
+                if (this.nextBatch == null) {
+                    if (!hasNextChunkPosition()) {
+                        finish(task);
+                        return;
+                    }
+                    this.nextBatch = fetchBatch();
+                }
+                if (!this.nextBatch.isDone()) {
+                    // Still waiting for the region files
+                    return;
+                }
+                this.currentBatch = this.nextBatch.join();
+                // Look up the next batch while this one is generated
+                this.nextBatch = hasNextChunkPosition() ? fetchBatch() : null;
+            }
+
+            final ChunkProviderServer chunkProvider = ((WorldServer) this.world).getChunkProvider();
             final long startTime = System.currentTimeMillis();
             int count = 0;
+            int generated = 0;
             do {
-                count += this.currentGenCount;
-                final Vector3i position = nextChunkPosition();
-                this.world.loadChunk(position, true);
-                this.world.loadChunk(position.sub(Vector3i.UNIT_X), true);
-                this.world.loadChunk(position.sub(Vector3i.UNIT_Z), true);
-                this.world.loadChunk(position.sub(Vector3i.UNIT_X).sub(Vector3i.UNIT_Z), true);
-            } while (hasNextChunkPosition() && checkChunkCount(count) && checkTickTime(System.currentTimeMillis() - startTime));
-            if (this.logger != null) {
-                this.totalCount += count;
-                final long deltaTime = System.currentTimeMillis() - startTime;
+                final BatchChunk chunk = this.currentBatch.chunks.poll();
+                if (chunk == null) {
+                    break;
+                }
+                final Vector3i position = chunk.position;
+                if (((IMixinChunkProviderServer) chunkProvider).getLoadedChunkWithoutMarkingActive(position.getX(), position.getZ()) != null) {
+                    // Loaded by someone else, or by a previous batch
+                    continue;
+                }
+                // Only missing chunks are generated, existing neighbours are loaded from disk
+                if (this.world.loadChunk(position, chunk.generate).isPresent()) {
+                    this.loadedChunks.add(chunk);
+                }
+                if (chunk.generate) {
+                    generated++;
+                }
+                count++;
+            } while (checkChunkCount(count) && checkTickTime(System.currentTimeMillis() - startTime));
+            final long deltaTime = System.currentTimeMillis() - startTime;
+            this.activeTime += deltaTime;
+            this.totalCount += generated;
+
+            if (this.currentBatch.chunks.isEmpty()) {
+                this.processedUnits = this.currentBatch.unitsAfter;
+                unloadLoadedChunks(this.currentBatch.layer - 2);
+                writeCursor(this.currentBatch.cursorAfter);
+                this.currentBatch = null;
+            }
+            if (this.logger != null && count > 0) {
                 this.totalTime += deltaTime;
-                this.logger.info("Generated {} chunks in {}, {}% complete", count,
+                this.logger.info("Generated {} chunks in {}, {}% complete", generated,
                     DurationFormatUtils.formatDuration(deltaTime, TIME_FORMAT, false),
-                    GenericMath.floor(this.totalCount / Math.pow(this.chunkRadius * 2 + 1, 2) * 100)
+                    GenericMath.floor(getProgress() * 100)
                 );
             }
-            if (!hasNextChunkPosition()) {
+            if (this.currentBatch == null && this.nextBatch == null && !hasNextChunkPosition()) {
+                finish(task);
+            }
+        }
+
+        private void finish(Task task) {
+            unloadLoadedChunks(Integer.MAX_VALUE);
+            if (!this.cursorFile.delete() && this.cursorFile.exists()) {
+                SpongeImpl.getLogger().warn("Failed to delete the chunk pre-generation cursor {}", this.cursorFile);
+            }
+            if (this.logger != null) {
+                this.logger.info("Done! Generated a total of {} chunks in {}", this.totalCount,
+                    DurationFormatUtils.formatDuration(this.totalTime, TIME_FORMAT, false));
+            }
+            task.cancel();
+        }
+
+        /**
+         * Takes the next groups of chunks from the spiral and looks up which
+         * of their chunks don't exist yet. Those are generated, along with
+         * loading their existing neighbours which are needed to populate them.
+         */
+        private CompletableFuture<Batch> fetchBatch() {
+            final List<Vector3i> positions = new ArrayList<>(BATCH_SIZE * 4);
+            for (int i = 0; i < BATCH_SIZE && hasNextChunkPosition(); i++) {
+                this.fetchedUnits += this.currentGenCount;
+                final Vector3i position = nextChunkPosition();
+                positions.add(position);
+                positions.add(position.sub(Vector3i.UNIT_X));
+                positions.add(position.sub(Vector3i.UNIT_Z));
+                positions.add(position.sub(Vector3i.UNIT_X).sub(Vector3i.UNIT_Z));
+            }
+            final Batch batch = new Batch(this.currentLayer, Math.min(this.fetchedUnits, (int) this.totalUnits), createCursor());
+
+            final WorldStorage storage = this.world.getWorldStorage();
+            final List<CompletableFuture<Boolean>> exists = new ArrayList<>(positions.size());
+            for (Vector3i position : positions) {
+                exists.add(storage.doesChunkExist(position));
+            }
+            return CompletableFuture.allOf(exists.toArray(new CompletableFuture<?>[exists.size()])).handle((ignored, throwable) -> {
+                // Whether to generate each chunk to load, in the order of the spiral
+                final Map<Vector3i, Boolean> chunks = new LinkedHashMap<>();
+                for (int i = 0; i < positions.size(); i++) {
+                    // Chunks whose lookup failed are loaded like missing ones
+                    final CompletableFuture<Boolean> future = exists.get(i);
+                    if (!future.isCompletedExceptionally() && future.join()) {
+                        continue;
+                    }
+                    final Vector3i position = positions.get(i);
+                    for (int x = -1; x <= 1; x++) {
+                        for (int z = -1; z <= 1; z++) {
+                            chunks.putIfAbsent(position.add(x, 0, z), false);
+                        }
+                    }
+                    chunks.put(position, true);
+                }
+                chunks.forEach((position, generate) -> batch.chunks.add(new BatchChunk(position, generate, batch.layer)));
+                return batch;
+            });
+        }
+
+        /**
+         * Queues the chunks loaded by the generator up to the given spiral
+         * layer for unloading, chunks in later layers may still be needed to
+         * populate their neighbours. Chunks which players are watching by now
+         * are left loaded.
+         */
+        private void unloadLoadedChunks(int maxLayer) {
+            final ChunkProviderServer chunkProvider = ((WorldServer) this.world).getChunkProvider();
+            final IMixinPlayerChunkMap playerChunkMap = (IMixinPlayerChunkMap) ((WorldServer) this.world).getPlayerChunkMap();
+            while (!this.loadedChunks.isEmpty() && this.loadedChunks.peek().layer <= maxLayer) {
+                final Vector3i position = this.loadedChunks.poll().position;
+                final Chunk chunk = ((IMixinChunkProviderServer) chunkProvider).getLoadedChunkWithoutMarkingActive(position.getX(), position.getZ());
+                if (chunk != null && !playerChunkMap.isChunkInUse(position.getX(), position.getZ())) {
+                    chunkProvider.unload(chunk);
+                }
+            }
+        }
+
+        private NBTTagCompound createCursor() {
+            final NBTTagCompound cursor = new NBTTagCompound();
+            cursor.setInteger("CenterX", this.center.getX());
+            cursor.setInteger("CenterZ", this.center.getZ());
+            cursor.setInteger("Radius", this.chunkRadius);
+            cursor.setInteger("PositionX", this.currentPosition.getX());
+            cursor.setInteger("PositionZ", this.currentPosition.getZ());
+            cursor.setInteger("GenCount", this.currentGenCount);
+            cursor.setInteger("Layer", this.currentLayer);
+            cursor.setInteger("Index", this.currentIndex);
+            cursor.setInteger("NextJump", this.nextJump);
+            return cursor;
+        }
+
+        private void readCursor() {
+            if (!this.cursorFile.isFile()) {
+                return;
+            }
+            try (InputStream in = new FileInputStream(this.cursorFile)) {
+                final NBTTagCompound cursor = CompressedStreamTools.readCompressed(in);
+                if (cursor.getInteger("CenterX") != this.center.getX() || cursor.getInteger("CenterZ") != this.center.getZ()
+                        || cursor.getInteger("Radius") != this.chunkRadius) {
+                    // Belongs to a different pre-generation
+                    return;
+                }
+                this.currentPosition = new Vector3i(cursor.getInteger("PositionX"), this.center.getY(), cursor.getInteger("PositionZ"));
+                this.currentGenCount = cursor.getInteger("GenCount");
+                this.currentLayer = cursor.getInteger("Layer");
+                this.currentIndex = cursor.getInteger("Index");
+                this.nextJump = cursor.getInteger("NextJump");
+                this.processedUnits = this.fetchedUnits = cursor.getInteger("Units");
                 if (this.logger != null) {
-                    this.logger.info("Done! Generated a total of {} chunks in {}", this.totalCount,
-                        DurationFormatUtils.formatDuration(this.totalTime, TIME_FORMAT, false));
+                    this.logger.info("Resuming chunk pre-generation at layer {} of {}", this.currentLayer, this.chunkRadius);
                 }
-                task.cancel();
+            } catch (IOException e) {
+                SpongeImpl.getLogger().warn("Failed to read the chunk pre-generation cursor {}, starting at the center", this.cursorFile, e);
+            }
+        }
+
+        private void writeCursor(NBTTagCompound cursor) {
+            cursor.setInteger("Units", this.processedUnits);
+            try (OutputStream out = new FileOutputStream(this.cursorFile)) {
+                CompressedStreamTools.writeCompressed(cursor, out);
+            } catch (IOException e) {
+                SpongeImpl.getLogger().warn("Failed to write the chunk pre-generation cursor {}", this.cursorFile, e);
+            }
+        }
+
+        /**
+         * Pauses the generation, the task keeps running but does nothing
+         * until the generation is resumed.
+         */
+        public void pause() {
+            this.paused = true;
+        }
+
+        public void resume() {
+            this.paused = false;
+        }
+
+        public boolean isPaused() {
+            return this.paused;
+        }
+
+        /**
+         * Gets the progress of the generation, from 0 to 1.
+         *
+         * @return The progress
+         */
+        public double getProgress() {
+            return Math.min(1, this.processedUnits / this.totalUnits);
+        }
+
+        /**
+         * Gets the amount of chunks which were generated so far, excluding
+         * skipped chunks which already existed.
+         *
+         * @return The generated chunk count
+         */
+        public int getGeneratedChunkCount() {
+            return this.totalCount;
+        }
+
+        /**
+         * Estimates the remaining time of the generation from the time spent
+         * generating so far, paused periods are not included.
+         *
+         * @return The estimated remaining time, if any progress was made yet
+         */
+        public Optional<Duration> getEstimatedTimeRemaining() {
+            final double progress = getProgress();
+            if (progress <= 0) {
+                return Optional.empty();
             }
+            return Optional.of(Duration.ofMillis((long) (this.activeTime / progress * (1 - progress))));
         }
 
         private boolean hasNextChunkPosition() {
@@ -246,6 +532,34 @@ private boolean checkTickTime(long tickTime) {
             return this.tickPercent <= 0 || tickTime < this.tickTimeLimit;
         }
 
+        private static final class Batch {
+
+            final int layer;
+            final int unitsAfter;
+            final NBTTagCompound cursorAfter;
+            final Queue<BatchChunk> chunks = new ConcurrentLinkedQueue<>();
+
+            Batch(int layer, int unitsAfter, NBTTagCompound cursorAfter) {
+                this.layer = layer;
+                this.unitsAfter = unitsAfter;
+                this.cursorAfter = cursorAfter;
+            }
+        }
+
+        private static final class BatchChunk {
+
+            final Vector3i position;
+            // Whether the chunk is missing and has to be generated
+            final boolean generate;
+            final int layer;
+
+            BatchChunk(Vector3i position, boolean generate, int layer) {
+                this.position = position;
+                this.generate = generate;
+                this.layer = layer;
+            }
+        }
+
     }
 
 }
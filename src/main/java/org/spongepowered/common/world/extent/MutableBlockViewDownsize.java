@@ -42,6 +42,10 @@ public MutableBlockViewDownsize(MutableBlockVolume volume, Vector3i min, Vector3
         super(volume, min, max);
     }
 
+    public MutableBlockVolume getBackingVolume() {
+        return this.volume;
+    }
+
     @Override
     public boolean setBlock(int x, int y, int z, BlockState block, Cause cause) {
         checkRange(x, y, z);
@@ -0,0 +1,273 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.extent.worker;
+
+import com.flowpowered.math.vector.Vector3i;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.network.play.server.SPacketChunkData;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.EnumSkyBlock;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+import org.spongepowered.api.block.BlockState;
+import org.spongepowered.api.event.SpongeEventFactory;
+import org.spongepowered.api.event.block.ChangeBlockEvent;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.world.Location;
+import org.spongepowered.api.world.World;
+import org.spongepowered.api.world.extent.MutableBlockVolume;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.SpongeImplHooks;
+import org.spongepowered.common.world.extent.MutableBlockViewDownsize;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * Applies the results of a block worker to a world in one go. A single
+ * {@link ChangeBlockEvent.Pre} is thrown for the whole region, the block
+ * states are written straight into the chunk sections and the lighting and
+ * client updates are done once per touched chunk instead of once per block.
+ *
+ * <p>Blocks are placed without notifying their neighbours, like with
+ * {@code BlockChangeFlag.NONE}. Positions where a tile entity is removed or
+ * placed still go through the regular chunk logic.</p>
+ */
+final class BulkBlockWriter {
+
+    static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useBulkBlockWorkers();
+    }
+
+    /**
+     * Gets the world the blocks of the given volume can be written to in
+     * bulk, using the same coordinates as the volume.
+     *
+     * @param volume The volume
+     * @return The world, or null if the volume isn't backed by one
+     */
+    @Nullable
+    static WorldServer getTarget(MutableBlockVolume volume) {
+        if (volume instanceof WorldServer) {
+            return (WorldServer) volume;
+        }
+        if (volume instanceof MutableBlockViewDownsize) {
+            return getTarget(((MutableBlockViewDownsize) volume).getBackingVolume());
+        }
+        return null;
+    }
+
+    private final WorldServer world;
+    private final boolean hasSky;
+    // Chunk key -> bit mask of the touched sections
+    private final Long2IntMap touchedSections = new Long2IntOpenHashMap();
+    private final List<BlockPos> lightChanges = new ArrayList<>();
+    @Nullable private Chunk lastChunk;
+    @Nullable private Vector3i min;
+    @Nullable private Vector3i max;
+
+    BulkBlockWriter(WorldServer world) {
+        this.world = world;
+        this.hasSky = !world.provider.getHasNoSky();
+    }
+
+    /**
+     * Throws the single pre change event for the region between the given
+     * positions.
+     *
+     * @param min The lowest position of the region
+     * @param max The highest position of the region
+     * @param cause The cause of the changes
+     * @return Whether the changes may be applied
+     */
+    boolean firePreEvent(Vector3i min, Vector3i max, Cause cause) {
+        this.min = min;
+        this.max = max;
+        final ChangeBlockEvent.Pre event = SpongeEventFactory.createChangeBlockEventPre(cause,
+                new RegionLocationList((World) this.world, min, max), (World) this.world);
+        return !SpongeImpl.postEvent(event);
+    }
+
+    void setBlock(int x, int y, int z, BlockState block) {
+        final IBlockState newState = (IBlockState) block;
+        final Chunk chunk = getChunk(x >> 4, z >> 4);
+        final ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        ExtendedBlockStorage section = sections[y >> 4];
+        final IBlockState currentState = section == Chunk.NULL_BLOCK_STORAGE ? Blocks.AIR.getDefaultState() : section.get(x & 15, y & 15, z & 15);
+        if (currentState == newState) {
+            return;
+        }
+        if (SpongeImplHooks.blockHasTileEntity(currentState.getBlock(), currentState)
+                || SpongeImplHooks.blockHasTileEntity(newState.getBlock(), newState)) {
+            // Tile entities have to be created, refreshed or invalidated
+            chunk.setBlockState(new BlockPos(x, y, z), newState);
+        } else {
+            if (section == Chunk.NULL_BLOCK_STORAGE) {
+                if (newState.getBlock() == Blocks.AIR) {
+                    return;
+                }
+                section = sections[y >> 4] = new ExtendedBlockStorage(y >> 4 << 4, this.hasSky);
+            }
+            section.set(x & 15, y & 15, z & 15, newState);
+            if (currentState.getLightValue() != newState.getLightValue()) {
+                this.lightChanges.add(new BlockPos(x, y, z));
+            }
+        }
+        final long key = ChunkPos.chunkXZ2Int(chunk.xPosition, chunk.zPosition);
+        this.touchedSections.put(key, this.touchedSections.get(key) | 1 << (y >> 4));
+    }
+
+    private Chunk getChunk(int chunkX, int chunkZ) {
+        Chunk chunk = this.lastChunk;
+        if (chunk == null || chunk.xPosition != chunkX || chunk.zPosition != chunkZ) {
+            chunk = this.lastChunk = this.world.getChunkFromChunkCoords(chunkX, chunkZ);
+        }
+        return chunk;
+    }
+
+    /**
+     * Recalculates the lighting of the touched chunks and sends the changed
+     * sections to the players watching them.
+     */
+    void finish() {
+        final List<BlockPos> skyLightChanges = new ArrayList<>();
+        for (Long2IntMap.Entry entry : this.touchedSections.long2IntEntrySet()) {
+            final long key = entry.getLongKey();
+            final Chunk chunk = this.world.getChunkFromChunkCoords((int) key, (int) (key >>> 32));
+            final int[] heightMap = chunk.getHeightMap();
+            final int[] oldHeightMap = this.hasSky ? heightMap.clone() : null;
+            // Rebuilds the height map and the sky light of all columns at once
+            chunk.generateSkylightMap();
+            chunk.setChunkModified();
+            if (oldHeightMap != null) {
+                // The sky light below the old and new height of a column has
+                // to spread sideways, which generateSkylightMap doesn't do
+                for (int i = 0; i < heightMap.length; i++) {
+                    if (heightMap[i] != oldHeightMap[i]) {
+                        final int x = chunk.xPosition << 4 | i & 15;
+                        final int z = chunk.zPosition << 4 | i >> 4;
+                        final int maxY = Math.max(heightMap[i], oldHeightMap[i]);
+                        for (int y = Math.min(heightMap[i], oldHeightMap[i]); y < maxY; y++) {
+                            skyLightChanges.add(new BlockPos(x, y, z));
+                        }
+                    }
+                }
+            }
+        }
+        if (this.hasSky && this.min != null && this.max != null && !this.touchedSections.isEmpty()) {
+            addEdgeColumns(skyLightChanges, this.min, this.max);
+        }
+        for (BlockPos pos : this.lightChanges) {
+            this.world.checkLightFor(EnumSkyBlock.BLOCK, pos);
+        }
+        for (BlockPos pos : skyLightChanges) {
+            this.world.checkLightFor(EnumSkyBlock.SKY, pos);
+        }
+        for (Long2IntMap.Entry entry : this.touchedSections.long2IntEntrySet()) {
+            final long key = entry.getLongKey();
+            final int chunkX = (int) key;
+            final int chunkZ = (int) (key >>> 32);
+            final PlayerChunkMapEntry chunkEntry = this.world.getPlayerChunkMap().getEntry(chunkX, chunkZ);
+            if (chunkEntry != null && chunkEntry.isSentToPlayers()) {
+                chunkEntry.sendPacket(new SPacketChunkData(this.world.getChunkFromChunkCoords(chunkX, chunkZ), entry.getIntValue()));
+            }
+        }
+        this.touchedSections.clear();
+        this.lightChanges.clear();
+        this.lastChunk = null;
+    }
+
+    /**
+     * Adds the positions of the columns on the sides of the region, the sky
+     * light there has to be exchanged with the blocks outside of it.
+     */
+    private static void addEdgeColumns(List<BlockPos> positions, Vector3i min, Vector3i max) {
+        final int minY = Math.max(0, min.getY());
+        final int maxY = Math.min(255, max.getY());
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = min.getX(); x <= max.getX(); x++) {
+                positions.add(new BlockPos(x, y, min.getZ()));
+                if (max.getZ() != min.getZ()) {
+                    positions.add(new BlockPos(x, y, max.getZ()));
+                }
+            }
+            for (int z = min.getZ() + 1; z < max.getZ(); z++) {
+                positions.add(new BlockPos(min.getX(), y, z));
+                if (max.getX() != min.getX()) {
+                    positions.add(new BlockPos(max.getX(), y, z));
+                }
+            }
+        }
+    }
+
+    /**
+     * A lazy view of all the locations in a region, in the order the block
+     * workers visit them.
+     */
+    private static final class RegionLocationList extends AbstractList<Location<World>> {
+
+        private final World world;
+        private final Vector3i min;
+        private final int sizeX;
+        private final int sizeXY;
+        private final int size;
+
+        RegionLocationList(World world, Vector3i min, Vector3i max) {
+            this.world = world;
+            this.min = min;
+            final Vector3i size = max.sub(min).add(Vector3i.ONE);
+            this.sizeX = size.getX();
+            this.sizeXY = size.getX() * size.getY();
+            this.size = this.sizeXY * size.getZ();
+        }
+
+        @Override
+        public Location<World> get(int index) {
+            if (index < 0 || index >= this.size) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            final int z = index / this.sizeXY;
+            final int rest = index - z * this.sizeXY;
+            final int y = rest / this.sizeX;
+            final int x = rest - y * this.sizeX;
+            return new Location<>(this.world, this.min.getX() + x, this.min.getY() + y, this.min.getZ() + z);
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+
+}
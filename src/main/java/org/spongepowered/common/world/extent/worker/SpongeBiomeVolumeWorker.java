@@ -29,6 +29,7 @@
 import com.flowpowered.math.vector.Vector3i;
 import org.spongepowered.api.world.biome.BiomeType;
 import org.spongepowered.api.world.extent.BiomeVolume;
+import org.spongepowered.api.world.extent.ImmutableBiomeVolume;
 import org.spongepowered.api.world.extent.MutableBiomeVolume;
 import org.spongepowered.api.world.extent.UnmodifiableBiomeVolume;
 import org.spongepowered.api.world.extent.worker.BiomeVolumeWorker;
@@ -37,6 +38,7 @@
 import org.spongepowered.api.world.extent.worker.procedure.BiomeVolumeReducer;
 import org.spongepowered.api.world.extent.worker.procedure.BiomeVolumeVisitor;
 
+import java.util.List;
 import java.util.function.BiFunction;
 
 /**
@@ -68,6 +70,15 @@ public void map(BiomeVolumeMapper mapper, MutableBiomeVolume destination) {
         final int xMax = unmodifiableArea.getBiomeMax().getX();
         final int yMax = unmodifiableArea.getBiomeMax().getY();
         final int zMax = unmodifiableArea.getBiomeMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume) && VolumePartition.isThreadSafe(destination)) {
+            final List<VolumePartition> partitions = VolumePartition.split(unmodifiableArea.getBiomeMin(), unmodifiableArea.getBiomeMax());
+            if (partitions.size() > 1) {
+                // The partitions never share a column, so they can write to the destination directly
+                partitions.parallelStream().forEach(partition -> partition.forEach((x, y, z) ->
+                        destination.setBiome(x + xOffset, y + yOffset, z + zOffset, mapper.map(unmodifiableArea, x, y, z))));
+                return;
+            }
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -96,6 +107,16 @@ public void merge(BiomeVolume second, BiomeVolumeMerger merger, MutableBiomeVolu
         final int yMax = firstUnmodifiableArea.getBiomeMax().getY();
         final int zMax = firstUnmodifiableArea.getBiomeMax().getZ();
         final UnmodifiableBiomeVolume secondUnmodifiableArea = second.getUnmodifiableBiomeView();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume) && VolumePartition.isThreadSafe(second)
+                && VolumePartition.isThreadSafe(destination)) {
+            final List<VolumePartition> partitions = VolumePartition.split(firstUnmodifiableArea.getBiomeMin(), firstUnmodifiableArea.getBiomeMax());
+            if (partitions.size() > 1) {
+                partitions.parallelStream().forEach(partition -> partition.forEach((x, y, z) -> destination.setBiome(x + xOffsetDestination,
+                        y + yOffsetDestination, z + zOffsetDestination, merger.merge(firstUnmodifiableArea, x, y, z, secondUnmodifiableArea,
+                                x + xOffsetSecond, y + yOffsetSecond, z + zOffsetSecond))));
+                return;
+            }
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -115,6 +136,14 @@ public void iterate(BiomeVolumeVisitor<V> visitor) {
         final int xMax = this.volume.getBiomeMax().getX();
         final int yMax = this.volume.getBiomeMax().getY();
         final int zMax = this.volume.getBiomeMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume)
+                && (this.volume instanceof ImmutableBiomeVolume || this.volume instanceof UnmodifiableBiomeVolume)) {
+            final List<VolumePartition> partitions = VolumePartition.split(this.volume.getBiomeMin(), this.volume.getBiomeMax());
+            if (partitions.size() > 1) {
+                partitions.parallelStream().forEach(partition -> partition.forEach((x, y, z) -> visitor.visit(this.volume, x, y, z)));
+                return;
+            }
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -133,6 +162,14 @@ public <T> T reduce(BiomeVolumeReducer<T> reducer, BiFunction<T, T, T> merge, T
         final int xMax = unmodifiableArea.getBiomeMax().getX();
         final int yMax = unmodifiableArea.getBiomeMax().getY();
         final int zMax = unmodifiableArea.getBiomeMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume)) {
+            final List<VolumePartition> partitions = VolumePartition.split(unmodifiableArea.getBiomeMin(), unmodifiableArea.getBiomeMax());
+            if (partitions.size() > 1) {
+                return partitions.parallelStream()
+                        .map(partition -> partition.reduce((x, y, z, reduction) -> reducer.reduce(unmodifiableArea, x, y, z, reduction), identity))
+                        .reduce(identity, merge::apply);
+            }
+        }
         T reduction = identity;
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
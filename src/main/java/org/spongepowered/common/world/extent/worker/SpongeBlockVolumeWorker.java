@@ -27,11 +27,13 @@
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.flowpowered.math.vector.Vector3i;
+import net.minecraft.world.WorldServer;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.event.cause.NamedCause;
 import org.spongepowered.api.world.Chunk;
 import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.api.world.extent.ImmutableBlockVolume;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.UnmodifiableBlockVolume;
 import org.spongepowered.api.world.extent.worker.BlockVolumeWorker;
@@ -45,7 +47,10 @@
 import org.spongepowered.common.event.tracking.phase.plugin.PluginPhase;
 import org.spongepowered.common.interfaces.world.IMixinWorldServer;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 /**
  *
@@ -78,8 +83,36 @@ public void map(BlockVolumeMapper mapper, MutableBlockVolume destination) {
         final int xMax = unmodifiableVolume.getBlockMax().getX();
         final int yMax = unmodifiableVolume.getBlockMax().getY();
         final int zMax = unmodifiableVolume.getBlockMax().getZ();
-        // TODO integrate with the cause tracker to handle the block sets in
-        // a single go, requiring only one event
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume) && VolumePartition.isThreadSafe(destination)) {
+            final List<VolumePartition> partitions = VolumePartition.split(unmodifiableVolume.getBlockMin(), unmodifiableVolume.getBlockMax());
+            if (partitions.size() > 1) {
+                // The palette of the destination isn't thread safe, so only the mapper runs in parallel
+                final List<List<BlockState>> results = partitions.parallelStream()
+                        .map(partition -> partition.map((x, y, z) -> mapper.map(unmodifiableVolume, x, y, z)))
+                        .collect(Collectors.toList());
+                for (int i = 0; i < partitions.size(); i++) {
+                    final Iterator<BlockState> blocks = results.get(i).iterator();
+                    partitions.get(i).forEach((x, y, z) -> destination.setBlock(x + xOffset, y + yOffset, z + zOffset, blocks.next(), this.cause));
+                }
+                return;
+            }
+        }
+        final WorldServer bulkTarget = BulkBlockWriter.isEnabled() ? BulkBlockWriter.getTarget(destination) : null;
+        if (bulkTarget != null) {
+            final BulkBlockWriter writer = new BulkBlockWriter(bulkTarget);
+            if (!writer.firePreEvent(unmodifiableVolume.getBlockMin().add(offset), unmodifiableVolume.getBlockMax().add(offset), this.cause)) {
+                return;
+            }
+            for (int z = zMin; z <= zMax; z++) {
+                for (int y = yMin; y <= yMax; y++) {
+                    for (int x = xMin; x <= xMax; x++) {
+                        writer.setBlock(x + xOffset, y + yOffset, z + zOffset, mapper.map(unmodifiableVolume, x, y, z));
+                    }
+                }
+            }
+            writer.finish();
+            return;
+        }
         IMixinWorldServer mixinWorld = null;
         if (CauseTracker.ENABLED) {
             mixinWorld = null;
@@ -129,8 +162,42 @@ public void merge(BlockVolume second, BlockVolumeMerger merger, MutableBlockVolu
         final int yMax = firstUnmodifiableVolume.getBlockMax().getY();
         final int zMax = firstUnmodifiableVolume.getBlockMax().getZ();
         final UnmodifiableBlockVolume secondUnmodifiableVolume = second.getUnmodifiableBlockView();
-        // TODO integrate with the cause tracker to handle the block sets in
-        // a single go, requiring only one event
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume) && VolumePartition.isThreadSafe(second)
+                && VolumePartition.isThreadSafe(destination)) {
+            final List<VolumePartition> partitions = VolumePartition.split(firstUnmodifiableVolume.getBlockMin(),
+                    firstUnmodifiableVolume.getBlockMax());
+            if (partitions.size() > 1) {
+                final List<List<BlockState>> results = partitions.parallelStream()
+                        .map(partition -> partition.map((x, y, z) -> merger.merge(firstUnmodifiableVolume, x, y, z,
+                                secondUnmodifiableVolume, x + xOffsetSecond, y + yOffsetSecond, z + zOffsetSecond)))
+                        .collect(Collectors.toList());
+                for (int i = 0; i < partitions.size(); i++) {
+                    final Iterator<BlockState> blocks = results.get(i).iterator();
+                    partitions.get(i).forEach((x, y, z) -> destination.setBlock(x + xOffsetDestination, y + yOffsetDestination,
+                            z + zOffsetDestination, blocks.next(), this.cause));
+                }
+                return;
+            }
+        }
+        final WorldServer bulkTarget = BulkBlockWriter.isEnabled() ? BulkBlockWriter.getTarget(destination) : null;
+        if (bulkTarget != null) {
+            final BulkBlockWriter writer = new BulkBlockWriter(bulkTarget);
+            if (!writer.firePreEvent(firstUnmodifiableVolume.getBlockMin().add(offsetDestination),
+                    firstUnmodifiableVolume.getBlockMax().add(offsetDestination), this.cause)) {
+                return;
+            }
+            for (int z = zMin; z <= zMax; z++) {
+                for (int y = yMin; y <= yMax; y++) {
+                    for (int x = xMin; x <= xMax; x++) {
+                        final BlockState block = merger.merge(firstUnmodifiableVolume, x, y, z,
+                            secondUnmodifiableVolume, x + xOffsetSecond, y + yOffsetSecond, z + zOffsetSecond);
+                        writer.setBlock(x + xOffsetDestination, y + yOffsetDestination, z + zOffsetDestination, block);
+                    }
+                }
+            }
+            writer.finish();
+            return;
+        }
         if (CauseTracker.ENABLED && destination instanceof IMixinWorldServer) {
             final CauseTracker causeTracker = ((IMixinWorldServer) destination).getCauseTracker();
             causeTracker.switchToPhase(PluginPhase.State.BLOCK_WORKER, PhaseContext.start()
@@ -160,6 +227,14 @@ public void iterate(BlockVolumeVisitor<V> visitor) {
         final int xMax = this.volume.getBlockMax().getX();
         final int yMax = this.volume.getBlockMax().getY();
         final int zMax = this.volume.getBlockMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume)
+                && (this.volume instanceof ImmutableBlockVolume || this.volume instanceof UnmodifiableBlockVolume)) {
+            final List<VolumePartition> partitions = VolumePartition.split(this.volume.getBlockMin(), this.volume.getBlockMax());
+            if (partitions.size() > 1) {
+                partitions.parallelStream().forEach(partition -> partition.forEach((x, y, z) -> visitor.visit(this.volume, x, y, z)));
+                return;
+            }
+        }
         IMixinWorldServer mixinWorld = null;
         if (this.volume instanceof IMixinWorldServer) {
             mixinWorld = (IMixinWorldServer) this.volume;
@@ -194,6 +269,14 @@ public <T> T reduce(BlockVolumeReducer<T> reducer, BiFunction<T, T, T> merge, T
         final int xMax = unmodifiableVolume.getBlockMax().getX();
         final int yMax = unmodifiableVolume.getBlockMax().getY();
         final int zMax = unmodifiableVolume.getBlockMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume)) {
+            final List<VolumePartition> partitions = VolumePartition.split(unmodifiableVolume.getBlockMin(), unmodifiableVolume.getBlockMax());
+            if (partitions.size() > 1) {
+                return partitions.parallelStream()
+                        .map(partition -> partition.reduce((x, y, z, reduction) -> reducer.reduce(unmodifiableVolume, x, y, z, reduction), identity))
+                        .reduce(identity, merge::apply);
+            }
+        }
         T reduction = identity;
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
@@ -29,6 +29,8 @@
 import org.spongepowered.api.world.extent.worker.MutableBiomeVolumeWorker;
 import org.spongepowered.api.world.extent.worker.procedure.BiomeVolumeFiller;
 
+import java.util.List;
+
 /**
  *
  */
@@ -46,6 +48,13 @@ public void fill(BiomeVolumeFiller filler) {
         final int xMax = this.volume.getBiomeMax().getX();
         final int yMax = this.volume.getBiomeMax().getY();
         final int zMax = this.volume.getBiomeMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume)) {
+            final List<VolumePartition> partitions = VolumePartition.split(this.volume.getBiomeMin(), this.volume.getBiomeMax());
+            if (partitions.size() > 1) {
+                partitions.parallelStream().forEach(partition -> partition.forEach((x, y, z) -> this.volume.setBiome(x, y, z, filler.produce(x, y, z))));
+                return;
+            }
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -24,12 +24,17 @@
  */
 package org.spongepowered.common.world.extent.worker;
 
+import net.minecraft.world.WorldServer;
 import org.spongepowered.api.block.BlockState;
 import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.world.extent.MutableBlockVolume;
 import org.spongepowered.api.world.extent.worker.MutableBlockVolumeWorker;
 import org.spongepowered.api.world.extent.worker.procedure.BlockVolumeFiller;
 
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  *
  */
@@ -47,6 +52,35 @@ public void fill(BlockVolumeFiller filler, Cause cause) {
         final int xMax = this.volume.getBlockMax().getX();
         final int yMax = this.volume.getBlockMax().getY();
         final int zMax = this.volume.getBlockMax().getZ();
+        if (VolumePartition.isEnabled() && VolumePartition.isThreadSafe(this.volume)) {
+            final List<VolumePartition> partitions = VolumePartition.split(this.volume.getBlockMin(), this.volume.getBlockMax());
+            if (partitions.size() > 1) {
+                final List<List<BlockState>> results = partitions.parallelStream()
+                        .map(partition -> partition.map(filler::produce))
+                        .collect(Collectors.toList());
+                for (int i = 0; i < partitions.size(); i++) {
+                    final Iterator<BlockState> blocks = results.get(i).iterator();
+                    partitions.get(i).forEach((x, y, z) -> this.volume.setBlock(x, y, z, blocks.next(), cause));
+                }
+                return;
+            }
+        }
+        final WorldServer bulkTarget = BulkBlockWriter.isEnabled() ? BulkBlockWriter.getTarget(this.volume) : null;
+        if (bulkTarget != null) {
+            final BulkBlockWriter writer = new BulkBlockWriter(bulkTarget);
+            if (!writer.firePreEvent(this.volume.getBlockMin(), this.volume.getBlockMax(), cause)) {
+                return;
+            }
+            for (int z = zMin; z <= zMax; z++) {
+                for (int y = yMin; y <= yMax; y++) {
+                    for (int x = xMin; x <= xMax; x++) {
+                        writer.setBlock(x, y, z, filler.produce(x, y, z));
+                    }
+                }
+            }
+            writer.finish();
+            return;
+        }
         for (int z = zMin; z <= zMax; z++) {
             for (int y = yMin; y <= yMax; y++) {
                 for (int x = xMin; x <= xMax; x++) {
@@ -0,0 +1,143 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.extent.worker;
+
+import com.flowpowered.math.vector.Vector3i;
+import org.spongepowered.api.world.extent.BiomeVolume;
+import org.spongepowered.api.world.extent.BlockVolume;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.util.gen.AbstractBiomeBuffer;
+import org.spongepowered.common.util.gen.AbstractBlockBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chunk aligned column of a volume, used by the volume workers to spread
+ * their work over the common fork join pool.
+ *
+ * <p>Only off-world buffers are worked on in parallel. Live worlds and the
+ * views over them are always worked on by the calling thread.</p>
+ */
+final class VolumePartition {
+
+    static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useParallelVolumeWorkers();
+    }
+
+    static boolean isThreadSafe(BlockVolume volume) {
+        return volume instanceof AbstractBlockBuffer;
+    }
+
+    static boolean isThreadSafe(BiomeVolume volume) {
+        return volume instanceof AbstractBiomeBuffer;
+    }
+
+    /**
+     * Splits the region between the given positions into columns which are
+     * aligned to the chunk grid.
+     *
+     * @param min The lowest position of the region
+     * @param max The highest position of the region
+     * @return The partitions, in the z, x order of the columns
+     */
+    static List<VolumePartition> split(Vector3i min, Vector3i max) {
+        final List<VolumePartition> partitions = new ArrayList<>();
+        for (int z = min.getZ(); z <= max.getZ(); z = (z & ~15) + 16) {
+            final int zEnd = Math.min((z & ~15) + 15, max.getZ());
+            for (int x = min.getX(); x <= max.getX(); x = (x & ~15) + 16) {
+                final int xEnd = Math.min((x & ~15) + 15, max.getX());
+                partitions.add(new VolumePartition(x, min.getY(), z, xEnd, max.getY(), zEnd));
+            }
+        }
+        return partitions;
+    }
+
+    private final int xMin;
+    private final int yMin;
+    private final int zMin;
+    private final int xMax;
+    private final int yMax;
+    private final int zMax;
+
+    private VolumePartition(int xMin, int yMin, int zMin, int xMax, int yMax, int zMax) {
+        this.xMin = xMin;
+        this.yMin = yMin;
+        this.zMin = zMin;
+        this.xMax = xMax;
+        this.yMax = yMax;
+        this.zMax = zMax;
+    }
+
+    void forEach(PositionVisitor visitor) {
+        for (int z = this.zMin; z <= this.zMax; z++) {
+            for (int y = this.yMin; y <= this.yMax; y++) {
+                for (int x = this.xMin; x <= this.xMax; x++) {
+                    visitor.visit(x, y, z);
+                }
+            }
+        }
+    }
+
+    <T> List<T> map(PositionFunction<T> function) {
+        final List<T> values = new ArrayList<>((this.xMax - this.xMin + 1) * (this.yMax - this.yMin + 1) * (this.zMax - this.zMin + 1));
+        forEach((x, y, z) -> values.add(function.apply(x, y, z)));
+        return values;
+    }
+
+    <T> T reduce(PositionReducer<T> reducer, T identity) {
+        T reduction = identity;
+        for (int z = this.zMin; z <= this.zMax; z++) {
+            for (int y = this.yMin; y <= this.yMax; y++) {
+                for (int x = this.xMin; x <= this.xMax; x++) {
+                    reduction = reducer.reduce(x, y, z, reduction);
+                }
+            }
+        }
+        return reduction;
+    }
+
+    @FunctionalInterface
+    interface PositionVisitor {
+
+        void visit(int x, int y, int z);
+
+    }
+
+    @FunctionalInterface
+    interface PositionFunction<T> {
+
+        T apply(int x, int y, int z);
+
+    }
+
+    @FunctionalInterface
+    interface PositionReducer<T> {
+
+        T reduce(int x, int y, int z, T reduction);
+
+    }
+
+}
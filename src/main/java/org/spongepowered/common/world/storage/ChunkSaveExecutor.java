@@ -0,0 +1,135 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.config.category.OptimizationCategory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared pool of threads compressing and writing chunks to their region
+ * files when asynchronous chunk saving is enabled.
+ *
+ * <p>Chunks are serialized to NBT on the main thread and handed to this pool
+ * by the chunk loader of their world, which also bounds the amount of chunks
+ * that may wait to be written.</p>
+ */
+public final class ChunkSaveExecutor {
+
+    private static final Object lock = new Object();
+    private static final AtomicInteger pendingTasks = new AtomicInteger();
+    private static volatile ExecutorService executor;
+    private static int queueLimit;
+
+    private ChunkSaveExecutor() {
+    }
+
+    /**
+     * Gets whether chunks should be written by this pool instead of the
+     * vanilla file I/O thread.
+     *
+     * @return Whether asynchronous chunk saving is enabled
+     */
+    public static boolean isEnabled() {
+        return SpongeImpl.getGlobalConfig().getConfig().getOptimizations().useAsyncChunkSaving();
+    }
+
+    /**
+     * Gets the amount of chunks of a single world that may wait to be
+     * written before they are written directly by the thread saving them.
+     *
+     * @return The queue limit
+     */
+    public static int getQueueLimit() {
+        getExecutor();
+        return queueLimit;
+    }
+
+    /**
+     * Submits a chunk write to the pool.
+     *
+     * @param task The task writing the chunk
+     */
+    public static void submit(Runnable task) {
+        pendingTasks.incrementAndGet();
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    if (pendingTasks.decrementAndGet() == 0) {
+                        synchronized (lock) {
+                            lock.notifyAll();
+                        }
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            pendingTasks.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until every submitted chunk write has been completed.
+     */
+    public static void awaitPending() {
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (pendingTasks.get() > 0) {
+                try {
+                    lock.wait(100);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ExecutorService getExecutor() {
+        ExecutorService executor = ChunkSaveExecutor.executor;
+        if (executor == null) {
+            synchronized (lock) {
+                executor = ChunkSaveExecutor.executor;
+                if (executor == null) {
+                    OptimizationCategory config = SpongeImpl.getGlobalConfig().getConfig().getOptimizations();
+                    queueLimit = Math.max(1, config.getAsyncChunkSaveQueueLimit());
+                    executor = Executors.newFixedThreadPool(Math.max(1, config.getAsyncChunkSaveThreads()),
+                            new ThreadFactoryBuilder().setNameFormat("Sponge - Chunk I/O #%d").setDaemon(true).build());
+                    ChunkSaveExecutor.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+}
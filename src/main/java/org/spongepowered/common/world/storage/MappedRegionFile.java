@@ -0,0 +1,151 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import org.spongepowered.api.data.DataContainer;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A read-only view of a region file which is memory mapped as a whole.
+ *
+ * <p>Unlike {@link net.minecraft.world.chunk.storage.RegionFile} this holds
+ * no file handle and no lock, so chunks can be read from any amount of
+ * threads at the same time.</p>
+ */
+final class MappedRegionFile {
+
+    private static final int SECTOR_SIZE = 4096;
+    private static final int CHUNK_COUNT = 1024;
+    private static final int COMPRESSION_GZIP = 1;
+    private static final int COMPRESSION_ZLIB = 2;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int[] offsets = new int[CHUNK_COUNT];
+
+    MappedRegionFile(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (this.buffer.capacity() >= SECTOR_SIZE) {
+            ByteBuffer header = this.buffer.duplicate();
+            header.order(ByteOrder.BIG_ENDIAN);
+            header.asIntBuffer().get(this.offsets);
+        }
+    }
+
+    /**
+     * Counts the chunks of a region file from its offset table, without
+     * reading anything else.
+     *
+     * @param path The region file
+     * @return The amount of chunks in the file
+     * @throws IOException If the file can't be read
+     */
+    static int countChunks(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(SECTOR_SIZE);
+            while (header.hasRemaining() && channel.read(header) != -1) {
+                // Read the whole offset table
+            }
+            if (header.hasRemaining()) {
+                return 0;
+            }
+            header.flip();
+            IntBuffer offsets = header.asIntBuffer();
+            int count = 0;
+            for (int i = 0; i < CHUNK_COUNT; i++) {
+                if (offsets.get(i) != 0) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    Path getPath() {
+        return this.path;
+    }
+
+    boolean hasChunk(int index) {
+        return this.offsets[index] != 0;
+    }
+
+    /**
+     * Reads and parses the chunk at the index of the offset table.
+     *
+     * @param index The index of the chunk
+     * @return The chunk data, or null if the chunk is missing or invalid
+     * @throws IOException If the chunk data can't be read
+     */
+    DataContainer readChunk(int index) throws IOException {
+        int offset = this.offsets[index];
+        if (offset == 0) {
+            return null;
+        }
+        int position = (offset >>> 8) * SECTOR_SIZE;
+        int sectors = offset & 0xFF;
+        if (position + 5 > this.buffer.capacity()) {
+            return null;
+        }
+        ByteBuffer chunk = this.buffer.duplicate();
+        chunk.order(ByteOrder.BIG_ENDIAN);
+        chunk.position(position);
+        int length = chunk.getInt();
+        if (length <= 1 || length > sectors * SECTOR_SIZE || chunk.position() + length > chunk.capacity()) {
+            return null;
+        }
+        int compression = chunk.get();
+        byte[] data = new byte[length - 1];
+        chunk.get(data);
+
+        final InputStream in;
+        if (compression == COMPRESSION_GZIP) {
+            in = new GZIPInputStream(new ByteArrayInputStream(data));
+        } else if (compression == COMPRESSION_ZLIB) {
+            in = new InflaterInputStream(new ByteArrayInputStream(data));
+        } else {
+            return null;
+        }
+        try (DataInputStream stream = new DataInputStream(in)) {
+            return WorldStorageUtil.readDataFromRegion(stream);
+        }
+    }
+
+}
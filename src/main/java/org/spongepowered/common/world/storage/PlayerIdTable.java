@@ -0,0 +1,299 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import org.spongepowered.common.SpongeImpl;
+import org.spongepowered.common.data.util.NbtDataUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+/**
+ * The table of a world which maps the player unique ids used by block
+ * tracking to small indexes.
+ *
+ * <p>Unique ids are kept as pairs of longs, indexed by their index, with an
+ * open addressed table of indexes for the reverse lookup. The table is
+ * persisted in a file next to the level data which only has ids appended
+ * to it, the level data only stores the name and version of that file and
+ * the amount of ids written to it.</p>
+ */
+public final class PlayerIdTable {
+
+    public static final String FILE_NAME = "level_sponge_players.dat";
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x53504944; // SPID
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] mostSigBits = new long[16];
+    private long[] leastSigBits = new long[16];
+    private int size;
+    // Index + 1 of the unique id in each slot, 0 if the slot is free
+    private int[] slots = new int[32];
+    private int mask = 31;
+
+    private int persistedCount;
+    // Set when the ids were migrated from the level data, the file has to be
+    // written from scratch in that case
+    private boolean rewrite;
+
+    public int size() {
+        return this.size;
+    }
+
+    public int getPersistedCount() {
+        return this.persistedCount;
+    }
+
+    @Nullable
+    public UUID getUniqueId(int index) {
+        if (index < 0 || index >= this.size) {
+            return null;
+        }
+        return new UUID(this.mostSigBits[index], this.leastSigBits[index]);
+    }
+
+    /**
+     * Gets the index of the unique id, adding it to the table if it isn't
+     * present yet.
+     *
+     * @param uniqueId The unique id
+     * @return The index
+     */
+    public int getOrCreateIndex(UUID uniqueId) {
+        final long most = uniqueId.getMostSignificantBits();
+        final long least = uniqueId.getLeastSignificantBits();
+        int slot = slot(most, least);
+        int entry;
+        while ((entry = this.slots[slot]) != 0) {
+            if (this.mostSigBits[entry - 1] == most && this.leastSigBits[entry - 1] == least) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        final int index = append(most, least);
+        this.slots[slot] = index + 1;
+        if (this.size > (this.mask + 1) * LOAD_FACTOR) {
+            rehash();
+        }
+        return index;
+    }
+
+    /**
+     * Reads the ids from the list which was stored in the level data before
+     * the ids were moved to their own file.
+     *
+     * @param list The list of unique ids
+     */
+    public void loadLegacy(NBTTagList list) {
+        clear();
+        for (int i = 0; i < list.tagCount(); i++) {
+            final UUID uniqueId = list.getCompoundTagAt(i).getUniqueId(NbtDataUtil.UUID);
+            append(uniqueId.getMostSignificantBits(), uniqueId.getLeastSignificantBits());
+        }
+        rehash();
+        this.rewrite = true;
+    }
+
+    /**
+     * Gets whether the ids were migrated from the level data and haven't
+     * been written to the table file yet. The level data has to keep the
+     * ids until then.
+     *
+     * @return Whether the migration is pending
+     */
+    public boolean isMigrationPending() {
+        return this.rewrite;
+    }
+
+    /**
+     * Writes the ids to a list in the format of the level data, used until
+     * a migration has been saved.
+     *
+     * @return The list of unique ids
+     */
+    public NBTTagList saveLegacy() {
+        final NBTTagList list = new NBTTagList();
+        for (int i = 0; i < this.size; i++) {
+            final NBTTagCompound compound = new NBTTagCompound();
+            compound.setUniqueId(NbtDataUtil.UUID, new UUID(this.mostSigBits[i], this.leastSigBits[i]));
+            list.appendTag(compound);
+        }
+        return list;
+    }
+
+    /**
+     * Reads the ids from the table file, unless they were already migrated
+     * from the level data.
+     *
+     * @param file The table file
+     * @param expectedCount The amount of ids the level data says were written
+     * @throws IOException If the file can't be read
+     */
+    public void load(Path file, int expectedCount) throws IOException {
+        if (this.rewrite || !Files.exists(file)) {
+            if (expectedCount > 0 && !this.rewrite) {
+                SpongeImpl.getLogger().error("The player id table {} is missing, {} tracked players are lost", file, expectedCount);
+            }
+            return;
+        }
+        clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a player id table: " + file);
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported player id table version " + version + ": " + file);
+            }
+            // An incomplete record at the end is from an interrupted append
+            while (buffer.remaining() >= RECORD_SIZE) {
+                append(buffer.getLong(), buffer.getLong());
+            }
+        }
+        rehash();
+        this.persistedCount = this.size;
+        if (this.size < expectedCount) {
+            SpongeImpl.getLogger().error("The player id table {} has {} of {} tracked players", file, this.size, expectedCount);
+        }
+    }
+
+    /**
+     * Appends the ids added since the last save to the table file.
+     *
+     * @param file The table file
+     * @throws IOException If the file can't be written
+     */
+    public void save(Path file) throws IOException {
+        if (this.rewrite) {
+            final Path tmpFile = file.resolveSibling(file.getFileName() + "_new");
+            try (FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeHeader(channel);
+                writeRecords(channel, 0, this.size);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            this.persistedCount = this.size;
+            this.rewrite = false;
+            return;
+        }
+        if (this.persistedCount == this.size && Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                channel.truncate(0);
+                writeHeader(channel);
+            } else {
+                // Drop an incomplete record left by an interrupted append
+                channel.position(HEADER_SIZE + (long) this.persistedCount * RECORD_SIZE);
+                channel.truncate(channel.position());
+            }
+            writeRecords(channel, this.persistedCount, this.size);
+            channel.force(false);
+        }
+        this.persistedCount = this.size;
+    }
+
+    private void writeHeader(FileChannel channel) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private void writeRecords(FileChannel channel, int from, int to) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024 * RECORD_SIZE);
+        for (int index = from; index < to; index++) {
+            buffer.putLong(this.mostSigBits[index]);
+            buffer.putLong(this.leastSigBits[index]);
+            if (!buffer.hasRemaining() || index == to - 1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    private int append(long most, long least) {
+        if (this.size == this.mostSigBits.length) {
+            this.mostSigBits = Arrays.copyOf(this.mostSigBits, this.size * 2);
+            this.leastSigBits = Arrays.copyOf(this.leastSigBits, this.size * 2);
+        }
+        this.mostSigBits[this.size] = most;
+        this.leastSigBits[this.size] = least;
+        return this.size++;
+    }
+
+    private void clear() {
+        this.size = 0;
+        this.persistedCount = 0;
+        this.rewrite = false;
+        Arrays.fill(this.slots, 0);
+    }
+
+    private int slot(long most, long least) {
+        return (int) HashCommon.mix(most ^ least) & this.mask;
+    }
+
+    private void rehash() {
+        int capacity = this.mask + 1;
+        while (this.size > capacity * LOAD_FACTOR) {
+            capacity *= 2;
+        }
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int index = 0; index < this.size; index++) {
+            int slot = slot(this.mostSigBits[index], this.leastSigBits[index]);
+            while (this.slots[slot] != 0) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.slots[slot] = index + 1;
+        }
+    }
+
+}
@@ -25,31 +25,48 @@
 package org.spongepowered.common.world.storage;
 
 import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import net.minecraft.world.chunk.storage.RegionFile;
 import org.spongepowered.api.data.DataContainer;
 import org.spongepowered.api.world.storage.ChunkDataStream;
 
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
 
 public class SpongeChunkDataStream implements ChunkDataStream {
 
     private static class RegionFileItr {
 
-        private final RegionFile file;
+        private final File file;
+        private final int[] offsets;
         public int index;
 
-        public RegionFileItr(RegionFile regionFile) {
-            this.file = regionFile;
+        public RegionFileItr(File file) {
+            this.file = file;
+            // Only keep the file open while it is read, it may be evicted from
+            // the region file cache in between
+            RegionFile regionFile = SpongeRegionFileCache.acquire(file);
+            try {
+                this.offsets = regionFile.offsets.clone();
+            } finally {
+                SpongeRegionFileCache.release(regionFile);
+            }
         }
 
         public int getNext() {
             int index = this.index;
-            int[] offsets = this.file.offsets;
+            int[] offsets = this.offsets;
             while (index != -1 && index < offsets.length && offsets[index] == 0) {
                 index++;
             }
@@ -62,7 +79,12 @@ public int getNext() {
         public DataInputStream getStreamAt(int index) {
             int x = index & 31;
             int z = index >>> 5;
-            return this.file.getChunkDataInputStream(x, z);
+            RegionFile regionFile = SpongeRegionFileCache.acquire(this.file);
+            try {
+                return regionFile.getChunkDataInputStream(x, z);
+            } finally {
+                SpongeRegionFileCache.release(regionFile);
+            }
         }
 
     }
@@ -82,7 +104,7 @@ private boolean itrAvailable() {
         Iterable<Path> files = WorldStorageUtil.listRegionFiles(this.worldDir);
         for (Path file : files) {
             if (!this.openedFiles.contains(file)) {
-                this.regionFileItr = new RegionFileItr(WorldStorageUtil.getRegionFile(file));
+                this.regionFileItr = new RegionFileItr(file.toFile());
                 this.openedFiles.add(file);
                 return true;
             }
@@ -124,23 +146,81 @@ public boolean hasNext() {
 
     @Override
     public int available() {
-        // Advance to the end of the stream, counting along the way. Store
-        // previous state and reset to it afterwards.
-        RegionFileItr currentItr = this.regionFileItr;
-        Set<Path> currentOpenedFiles = Sets.newHashSet(this.openedFiles);
+        // The rest of the current file, and the offset tables of the files
+        // which weren't opened yet
         int count = 0;
-        int index = getNextIndex();
-        while (index != -1) {
-            count++;
-            this.regionFileItr.index = index + 1;
-            index = getNextIndex();
+        if (this.regionFileItr != null) {
+            int[] offsets = this.regionFileItr.offsets;
+            for (int index = this.regionFileItr.index; index < offsets.length; index++) {
+                if (offsets[index] != 0) {
+                    count++;
+                }
+            }
+        }
+        for (Path file : WorldStorageUtil.listRegionFiles(this.worldDir)) {
+            if (!this.openedFiles.contains(file)) {
+                try {
+                    count += MappedRegionFile.countChunks(file);
+                } catch (IOException e) {
+                    throw Throwables.propagate(e);
+                }
+            }
         }
-        this.regionFileItr = currentItr;
-        this.openedFiles.clear();
-        this.openedFiles.addAll(currentOpenedFiles);
         return count;
     }
 
+    /**
+     * Creates a parallel stream of the data of all chunks in the world,
+     * independent of the state of this stream.
+     *
+     * <p>The region files are memory mapped and only their offset tables are
+     * read up front. Chunks are inflated and parsed on the common fork-join
+     * pool as the stream is consumed, chunks with invalid data are
+     * skipped.</p>
+     *
+     * @return The parallel stream of chunk data
+     */
+    public Stream<DataContainer> parallelStream() {
+        List<ChunkRef> chunks = Lists.newArrayList();
+        for (Path file : WorldStorageUtil.listRegionFiles(this.worldDir)) {
+            MappedRegionFile regionFile;
+            try {
+                regionFile = new MappedRegionFile(file);
+            } catch (IOException e) {
+                throw Throwables.propagate(e);
+            }
+            for (int index = 0; index < 1024; index++) {
+                if (regionFile.hasChunk(index)) {
+                    chunks.add(new ChunkRef(regionFile, index));
+                }
+            }
+        }
+        return chunks.parallelStream()
+                .map(ChunkRef::read)
+                .filter(Objects::nonNull);
+    }
+
+    private static final class ChunkRef {
+
+        private final MappedRegionFile file;
+        private final int index;
+
+        ChunkRef(MappedRegionFile file, int index) {
+            this.file = file;
+            this.index = index;
+        }
+
+        @Nullable
+        DataContainer read() {
+            try {
+                return this.file.readChunk(this.index);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read chunk " + this.index + " of " + this.file.getPath(), e);
+            }
+        }
+
+    }
+
     @Override
     public void reset() {
         this.regionFileItr = null;
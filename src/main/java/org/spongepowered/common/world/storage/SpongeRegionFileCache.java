@@ -0,0 +1,323 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import net.minecraft.world.chunk.storage.RegionFile;
+import org.spongepowered.common.SpongeImpl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * The cache of open region files, replacing the one of
+ * {@link net.minecraft.world.chunk.storage.RegionFileCache}.
+ *
+ * <p>Vanilla closes every open region file once 256 of them are open, after
+ * which the files which are still in use have to be opened again. This cache
+ * instead only closes the least recently used file once its capacity is
+ * reached. It is shared by the chunk loaders, the chunk data streams and the
+ * chunk data queries of the storage API, so a region file is never opened
+ * twice with diverging offset tables.</p>
+ *
+ * <p>Files which are in use by another thread are pinned through
+ * {@link #acquire(File)} and {@link #release(RegionFile)} and aren't closed
+ * until they are released. The cache may grow past its capacity while all
+ * its files are in use.</p>
+ */
+public final class SpongeRegionFileCache {
+
+    private static final Object lock = new Object();
+    // Access ordered, the eldest entry is the least recently used file
+    private static final LinkedHashMap<File, RegionFile> regionFiles = new LinkedHashMap<>(16, 0.75f, true);
+    // The number of users of each acquired file
+    private static final Map<RegionFile, Integer> users = new IdentityHashMap<>();
+    // Files which were cleared while in use, closed once they are released
+    private static final Map<RegionFile, Boolean> closeOnRelease = new IdentityHashMap<>();
+    private static int capacity;
+
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+
+    private SpongeRegionFileCache() {
+    }
+
+    /**
+     * Gets the region file of the given chunk, opening it if it isn't open
+     * yet.
+     *
+     * @param worldDir The directory of the world
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The region file
+     */
+    public static RegionFile get(File worldDir, int chunkX, int chunkZ) {
+        File regionDir = new File(worldDir, "region");
+        File file = new File(regionDir, "r." + (chunkX >> 5) + "." + (chunkZ >> 5) + ".mca");
+        synchronized (lock) {
+            RegionFile regionFile = regionFiles.get(file);
+            if (regionFile != null) {
+                hits++;
+                return regionFile;
+            }
+            if (!regionDir.exists()) {
+                regionDir.mkdirs();
+            }
+            return open(file);
+        }
+    }
+
+    /**
+     * Gets the region file of the given chunk like
+     * {@link #get(File, int, int)} and keeps it open until it is
+     * {@link #release(RegionFile) released}.
+     *
+     * @param worldDir The directory of the world
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The region file
+     */
+    public static RegionFile acquire(File worldDir, int chunkX, int chunkZ) {
+        synchronized (lock) {
+            return pin(get(worldDir, chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Gets the region file at the given path like {@link #get(File)} and
+     * keeps it open until it is {@link #release(RegionFile) released}.
+     *
+     * @param file The region file
+     * @return The region file
+     */
+    public static RegionFile acquire(File file) {
+        synchronized (lock) {
+            return pin(get(file));
+        }
+    }
+
+    private static RegionFile pin(RegionFile regionFile) {
+        users.merge(regionFile, 1, Integer::sum);
+        return regionFile;
+    }
+
+    /**
+     * Releases a region file which was acquired before, allowing it to be
+     * closed again.
+     *
+     * @param regionFile The region file
+     */
+    public static void release(RegionFile regionFile) {
+        synchronized (lock) {
+            Integer count = users.get(regionFile);
+            if (count == null) {
+                return;
+            }
+            if (count > 1) {
+                users.put(regionFile, count - 1);
+                return;
+            }
+            users.remove(regionFile);
+            if (closeOnRelease.remove(regionFile) != null) {
+                close(regionFile);
+            }
+        }
+    }
+
+    /**
+     * Gets the region file at the given path, opening it if it isn't open
+     * yet.
+     *
+     * @param file The region file
+     * @return The region file
+     */
+    public static RegionFile get(File file) {
+        synchronized (lock) {
+            RegionFile regionFile = regionFiles.get(file);
+            if (regionFile != null) {
+                hits++;
+                return regionFile;
+            }
+            return open(file);
+        }
+    }
+
+    /**
+     * Gets a stream of the data of the given chunk.
+     *
+     * <p>The chunk data is read into memory right away, so the region file
+     * doesn't have to stay open while the stream is read.</p>
+     *
+     * @param worldDir The directory of the world
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The data stream, or null if the chunk doesn't exist
+     */
+    @Nullable
+    public static DataInputStream getChunkInputStream(File worldDir, int chunkX, int chunkZ) {
+        RegionFile regionFile = acquire(worldDir, chunkX, chunkZ);
+        try {
+            return regionFile.getChunkDataInputStream(chunkX & 31, chunkZ & 31);
+        } finally {
+            release(regionFile);
+        }
+    }
+
+    /**
+     * Gets a stream to write the data of the given chunk to. The data is
+     * written to the region file once the stream is closed, the file stays
+     * open until then.
+     *
+     * @param worldDir The directory of the world
+     * @param chunkX The chunk x coordinate
+     * @param chunkZ The chunk z coordinate
+     * @return The data stream
+     */
+    public static DataOutputStream getChunkOutputStream(File worldDir, int chunkX, int chunkZ) {
+        RegionFile regionFile = acquire(worldDir, chunkX, chunkZ);
+        try {
+            return new DataOutputStream(new ReleasingOutputStream(regionFile, regionFile.getChunkDataOutputStream(chunkX & 31, chunkZ & 31)));
+        } catch (RuntimeException e) {
+            release(regionFile);
+            throw e;
+        }
+    }
+
+    private static final class ReleasingOutputStream extends FilterOutputStream {
+
+        private final RegionFile regionFile;
+        private boolean closed;
+
+        ReleasingOutputStream(RegionFile regionFile, DataOutputStream out) {
+            super(out);
+            this.regionFile = regionFile;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            try {
+                super.close();
+            } finally {
+                release(this.regionFile);
+            }
+        }
+
+    }
+
+    private static RegionFile open(File file) {
+        misses++;
+        if (capacity == 0) {
+            capacity = Math.max(1, SpongeImpl.getGlobalConfig().getConfig().getOptimizations().getRegionFileCacheSize());
+        }
+        Iterator<RegionFile> itr = regionFiles.values().iterator();
+        while (regionFiles.size() >= capacity && itr.hasNext()) {
+            RegionFile regionFile = itr.next();
+            // Files in use stay open, evicting them would let the file be
+            // opened a second time while it is still being written
+            if (users.containsKey(regionFile)) {
+                continue;
+            }
+            close(regionFile);
+            itr.remove();
+            evictions++;
+        }
+        RegionFile regionFile = new RegionFile(file);
+        regionFiles.put(file, regionFile);
+        return regionFile;
+    }
+
+    /**
+     * Closes all open region files.
+     */
+    public static void clear() {
+        synchronized (lock) {
+            for (RegionFile regionFile : regionFiles.values()) {
+                if (users.containsKey(regionFile)) {
+                    closeOnRelease.put(regionFile, true);
+                } else {
+                    close(regionFile);
+                }
+            }
+            regionFiles.clear();
+        }
+    }
+
+    private static void close(RegionFile regionFile) {
+        try {
+            regionFile.close();
+        } catch (IOException e) {
+            SpongeImpl.getLogger().error("Failed to close region file", e);
+        }
+    }
+
+    public static int getSize() {
+        synchronized (lock) {
+            return regionFiles.size();
+        }
+    }
+
+    public static int getCapacity() {
+        synchronized (lock) {
+            return capacity;
+        }
+    }
+
+    public static long getHits() {
+        synchronized (lock) {
+            return hits;
+        }
+    }
+
+    public static long getMisses() {
+        synchronized (lock) {
+            return misses;
+        }
+    }
+
+    public static long getEvictions() {
+        synchronized (lock) {
+            return evictions;
+        }
+    }
+
+}
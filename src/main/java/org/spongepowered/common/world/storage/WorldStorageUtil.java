@@ -102,17 +102,7 @@ public static Iterable<Path> listRegionFiles(Path worldDir) {
     // Similar to RegionFileCache#createOrLoadRegionFile except this uses direct
     // file name instead of x,z
     public static RegionFile getRegionFile(Path regionFilePath) {
-        File file = regionFilePath.toFile();
-        RegionFile regionFile = RegionFileCache.REGIONS_BY_FILE.get(file);
-        if (regionFile != null) {
-            return regionFile;
-        }
-        if (RegionFileCache.REGIONS_BY_FILE.size() >= 256) {
-            RegionFileCache.clearRegionFileReferences();
-        }
-        regionFile = new RegionFile(file);
-        RegionFileCache.REGIONS_BY_FILE.put(file, regionFile);
-        return regionFile;
+        return SpongeRegionFileCache.get(regionFilePath.toFile());
     }
 
 }
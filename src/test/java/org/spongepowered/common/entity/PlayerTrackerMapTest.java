@@ -0,0 +1,105 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.entity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PlayerTrackerMapTest {
+
+    @Test
+    public void testSetOwnerAndNotifier() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        assertEquals(-1, map.getOwner(42));
+        map.setOwner(42, 3);
+        assertEquals(3, map.getOwner(42));
+        assertEquals(-1, map.getNotifier(42));
+        map.setNotifier(42, 5);
+        assertEquals(3, map.getOwner(42));
+        assertEquals(5, map.getNotifier(42));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testZeroPosition() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        map.put(0, 1, 2);
+        map.put(16, 3, 4);
+        assertTrue(map.containsKey(0));
+        assertEquals(1, map.getOwner(0));
+        assertEquals(2, map.getNotifier(0));
+        assertTrue(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(3, map.getOwner(16));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        PlayerTrackerMap map = new PlayerTrackerMap();
+        Map<Integer, int[]> expected = new HashMap<>();
+        Random random = new Random(1234);
+        for (int i = 0; i < 100000; i++) {
+            // A small key range so that removals and overwrites are common
+            int pos = random.nextInt(4096) - 2048;
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(pos) != null, map.remove(pos));
+            } else {
+                int owner = random.nextInt(100);
+                int notifier = random.nextInt(100);
+                map.put(pos, owner, notifier);
+                expected.put(pos, new int[] {owner, notifier});
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Integer, int[]> entry : expected.entrySet()) {
+            assertEquals(entry.getValue()[0], map.getOwner(entry.getKey()));
+            assertEquals(entry.getValue()[1], map.getNotifier(entry.getKey()));
+        }
+        int[] visited = new int[1];
+        map.forEach((pos, ownerIndex, notifierIndex) -> {
+            int[] value = expected.get(pos);
+            assertEquals(value[0], ownerIndex);
+            assertEquals(value[1], notifierIndex);
+            visited[0]++;
+        });
+        assertEquals(expected.size(), visited[0]);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEmptyIsImmutable() {
+        assertTrue(PlayerTrackerMap.EMPTY.isEmpty());
+        assertFalse(PlayerTrackerMap.EMPTY.remove(42));
+        PlayerTrackerMap.EMPTY.put(42, 1, 2);
+    }
+
+}
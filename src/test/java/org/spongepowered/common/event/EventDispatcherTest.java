@@ -0,0 +1,126 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import co.aikar.timings.Timing;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.Order;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.impl.AbstractEvent;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.event.gen.DefineableClassLoader;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EventDispatcherTest {
+
+    private final DefineableClassLoader classLoader = new DefineableClassLoader(getClass().getClassLoader());
+    private final EventDispatcher.Factory dispatcherFactory = new ClassEventDispatcherFactory("org.spongepowered.common.event.dispatcher",
+            this.classLoader);
+    private final PluginContainer plugin = Mockito.mock(PluginContainer.class);
+
+    @Test
+    public void testDispatchOrder() throws Exception {
+        List<Order> calls = new ArrayList<>();
+        List<RegisteredListener<?>> listeners = new ArrayList<>();
+        for (Order order : Order.values()) {
+            listeners.add(new RegisteredListener<>(this.plugin, TestEvent.class, order, event -> calls.add(event.currentOrder), false));
+        }
+
+        TestEvent event = new TestEvent(Cause.source(this).build());
+        this.dispatcherFactory.create(listeners).dispatch(event);
+
+        Assert.assertArrayEquals("Listeners were not called in order!", Order.values(), calls.toArray());
+        Assert.assertNull("Current order was not reset after dispatch!", event.currentOrder);
+    }
+
+    @Test
+    public void testSharedClass() throws Exception {
+        List<RegisteredListener<?>> first = new ArrayList<>();
+        List<RegisteredListener<?>> second = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            first.add(new RegisteredListener<>(this.plugin, TestEvent.class, Order.DEFAULT, event -> {}, false));
+            second.add(new RegisteredListener<>(this.plugin, Event.class, Order.DEFAULT, event -> {}, false));
+        }
+
+        Assert.assertSame("Dispatchers of the same size did not share a class!", this.dispatcherFactory.create(first).getClass(),
+                this.dispatcherFactory.create(second).getClass());
+    }
+
+    @Test
+    public void testLargeListenerList() throws Exception {
+        int[] calls = new int[1];
+        List<RegisteredListener<?>> listeners = new ArrayList<>();
+        for (int i = 0; i <= ClassEventDispatcherFactory.MAX_GENERATED_LISTENERS; i++) {
+            listeners.add(new RegisteredListener<>(this.plugin, TestEvent.class, Order.DEFAULT, event -> calls[0]++, false));
+        }
+
+        this.dispatcherFactory.create(listeners).dispatch(new TestEvent(Cause.source(this).build()));
+        Assert.assertEquals("Not every listener was called!", listeners.size(), calls[0]);
+    }
+
+    @Test
+    public void testTimedDispatch() throws Exception {
+        List<Order> calls = new ArrayList<>();
+        Timing timing = Mockito.mock(Timing.class);
+        RegisteredListener<?> listener = new RegisteredListener<>(this.plugin, TestEvent.class, Order.DEFAULT, event -> {
+            calls.add(event.currentOrder);
+            throw new IllegalStateException("Thrown by test listener");
+        }, false);
+        Field listenerTimer = RegisteredListener.class.getDeclaredField("listenerTimer");
+        listenerTimer.setAccessible(true);
+        listenerTimer.set(listener, timing);
+
+        List<RegisteredListener<?>> listeners = new ArrayList<>();
+        listeners.add(listener);
+        this.dispatcherFactory.create(listeners).dispatchTimed(new TestEvent(Cause.source(this).build()));
+
+        Assert.assertEquals("The listener was not called!", 1, calls.size());
+        InOrder inOrder = Mockito.inOrder(timing);
+        inOrder.verify(timing).startTimingIfSync();
+        inOrder.verify(timing).stopTimingIfSync();
+    }
+
+    public static class TestEvent extends AbstractEvent {
+
+        private final Cause cause;
+
+        public TestEvent(Cause cause) {
+            this.cause = cause;
+        }
+
+        @Override
+        public Cause getCause() {
+            return this.cause;
+        }
+    }
+
+}
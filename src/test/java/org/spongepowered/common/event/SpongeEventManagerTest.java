@@ -0,0 +1,117 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.event;
+
+import co.aikar.timings.Timings;
+import co.aikar.timings.TimingsFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.event.Event;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.plugin.PluginManager;
+import org.spongepowered.common.registry.RegistryHelper;
+
+import java.lang.reflect.Field;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SpongeEventManagerTest {
+
+    private final CountDownLatch baking = new CountDownLatch(1);
+    private final CountDownLatch finishBake = new CountDownLatch(1);
+    private final CountDownLatch registered = new CountDownLatch(1);
+    private SpongeEventManager eventManager;
+    private Object plugin;
+    private Object timingsFactory;
+
+    @Before
+    public void init() throws Exception {
+        Field factory = Timings.class.getDeclaredField("factory");
+        factory.setAccessible(true);
+        this.timingsFactory = factory.get(null);
+        RegistryHelper.setFinalStatic(Timings.class, "factory", Mockito.mock(TimingsFactory.class));
+
+        PluginManager manager = Mockito.mock(PluginManager.class);
+        this.eventManager = new SpongeEventManager(manager) {
+
+            @Override
+            <T extends Event> RegisteredListener.Cache bakeHandlers(Class<T> rootEvent) {
+                RegisteredListener.Cache cache = super.bakeHandlers(rootEvent);
+                // Holds the first bake after it read the handlers
+                SpongeEventManagerTest.this.baking.countDown();
+                try {
+                    SpongeEventManagerTest.this.finishBake.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                return cache;
+            }
+
+            @Override
+            void invalidateHandlers(Set<Class<?>> changed) {
+                // The handlers are registered, the held bake may be released
+                // now and has to be invalidated once it is stored
+                SpongeEventManagerTest.this.registered.countDown();
+                super.invalidateHandlers(changed);
+            }
+        };
+
+        this.plugin = new Object();
+        PluginContainer container = Mockito.mock(PluginContainer.class);
+        Mockito.when(manager.fromInstance(this.plugin)).thenReturn(Optional.of(container));
+    }
+
+    @After
+    public void restoreTimings() {
+        RegistryHelper.setFinalStatic(Timings.class, "factory", this.timingsFactory);
+    }
+
+    @Test
+    public void testRegisterDuringBake() throws Exception {
+        EventDispatcherTest.TestEvent event = new EventDispatcherTest.TestEvent(Cause.source(this).build());
+        Thread post = new Thread(() -> this.eventManager.post(event));
+        post.start();
+        Assert.assertTrue("The handlers were not baked!", this.baking.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger calls = new AtomicInteger();
+        Thread register = new Thread(() -> this.eventManager.registerListener(this.plugin, EventDispatcherTest.TestEvent.class,
+                e -> calls.incrementAndGet()));
+        register.start();
+        Assert.assertTrue("The listener was not registered!", this.registered.await(5, TimeUnit.SECONDS));
+        this.finishBake.countDown();
+        post.join();
+        register.join();
+
+        this.eventManager.post(event);
+        Assert.assertEquals("The listener registered during a bake was not called!", 1, calls.get());
+    }
+
+}
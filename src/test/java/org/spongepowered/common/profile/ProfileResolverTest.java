@@ -0,0 +1,172 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.profile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.profile.GameProfile;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public class ProfileResolverTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private InMemoryProfileSource source;
+    private ProfileResolver resolver;
+
+    @Before
+    public void setUp() {
+        this.source = new InMemoryProfileSource();
+        this.resolver = new ProfileResolver(this.source, this.tasks::add, 2, 0);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = this.tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    @Test
+    public void testCoalesceSameUniqueId() throws Exception {
+        GameProfile profile = this.source.add(UUID.randomUUID(), "Notch");
+
+        CompletableFuture<Optional<GameProfile>> first = this.resolver.resolve(profile.getUniqueId());
+        CompletableFuture<Optional<GameProfile>> second = this.resolver.resolve(profile.getUniqueId());
+        assertSame(first, second);
+        runTasks();
+
+        assertEquals(Optional.of(profile), first.get());
+        assertEquals(1, this.source.idRequests.size());
+        assertEquals(1, this.source.idRequests.get(0).size());
+    }
+
+    @Test
+    public void testBatchNames() throws Exception {
+        GameProfile first = this.source.add(UUID.randomUUID(), "First");
+        GameProfile second = this.source.add(UUID.randomUUID(), "Second");
+        GameProfile third = this.source.add(UUID.randomUUID(), "Third");
+
+        CompletableFuture<Optional<GameProfile>> firstFuture = this.resolver.resolve("first");
+        CompletableFuture<Optional<GameProfile>> secondFuture = this.resolver.resolve("Second");
+        CompletableFuture<Optional<GameProfile>> thirdFuture = this.resolver.resolve("THIRD");
+        CompletableFuture<Optional<GameProfile>> missingFuture = this.resolver.resolve("Missing");
+        assertSame(firstFuture, this.resolver.resolve("First"));
+        runTasks();
+
+        assertEquals(Optional.of(first), firstFuture.get());
+        assertEquals(Optional.of(second), secondFuture.get());
+        assertEquals(Optional.of(third), thirdFuture.get());
+        assertFalse(missingFuture.get().isPresent());
+        // Four names with a batch size of two
+        assertEquals(2, this.source.nameRequests.size());
+    }
+
+    @Test
+    public void testNewLookupAfterCompletion() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        CompletableFuture<Optional<GameProfile>> first = this.resolver.resolve(uniqueId);
+        runTasks();
+        assertFalse(first.get().isPresent());
+
+        this.source.add(uniqueId, "Late");
+        CompletableFuture<Optional<GameProfile>> second = this.resolver.resolve(uniqueId);
+        runTasks();
+        assertTrue(second.get().isPresent());
+        assertEquals(2, this.source.idRequests.size());
+    }
+
+    @Test
+    public void testFailedLookup() {
+        this.source.fail = true;
+        CompletableFuture<Optional<GameProfile>> future = this.resolver.resolve(UUID.randomUUID());
+        runTasks();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    private static final class InMemoryProfileSource implements ProfileSource {
+
+        final Map<UUID, GameProfile> profiles = new HashMap<>();
+        final List<Collection<UUID>> idRequests = new ArrayList<>();
+        final List<Collection<String>> nameRequests = new ArrayList<>();
+        boolean fail;
+
+        GameProfile add(UUID uniqueId, String name) {
+            GameProfile profile = Mockito.mock(GameProfile.class);
+            Mockito.when(profile.getUniqueId()).thenReturn(uniqueId);
+            Mockito.when(profile.getName()).thenReturn(Optional.of(name));
+            this.profiles.put(uniqueId, profile);
+            return profile;
+        }
+
+        @Override
+        public Map<UUID, Optional<GameProfile>> findByIds(Collection<UUID> uniqueIds) {
+            if (this.fail) {
+                throw new IllegalStateException("Too many requests");
+            }
+            this.idRequests.add(uniqueIds);
+            Map<UUID, Optional<GameProfile>> result = new HashMap<>();
+            for (UUID uniqueId : uniqueIds) {
+                result.put(uniqueId, Optional.ofNullable(this.profiles.get(uniqueId)));
+            }
+            return result;
+        }
+
+        @Override
+        public Map<String, Optional<GameProfile>> findByNames(Collection<String> names) {
+            this.nameRequests.add(names);
+            Map<String, Optional<GameProfile>> result = new HashMap<>();
+            for (GameProfile profile : this.profiles.values()) {
+                String name = profile.getName().get();
+                if (names.contains(name.toLowerCase())) {
+                    result.put(name, Optional.of(profile));
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Optional<GameProfile> fill(GameProfile profile, boolean signed) {
+            return Optional.ofNullable(this.profiles.get(profile.getUniqueId()));
+        }
+
+    }
+
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import co.aikar.timings.Timings;
+import co.aikar.timings.TimingsFactory;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.common.registry.RegistryHelper;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AsyncSchedulerTest {
+
+    private static final long PERIOD = TimeUnit.MILLISECONDS.toNanos(10);
+    private static Object timingsFactory;
+
+    private final AtomicInteger processed = new AtomicInteger();
+    private ExecutorService executor;
+    private AsyncScheduler scheduler;
+    private PluginContainer plugin;
+
+    @BeforeClass
+    public static void setUpTimings() throws Exception {
+        Field factory = Timings.class.getDeclaredField("factory");
+        factory.setAccessible(true);
+        timingsFactory = factory.get(null);
+        RegistryHelper.setFinalStatic(Timings.class, "factory", Mockito.mock(TimingsFactory.class));
+    }
+
+    @AfterClass
+    public static void restoreTimings() {
+        RegistryHelper.setFinalStatic(Timings.class, "factory", timingsFactory);
+    }
+
+    @Before
+    public void setUp() {
+        this.executor = Executors.newCachedThreadPool();
+        this.scheduler = new AsyncScheduler(this.executor, 1) {
+
+            @Override
+            protected void processTask(ScheduledTask task) {
+                AsyncSchedulerTest.this.processed.incrementAndGet();
+                super.processTask(task);
+            }
+        };
+        this.plugin = Mockito.mock(PluginContainer.class);
+        Mockito.when(this.plugin.getId()).thenReturn("test");
+    }
+
+    @After
+    public void tearDown() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void testSkippedTaskIsRetriedAPeriodLater() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ScheduledTask blocking = new ScheduledTask(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS, task -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ignored) {
+            }
+        }, "blocking", 0, false, PERIOD, false, this.plugin);
+        this.scheduler.addTask(blocking);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // The plugin may only run one task, so the next execution of the
+        // task stays switching and due until the first one is released
+        this.processed.set(0);
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(PERIOD) * 20);
+        final int processed = this.processed.get();
+        blocking.cancel();
+        release.countDown();
+
+        assertTrue("The scheduler processed a waiting task " + processed + " times", processed <= 40);
+    }
+
+    @Test
+    public void testCancelledTaskIsRemoved() {
+        final ScheduledTask delayed = new ScheduledTask(ScheduledTask.TaskSynchronicity.ASYNCHRONOUS, task -> {
+        }, "delayed", TimeUnit.HOURS.toNanos(1), false, 0, false, this.plugin);
+        this.scheduler.addTask(delayed);
+        assertEquals(1, this.scheduler.getQueueDepth());
+        assertTrue(this.scheduler.getTask(delayed.getUniqueId()).isPresent());
+
+        delayed.cancel();
+        assertEquals(0, this.scheduler.getQueueDepth());
+        assertFalse(this.scheduler.getTask(delayed.getUniqueId()).isPresent());
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import java.util.Iterator;
+
+public class MostRecentlyUsedSetTest {
+
+    @Test
+    public void testMostRecentFirst() {
+        MostRecentlyUsedSet<String> set = new MostRecentlyUsedSet<>();
+        set.addFirst("a");
+        set.addFirst("b");
+        set.addFirst("c");
+        assertEquals(ImmutableList.of("c", "b", "a"), Lists.newArrayList(set));
+
+        set.addFirst("a");
+        assertEquals(ImmutableList.of("a", "c", "b"), Lists.newArrayList(set));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    public void testRemove() {
+        MostRecentlyUsedSet<String> set = new MostRecentlyUsedSet<>();
+        set.addFirst("a");
+        set.addFirst("b");
+        set.addFirst("c");
+        assertTrue(set.remove("b"));
+        assertFalse(set.remove("b"));
+        assertFalse(set.contains("b"));
+        assertEquals(ImmutableList.of("c", "a"), Lists.newArrayList(set));
+        assertTrue(set.remove("c"));
+        assertTrue(set.remove("a"));
+        assertEquals(0, set.size());
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void testModifiedDuringIteration() {
+        MostRecentlyUsedSet<String> set = new MostRecentlyUsedSet<>();
+        set.addFirst("a");
+        set.addFirst("b");
+        set.addFirst("c");
+        set.addFirst("d");
+        Iterator<String> iterator = set.iterator();
+        assertEquals("d", iterator.next());
+        // Removed elements are skipped, moved ones aren't visited twice
+        set.remove("c");
+        set.addFirst("b");
+        assertEquals("a", iterator.next());
+        assertFalse(iterator.hasNext());
+
+        iterator = set.iterator();
+        set.clear();
+        assertFalse(iterator.hasNext());
+    }
+
+}
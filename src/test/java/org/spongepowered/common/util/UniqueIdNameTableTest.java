@@ -0,0 +1,121 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class UniqueIdNameTableTest {
+
+    /**
+     * Finds unique ids whose home slot in a table of the given capacity is
+     * the given slot.
+     */
+    private static List<UUID> findWithSlot(int slot, int capacity, int count) {
+        final List<UUID> uuids = new ArrayList<>();
+        for (long msb = 0; uuids.size() < count; msb++) {
+            if (UniqueIdNameTable.slot(msb, 0, capacity - 1) == slot) {
+                uuids.add(new UUID(msb, 0));
+            }
+        }
+        return uuids;
+    }
+
+    @Test
+    public void testInsert() {
+        final UniqueIdNameTable table = new UniqueIdNameTable(8);
+        final UUID first = UUID.randomUUID();
+        final UUID second = UUID.randomUUID();
+
+        assertNull(table.put(first, "Notch"));
+        assertNull(table.put(second, "jeb_"));
+        assertEquals("Notch", table.get(first));
+        assertEquals("jeb_", table.get(second));
+        assertNull(table.get(UUID.randomUUID()));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testOverwrite() {
+        final UniqueIdNameTable table = new UniqueIdNameTable(8);
+        final UUID uuid = UUID.randomUUID();
+
+        assertNull(table.put(uuid, "Notch"));
+        assertEquals("Notch", table.put(uuid, "Dinnerbone"));
+        assertEquals("Dinnerbone", table.get(uuid));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testRemoveAcrossWrapAround() {
+        final UniqueIdNameTable table = new UniqueIdNameTable(8);
+        // Three entries which belong in the last slot, the later ones wrap
+        // around to the first slots, followed by one which belongs there
+        final List<UUID> last = findWithSlot(7, 8, 3);
+        final UUID first = findWithSlot(0, 8, 1).get(0);
+        table.put(last.get(0), "a");
+        table.put(last.get(1), "b");
+        table.put(last.get(2), "c");
+        table.put(first, "d");
+
+        assertEquals("a", table.remove(last.get(0)));
+        assertNull(table.get(last.get(0)));
+        assertEquals("b", table.get(last.get(1)));
+        assertEquals("c", table.get(last.get(2)));
+        assertEquals("d", table.get(first));
+
+        assertEquals("c", table.remove(last.get(2)));
+        assertEquals("b", table.get(last.get(1)));
+        assertEquals("d", table.get(first));
+        assertNull(table.remove(last.get(2)));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    public void testResize() {
+        final UniqueIdNameTable table = new UniqueIdNameTable(8);
+        final Map<UUID, String> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            final UUID uuid = UUID.randomUUID();
+            table.put(uuid, "player" + i);
+            expected.put(uuid, "player" + i);
+        }
+
+        assertEquals(expected.size(), table.size());
+        assertEquals(2048, table.capacity());
+        final Map<UUID, String> actual = new HashMap<>();
+        table.forEach(actual::put);
+        assertEquals(expected, actual);
+    }
+
+}
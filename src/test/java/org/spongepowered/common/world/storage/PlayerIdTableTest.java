@@ -0,0 +1,114 @@
+/*
+ * This file is part of Sponge, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.common.world.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.nbt.NBTTagList;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.UUID;
+
+public class PlayerIdTableTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIndexes() {
+        PlayerIdTable table = new PlayerIdTable();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        assertEquals(0, table.getOrCreateIndex(first));
+        assertEquals(1, table.getOrCreateIndex(second));
+        assertEquals(0, table.getOrCreateIndex(first));
+        assertEquals(second, table.getUniqueId(1));
+        assertNull(table.getUniqueId(2));
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i + 2, table.getOrCreateIndex(UUID.randomUUID()));
+        }
+        assertEquals(1, table.getOrCreateIndex(second));
+    }
+
+    @Test
+    public void testAppendAndLoad() throws IOException {
+        Path file = this.folder.getRoot().toPath().resolve(PlayerIdTable.FILE_NAME);
+        PlayerIdTable table = new PlayerIdTable();
+        UUID[] ids = new UUID[100];
+        for (int i = 0; i < 50; i++) {
+            ids[i] = UUID.randomUUID();
+            table.getOrCreateIndex(ids[i]);
+        }
+        table.save(file);
+        for (int i = 50; i < 100; i++) {
+            ids[i] = UUID.randomUUID();
+            table.getOrCreateIndex(ids[i]);
+        }
+        table.save(file);
+        assertEquals(100, table.getPersistedCount());
+
+        PlayerIdTable loaded = new PlayerIdTable();
+        loaded.load(file, 100);
+        assertEquals(100, loaded.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ids[i], loaded.getUniqueId(i));
+            assertEquals(i, loaded.getOrCreateIndex(ids[i]));
+        }
+    }
+
+    @Test
+    public void testMigrationKeptUntilSaved() throws IOException {
+        PlayerIdTable legacy = new PlayerIdTable();
+        UUID first = UUID.randomUUID();
+        legacy.getOrCreateIndex(first);
+        PlayerIdTable table = new PlayerIdTable();
+        table.loadLegacy(legacy.saveLegacy());
+        UUID second = UUID.randomUUID();
+        assertEquals(1, table.getOrCreateIndex(second));
+        assertTrue(table.isMigrationPending());
+
+        try {
+            table.save(this.folder.getRoot().toPath().resolve("missing").resolve(PlayerIdTable.FILE_NAME));
+        } catch (IOException ignored) {
+        }
+        // A failed save keeps every id in the level data
+        assertTrue(table.isMigrationPending());
+        NBTTagList list = table.saveLegacy();
+        assertEquals(2, list.tagCount());
+
+        table.save(this.folder.getRoot().toPath().resolve(PlayerIdTable.FILE_NAME));
+        assertFalse(table.isMigrationPending());
+        assertEquals(2, table.getPersistedCount());
+        assertEquals(second, table.getUniqueId(1));
+    }
+
+}